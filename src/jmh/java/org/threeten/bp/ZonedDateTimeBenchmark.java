@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark creating a ZonedDateTime from a local date-time.
+ * <p>
+ * The local date-times are valid in the zone, thus the offset is resolved without
+ * a gap or overlap. The result itself is the only allocation expected, 24 bytes
+ * with compressed oops, which is checked using the GC profiler:
+ * <pre>
+ *  java -cp &lt;test classpath&gt; org.openjdk.jmh.Main ZonedDateTimeBenchmark -prof gc
+ * </pre>
+ * The {@code gc.alloc.rate.norm} result is the bytes allocated per operation.
+ * Adding {@code -jvmArgs -XX:-DoEscapeAnalysis} shows any temporary objects
+ * that escape analysis would otherwise remove.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ZonedDateTimeBenchmark {
+
+    /** The number of values, a power of two. */
+    private static final int SIZE = 1024;
+
+    /**
+     * The zone, with and without daylight savings.
+     */
+    @Param({"Europe/London", "Asia/Tokyo"})
+    public String zoneId;
+
+    private ZoneId zone;
+    private LocalDateTime[] dateTimes;
+    private ZoneOffset[] offsets;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        zone = ZoneId.of(zoneId);
+        dateTimes = new LocalDateTime[SIZE];
+        offsets = new ZoneOffset[SIZE];
+        long start = LocalDateTime.of(2010, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long range = 20L * 365 * 86400;
+        Random random = new Random(2020);
+        for (int i = 0; i < SIZE; i++) {
+            ZonedDateTime zdt = Instant.ofEpochSecond(start + (long) (random.nextDouble() * range)).atZone(zone);
+            dateTimes[i] = zdt.toLocalDateTime();
+            offsets[i] = zdt.getOffset();
+        }
+    }
+
+    private int next() {
+        return index = (index + 1) & (SIZE - 1);
+    }
+
+    //-----------------------------------------------------------------------
+    @Benchmark
+    public ZonedDateTime ofLocal_noPreferredOffset() {
+        return ZonedDateTime.ofLocal(dateTimes[next()], zone, null);
+    }
+
+    @Benchmark
+    public ZonedDateTime ofLocal_preferredOffset() {
+        int i = next();
+        return ZonedDateTime.ofLocal(dateTimes[i], zone, offsets[i]);
+    }
+
+    @Benchmark
+    public ZonedDateTime ofStrict() {
+        int i = next();
+        return ZonedDateTime.ofStrict(dateTimes[i], offsets[i], zone);
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.format;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.threeten.bp.Instant;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZonedDateTime;
+import org.threeten.bp.temporal.TemporalAccessor;
+
+/**
+ * Benchmark formatting and parsing using DateTimeFormatter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateTimeFormatterBenchmark {
+
+    /** The number of values, a power of two. */
+    private static final int SIZE = 4;
+
+    private DateTimeFormatter offsetFormatter;
+    private DateTimeFormatter shortZoneTextFormatter;
+    private DateTimeFormatter fullZoneTextFormatter;
+    private DateTimeFormatter zoneIdFormatter;
+    private ZonedDateTime[] dateTimes;
+    private String[] fullZoneTexts;
+    private String[] zoneIdTexts;
+    private LocalDateTime[] localDateTimes;
+    private OffsetDateTime[] offsetDateTimes;
+    private Instant[] instants;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        offsetFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm xxx", Locale.ENGLISH);
+        shortZoneTextFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm z", Locale.ENGLISH);
+        fullZoneTextFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm zzzz", Locale.ENGLISH);
+        zoneIdFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm VV", Locale.ENGLISH);
+        String[] zoneIds = {"Europe/London", "America/New_York", "Asia/Tokyo", "Australia/Sydney"};
+        dateTimes = new ZonedDateTime[SIZE];
+        fullZoneTexts = new String[SIZE];
+        zoneIdTexts = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            dateTimes[i] = ZonedDateTime.of(2024, 1 + i * 3, 15, 12, 0, 0, 0, ZoneId.of(zoneIds[i]));
+            fullZoneTexts[i] = fullZoneTextFormatter.format(dateTimes[i]);
+            zoneIdTexts[i] = zoneIdFormatter.format(dateTimes[i]);
+        }
+        localDateTimes = new LocalDateTime[SIZE];
+        offsetDateTimes = new OffsetDateTime[SIZE];
+        instants = new Instant[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            offsetDateTimes[i] = dateTimes[i].withNano(i * 123000000).toOffsetDateTime();
+            localDateTimes[i] = offsetDateTimes[i].toLocalDateTime();
+            instants[i] = offsetDateTimes[i].toInstant();
+        }
+    }
+
+    private int next() {
+        return index = (index + 1) & (SIZE - 1);
+    }
+
+    //-----------------------------------------------------------------------
+    @Benchmark
+    public String format_offset() {
+        return offsetFormatter.format(dateTimes[next()]);
+    }
+
+    @Benchmark
+    public String format_zoneTextShort() {
+        return shortZoneTextFormatter.format(dateTimes[next()]);
+    }
+
+    @Benchmark
+    public String format_zoneTextFull() {
+        return fullZoneTextFormatter.format(dateTimes[next()]);
+    }
+
+    @Benchmark
+    public Object parse_zoneTextFull() {
+        return fullZoneTextFormatter.parse(fullZoneTexts[next()]);
+    }
+
+    @Benchmark
+    public Object parse_zoneId() {
+        return zoneIdFormatter.parse(zoneIdTexts[next()]);
+    }
+
+    // the ISO formatters print these classes directly, the generic methods use the printer-parser chain
+    @Benchmark
+    public String format_isoLocalDateTime() {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(localDateTimes[next()]);
+    }
+
+    @Benchmark
+    public String format_isoLocalDateTime_generic() {
+        return formatGeneric(DateTimeFormatter.ISO_LOCAL_DATE_TIME, localDateTimes[next()]);
+    }
+
+    @Benchmark
+    public String format_isoOffsetDateTime() {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(offsetDateTimes[next()]);
+    }
+
+    @Benchmark
+    public String format_isoOffsetDateTime_generic() {
+        return formatGeneric(DateTimeFormatter.ISO_OFFSET_DATE_TIME, offsetDateTimes[next()]);
+    }
+
+    @Benchmark
+    public String format_isoInstant() {
+        return DateTimeFormatter.ISO_INSTANT.format(instants[next()]);
+    }
+
+    @Benchmark
+    public String format_isoInstant_generic() {
+        return formatGeneric(DateTimeFormatter.ISO_INSTANT, instants[next()]);
+    }
+
+    private static String formatGeneric(DateTimeFormatter formatter, TemporalAccessor temporal) {
+        StringBuilder buf = new StringBuilder(32);
+        formatter.toPrinterParser(false).print(new DateTimePrintContext(temporal, formatter), buf);
+        return buf.toString();
+    }
+
+    @Benchmark
+    public DateTimeFormatter ofPattern() {
+        return DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS", Locale.ENGLISH);
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.threeten.bp.Instant;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.ZoneOffset;
+
+/**
+ * Benchmark the queries on ZoneRules.
+ * <p>
+ * Each benchmark queries a fixed sequence of pseudo-random instants or
+ * local date-times within ten years either side of the middle of the era.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ZoneRulesBenchmark {
+
+    /** The number of values, a power of two. */
+    private static final int SIZE = 1024;
+
+    /**
+     * The zone: fixed offset, northern and southern hemisphere daylight
+     * savings, and one with a long history of changes.
+     */
+    @Param({"Etc/GMT-5", "Europe/London", "Australia/Sydney", "America/St_Johns"})
+    public String zoneId;
+    /**
+     * The middle year of the values: historic transitions, recent transitions
+     * and those defined only by the transition rules.
+     */
+    @Param({"1950", "2020", "2090"})
+    public int era;
+
+    private ZoneRules rules;
+    private Instant[] instants;
+    private LocalDateTime[] dateTimes;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        rules = ZoneRulesProvider.getRules(zoneId, false);
+        instants = new Instant[SIZE];
+        dateTimes = new LocalDateTime[SIZE];
+        long start = LocalDateTime.of(era - 10, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long range = 20L * 365 * 86400;
+        Random random = new Random(era);
+        for (int i = 0; i < SIZE; i++) {
+            long epochSec = start + (long) (random.nextDouble() * range);
+            instants[i] = Instant.ofEpochSecond(epochSec);
+            dateTimes[i] = LocalDateTime.ofEpochSecond(epochSec, 0, ZoneOffset.UTC);
+        }
+    }
+
+    private int next() {
+        return index = (index + 1) & (SIZE - 1);
+    }
+
+    //-----------------------------------------------------------------------
+    @Benchmark
+    public ZoneOffset getOffset_Instant() {
+        return rules.getOffset(instants[next()]);
+    }
+
+    @Benchmark
+    public ZoneOffset getOffset_LocalDateTime() {
+        return rules.getOffset(dateTimes[next()]);
+    }
+
+    @Benchmark
+    public List<ZoneOffset> getValidOffsets() {
+        return rules.getValidOffsets(dateTimes[next()]);
+    }
+
+    @Benchmark
+    public ZoneOffsetTransition nextTransition() {
+        return rules.nextTransition(instants[next()]);
+    }
+
+    @Benchmark
+    public ZoneOffsetTransition previousTransition() {
+        return rules.previousTransition(instants[next()]);
+    }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.threeten.bp.Instant;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.ZoneOffset;
+
+/**
+ * Benchmark the bulk queries on ZoneRules against a loop querying each element.
+ * <p>
+ * The values span twenty years around 2020, either sorted, clustered in runs
+ * of values within a day of each other, or in random order.
+ * The results are the average time per element.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ZoneRulesBulkBenchmark {
+
+    /** The number of values. */
+    private static final int SIZE = 4096;
+    /** The number of values in each cluster. */
+    private static final int CLUSTER = 64;
+
+    /**
+     * The zone: fixed offset, northern and southern hemisphere daylight
+     * savings, and one with a long history of changes.
+     */
+    @Param({"Etc/GMT-5", "Europe/London", "Australia/Sydney", "America/St_Johns"})
+    public String zoneId;
+    /**
+     * The order of the values.
+     */
+    @Param({"sorted", "clustered", "random"})
+    public String order;
+
+    private ZoneRules rules;
+    private long[] epochSeconds;
+    private long[] work;
+    private int[] offsets;
+
+    @Setup
+    public void setUp() {
+        rules = ZoneRulesProvider.getRules(zoneId, false);
+        epochSeconds = new long[SIZE];
+        work = new long[SIZE];
+        offsets = new int[SIZE];
+        long start = LocalDateTime.of(2010, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long range = 20L * 365 * 86400;
+        Random random = new Random(2020);
+        if (order.equals("clustered")) {
+            for (int i = 0; i < SIZE; i += CLUSTER) {
+                long base = start + (long) (random.nextDouble() * range);
+                for (int j = 0; j < CLUSTER; j++) {
+                    epochSeconds[i + j] = base + random.nextInt(86400);
+                }
+            }
+        } else {
+            for (int i = 0; i < SIZE; i++) {
+                epochSeconds[i] = start + (long) (random.nextDouble() * range);
+            }
+            if (order.equals("sorted")) {
+                Arrays.sort(epochSeconds);
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] getOffsetSeconds_bulk() {
+        rules.getOffsetSeconds(epochSeconds, offsets);
+        return offsets;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] getOffsetSeconds_loop() {
+        for (int i = 0; i < SIZE; i++) {
+            offsets[i] = rules.getOffsetSeconds(epochSeconds[i]);
+        }
+        return offsets;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int[] getOffset_loop() {
+        for (int i = 0; i < SIZE; i++) {
+            offsets[i] = rules.getOffset(Instant.ofEpochSecond(epochSeconds[i])).getTotalSeconds();
+        }
+        return offsets;
+    }
+
+    //-----------------------------------------------------------------------
+    // the input is copied first as the conversion is in place, which is included in both
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long[] toLocalEpochSeconds_bulk() {
+        System.arraycopy(epochSeconds, 0, work, 0, SIZE);
+        rules.toLocalEpochSeconds(work);
+        return work;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public long[] toLocalEpochSeconds_loop() {
+        System.arraycopy(epochSeconds, 0, work, 0, SIZE);
+        for (int i = 0; i < SIZE; i++) {
+            work[i] += rules.getOffsetSeconds(work[i]);
+        }
+        return work;
+    }
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.ZoneOffset;
+
+/**
+ * Benchmark the transitions that StandardZoneRules creates from the transition rules.
+ * <p>
+ * Local date-times after the last historic transition are resolved using the
+ * transitions of their year, which are created from the transition rules and cached.
+ * The warm benchmark queries a single year, always found in the cache.
+ * The cold benchmark cycles through more years beyond the main cache than the
+ * overflow cache can hold, thus the transitions are created on every query.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ZoneRulesTransitionArrayBenchmark {
+
+    /** The number of years cycled through by the cold benchmark, a power of two. */
+    private static final int COLD_YEARS = 64;
+
+    /**
+     * The zone, each with transition rules.
+     */
+    @Param({"Europe/London", "Australia/Sydney", "America/St_Johns"})
+    public String zoneId;
+
+    private ZoneRules rules;
+    private LocalDateTime warm;
+    private LocalDateTime[] cold;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        rules = ZoneRulesProvider.getRules(zoneId, false);
+        warm = LocalDateTime.of(2030, 7, 1, 12, 0);
+        cold = new LocalDateTime[COLD_YEARS];
+        for (int i = 0; i < COLD_YEARS; i++) {
+            cold[i] = LocalDateTime.of(2200 + i, 7, 1, 12, 0);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    @Benchmark
+    public ZoneOffset findTransitionArray_warm() {
+        return rules.getOffset(warm);
+    }
+
+    @Benchmark
+    public ZoneOffset findTransitionArray_cold() {
+        index = (index + 1) & (COLD_YEARS - 1);
+        return rules.getOffset(cold[index]);
+    }
+
+}
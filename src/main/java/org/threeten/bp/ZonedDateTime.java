@@ -339,6 +339,10 @@ public final class ZonedDateTime
             return new ZonedDateTime(localDateTime, (ZoneOffset) zone, zone);
         }
         ZoneRules rules = zone.getRules();
+        if (preferredOffset != null && rules.isValidOffset(localDateTime, preferredOffset)) {
+            // typical when adjusting an existing date-time, and avoids the list
+            return new ZonedDateTime(localDateTime, preferredOffset, zone);
+        }
         List<ZoneOffset> validOffsets = rules.getValidOffsets(localDateTime);
         ZoneOffset offset;
         if (validOffsets.size() == 1) {
@@ -348,11 +352,7 @@ public final class ZonedDateTime
             localDateTime = localDateTime.plusSeconds(trans.getDuration().getSeconds());
             offset = trans.getOffsetAfter();
         } else {
-            if (preferredOffset != null && validOffsets.contains(preferredOffset)) {
-                offset = preferredOffset;
-            } else {
-                offset = Jdk8Methods.requireNonNull(validOffsets.get(0), "offset");  // protect against bad ZoneRules
-            }
+            offset = Jdk8Methods.requireNonNull(validOffsets.get(0), "offset");  // protect against bad ZoneRules
         }
         return new ZonedDateTime(localDateTime, offset, zone);
     }
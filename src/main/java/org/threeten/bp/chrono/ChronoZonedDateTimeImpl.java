@@ -110,6 +110,9 @@ final class ChronoZonedDateTimeImpl<D extends ChronoLocalDate>
         }
         ZoneRules rules = zone.getRules();
         LocalDateTime isoLDT = LocalDateTime.from(localDateTime);
+        if (preferredOffset != null && rules.isValidOffset(isoLDT, preferredOffset)) {
+            return new ChronoZonedDateTimeImpl<R>(localDateTime, preferredOffset, zone);
+        }
         List<ZoneOffset> validOffsets = rules.getValidOffsets(isoLDT);
         ZoneOffset offset;
         if (validOffsets.size() == 1) {
@@ -119,11 +122,7 @@ final class ChronoZonedDateTimeImpl<D extends ChronoLocalDate>
             localDateTime = localDateTime.plusSeconds(trans.getDuration().getSeconds());
             offset = trans.getOffsetAfter();
         } else {
-            if (preferredOffset != null && validOffsets.contains(preferredOffset)) {
-                offset = preferredOffset;
-            } else {
-                offset = validOffsets.get(0);
-            }
+            offset = validOffsets.get(0);
         }
         Jdk8Methods.requireNonNull(offset, "offset");  // protect against bad ZoneRules
         return new ChronoZonedDateTimeImpl<R>(localDateTime, offset, zone);
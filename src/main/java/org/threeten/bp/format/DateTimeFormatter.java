@@ -46,13 +46,19 @@ import java.text.FieldPosition;
 import java.text.Format;
 import java.text.ParseException;
 import java.text.ParsePosition;
+import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.threeten.bp.DateTimeException;
 import org.threeten.bp.Period;
@@ -61,6 +67,7 @@ import org.threeten.bp.ZoneOffset;
 import org.threeten.bp.chrono.Chronology;
 import org.threeten.bp.chrono.IsoChronology;
 import org.threeten.bp.format.DateTimeFormatterBuilder.CompositePrinterParser;
+import org.threeten.bp.format.DateTimeFormatterBuilder.IsoFastPrinter;
 import org.threeten.bp.format.DateTimeParseContext.Parsed;
 import org.threeten.bp.jdk8.Jdk8Methods;
 import org.threeten.bp.temporal.ChronoField;
@@ -631,6 +638,24 @@ public final class DateTimeFormatter {
     }
 
     //-----------------------------------------------------------------------
+    /**
+     * The maximum number of formatters cached by {@link #ofPattern(String, Locale)}.
+     */
+    private static final int MAX_CACHED_PATTERNS = 512;
+    /**
+     * The formatters created from patterns, keyed by pattern and locale.
+     */
+    private static final ConcurrentMap<Entry<String, Locale>, DateTimeFormatter> PATTERN_CACHE =
+            new ConcurrentHashMap<Entry<String, Locale>, DateTimeFormatter>(64, 0.75f, 2);
+    /**
+     * The number of formatters found in the pattern cache.
+     */
+    private static final AtomicLong PATTERN_CACHE_HITS = new AtomicLong();
+    /**
+     * The number of formatters not found in the pattern cache.
+     */
+    private static final AtomicLong PATTERN_CACHE_MISSES = new AtomicLong();
+
     /**
      * Creates a formatter using the specified pattern.
      * <p>
@@ -639,6 +664,8 @@ public final class DateTimeFormatter {
      * <p>
      * The returned formatter will use the default locale, but this can be changed
      * using {@link DateTimeFormatter#withLocale(Locale)}.
+     * As formatters are immutable, the same formatter may be returned for the same
+     * pattern and locale, see {@link #ofPattern(String, Locale)}.
      * <p>
      * All letters 'A' to 'Z' and 'a' to 'z' are reserved as pattern letters.
      * The following pattern letters are defined:
@@ -764,7 +791,7 @@ public final class DateTimeFormatter {
      * @see DateTimeFormatterBuilder#appendPattern(String)
      */
     public static DateTimeFormatter ofPattern(String pattern) {
-        return new DateTimeFormatterBuilder().appendPattern(pattern).toFormatter();
+        return ofPattern(pattern, Locale.getDefault());
     }
 
     /**
@@ -777,6 +804,10 @@ public final class DateTimeFormatter {
      * <p>
      * The returned formatter will use the specified locale, but this can be changed
      * using {@link DateTimeFormatter#withLocale(Locale)}.
+     * <p>
+     * The formatters created by this method are cached by pattern and locale.
+     * As formatters are immutable, the same formatter may be returned to many callers.
+     * The number of cached formatters is bounded.
      *
      * @param pattern  the pattern to use, not null
      * @param locale  the locale to use, not null
@@ -785,7 +816,43 @@ public final class DateTimeFormatter {
      * @see DateTimeFormatterBuilder#appendPattern(String)
      */
     public static DateTimeFormatter ofPattern(String pattern, Locale locale) {
-        return new DateTimeFormatterBuilder().appendPattern(pattern).toFormatter(locale);
+        Jdk8Methods.requireNonNull(pattern, "pattern");
+        Jdk8Methods.requireNonNull(locale, "locale");
+        Entry<String, Locale> key = new SimpleImmutableEntry<String, Locale>(pattern, locale);
+        DateTimeFormatter formatter = PATTERN_CACHE.get(key);
+        if (formatter != null) {
+            PATTERN_CACHE_HITS.incrementAndGet();
+            return formatter;
+        }
+        PATTERN_CACHE_MISSES.incrementAndGet();
+        formatter = new DateTimeFormatterBuilder().appendPattern(pattern).toFormatter(locale);
+        if (PATTERN_CACHE.size() >= MAX_CACHED_PATTERNS) {
+            Iterator<Entry<String, Locale>> it = PATTERN_CACHE.keySet().iterator();
+            for (int i = 0; i < MAX_CACHED_PATTERNS / 4 && it.hasNext(); i++) {
+                it.next();
+                it.remove();
+            }
+        }
+        DateTimeFormatter existing = PATTERN_CACHE.putIfAbsent(key, formatter);
+        return (existing != null ? existing : formatter);
+    }
+
+    /**
+     * Gets the number of formatters that {@link #ofPattern(String, Locale)} found in the cache.
+     *
+     * @return the number of cache hits
+     */
+    static long getPatternCacheHits() {
+        return PATTERN_CACHE_HITS.get();
+    }
+
+    /**
+     * Gets the number of formatters that {@link #ofPattern(String, Locale)} did not find in the cache.
+     *
+     * @return the number of cache misses, including invalid patterns
+     */
+    static long getPatternCacheMisses() {
+        return PATTERN_CACHE_MISSES.get();
     }
 
     //-----------------------------------------------------------------------
@@ -1013,6 +1080,10 @@ public final class DateTimeFormatter {
      * The zone to use for formatting, null for no override.
      */
     private final ZoneId zone;
+    /**
+     * The printer used to format the ISO date-time classes directly, null if not applicable.
+     */
+    private final IsoFastPrinter fastPrinter;
 
     //-----------------------------------------------------------------------
     /**
@@ -1036,6 +1107,34 @@ public final class DateTimeFormatter {
         this.resolverFields = resolverFields;
         this.chrono = chrono;
         this.zone = zone;
+        this.fastPrinter = IsoFastPrinter.of(printerParser, decimalStyle, chrono, zone);
+    }
+
+    /**
+     * Constructor reusing the fast printer, which does not depend on the
+     * locale or resolver settings.
+     *
+     * @param printerParser  the printer/parser to use, not null
+     * @param locale  the locale to use, not null
+     * @param decimalStyle  the decimal style to use, not null
+     * @param resolverStyle  the resolver style to use, not null
+     * @param resolverFields  the fields to use during resolving, null for all fields
+     * @param chrono  the chronology to use, null for no override
+     * @param zone  the zone to use, null for no override
+     * @param fastPrinter  the fast printer for the other settings, null if not applicable
+     */
+    private DateTimeFormatter(CompositePrinterParser printerParser, Locale locale,
+                      DecimalStyle decimalStyle, ResolverStyle resolverStyle,
+                      Set<TemporalField> resolverFields, Chronology chrono, ZoneId zone,
+                      IsoFastPrinter fastPrinter) {
+        this.printerParser = printerParser;
+        this.locale = Jdk8Methods.requireNonNull(locale, "locale");
+        this.decimalStyle = decimalStyle;
+        this.resolverStyle = Jdk8Methods.requireNonNull(resolverStyle, "resolverStyle");
+        this.resolverFields = resolverFields;
+        this.chrono = chrono;
+        this.zone = zone;
+        this.fastPrinter = fastPrinter;
     }
 
     //-----------------------------------------------------------------------
@@ -1066,7 +1165,7 @@ public final class DateTimeFormatter {
         if (this.locale.equals(locale)) {
             return this;
         }
-        return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, resolverFields, chrono, zone);
+        return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, resolverFields, chrono, zone, fastPrinter);
     }
 
     //-----------------------------------------------------------------------
@@ -1225,7 +1324,7 @@ public final class DateTimeFormatter {
         if (Jdk8Methods.equals(this.resolverStyle, resolverStyle)) {
             return this;
         }
-        return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, resolverFields, chrono, zone);
+        return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, resolverFields, chrono, zone, fastPrinter);
     }
 
     //-----------------------------------------------------------------------
@@ -1284,14 +1383,14 @@ public final class DateTimeFormatter {
      */
     public DateTimeFormatter withResolverFields(TemporalField... resolverFields) {
         if (resolverFields == null) {
-            return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, null, chrono, zone);
+            return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, null, chrono, zone, fastPrinter);
         }
         Set<TemporalField> fields = new HashSet<TemporalField>(Arrays.asList(resolverFields));
         if (Jdk8Methods.equals(this.resolverFields, fields)) {
             return this;
         }
         fields = Collections.unmodifiableSet(fields);
-        return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, fields, chrono, zone);
+        return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, fields, chrono, zone, fastPrinter);
     }
 
     /**
@@ -1335,13 +1434,13 @@ public final class DateTimeFormatter {
      */
     public DateTimeFormatter withResolverFields(Set<TemporalField> resolverFields) {
         if (resolverFields == null) {
-            return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, null, chrono, zone);
+            return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, null, chrono, zone, fastPrinter);
         }
         if (Jdk8Methods.equals(this.resolverFields, resolverFields)) {
             return this;
         }
         resolverFields = Collections.unmodifiableSet(new HashSet<TemporalField>(resolverFields));
-        return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, resolverFields, chrono, zone);
+        return new DateTimeFormatter(printerParser, locale, decimalStyle, resolverStyle, resolverFields, chrono, zone, fastPrinter);
     }
 
     //-----------------------------------------------------------------------
@@ -1380,13 +1479,12 @@ public final class DateTimeFormatter {
         Jdk8Methods.requireNonNull(temporal, "temporal");
         Jdk8Methods.requireNonNull(appendable, "appendable");
         try {
-            DateTimePrintContext context = new DateTimePrintContext(temporal, this);
             if (appendable instanceof StringBuilder) {
-                printerParser.print(context, (StringBuilder) appendable);
+                printTo(temporal, (StringBuilder) appendable);
             } else {
                 // buffer output to avoid writing to appendable in case of error
                 StringBuilder buf = new StringBuilder(32);
-                printerParser.print(context, buf);
+                printTo(temporal, buf);
                 appendable.append(buf);
             }
         } catch (IOException ex) {
@@ -1394,6 +1492,13 @@ public final class DateTimeFormatter {
         }
     }
 
+    private void printTo(TemporalAccessor temporal, StringBuilder buf) {
+        // the ISO date-time classes are printed directly where the printer-parser allows
+        if (fastPrinter == null || fastPrinter.print(temporal, buf) == false) {
+            printerParser.print(new DateTimePrintContext(temporal, this), buf);
+        }
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Fully parses the text producing a temporal object.
@@ -48,8 +48,8 @@ import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.AbstractMap.SimpleImmutableEntry;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -60,17 +60,25 @@ import java.util.Map.Entry;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.SortedMap;
 import java.util.TimeZone;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.threeten.bp.DateTimeException;
 import org.threeten.bp.Instant;
 import org.threeten.bp.LocalDate;
 import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.LocalTime;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.OffsetTime;
 import org.threeten.bp.ZoneId;
 import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.ZonedDateTime;
 import org.threeten.bp.chrono.ChronoLocalDate;
 import org.threeten.bp.chrono.Chronology;
+import org.threeten.bp.chrono.IsoChronology;
 import org.threeten.bp.format.SimpleDateTimeTextProvider.LocaleStore;
 import org.threeten.bp.jdk8.Jdk8Methods;
 import org.threeten.bp.temporal.ChronoField;
@@ -2933,8 +2941,18 @@ public final class DateTimeFormatterBuilder {
             if (inSecs == null) {
                 return false;
             }
-            long inSec = inSecs;
-            int inNano = NANO_OF_SECOND.checkValidIntValue(inNanos);
+            print(inSecs, NANO_OF_SECOND.checkValidIntValue(inNanos), buf);
+            return true;
+        }
+
+        /**
+         * Prints the instant to the buffer.
+         *
+         * @param inSec  the epoch seconds
+         * @param inNano  the nano-of-second, from 0 to 999,999,999
+         * @param buf  the buffer to append to, not null
+         */
+        void print(long inSec, int inNano, StringBuilder buf) {
             if (inSec >= -SECONDS_0000_TO_1970) {
                 // current era
                 long zeroSecs = inSec - SECONDS_PER_10000_YEARS + SECONDS_0000_TO_1970;
@@ -2969,7 +2987,17 @@ public final class DateTimeFormatterBuilder {
                     }
                 }
             }
-            //fraction
+            printFraction(inNano, buf);
+            buf.append('Z');
+        }
+
+        /**
+         * Prints the fraction of the instant to the buffer.
+         *
+         * @param inNano  the nano-of-second, from 0 to 999,999,999
+         * @param buf  the buffer to append to, not null
+         */
+        void printFraction(int inNano, StringBuilder buf) {
             if (fractionalDigits == -2) {
                 if (inNano != 0) {
                     buf.append('.');
@@ -2991,8 +3019,6 @@ public final class DateTimeFormatterBuilder {
                     div = div / 10;
                 }
             }
-            buf.append('Z');
-            return true;
         }
 
         @Override
@@ -3091,7 +3117,17 @@ public final class DateTimeFormatterBuilder {
             if (offsetSecs == null) {
                 return false;
             }
-            int totalSecs = Jdk8Methods.safeToInt(offsetSecs);
+            print(Jdk8Methods.safeToInt(offsetSecs), buf);
+            return true;
+        }
+
+        /**
+         * Prints the offset to the buffer.
+         *
+         * @param totalSecs  the total offset in seconds
+         * @param buf  the buffer to append to, not null
+         */
+        void print(int totalSecs, StringBuilder buf) {
             if (totalSecs == 0) {
                 buf.append(noOffsetText);
             } else {
@@ -3117,7 +3153,6 @@ public final class DateTimeFormatterBuilder {
                     buf.append(noOffsetText);
                 }
             }
-            return true;
         }
 
         @Override
@@ -3203,6 +3238,357 @@ public final class DateTimeFormatterBuilder {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Prints the ISO date-time classes directly, without a print context.
+     * <p>
+     * This is used when the printer-parser chain only consists of literals,
+     * ISO fields with standard decimal symbols, offset IDs, instants and
+     * optional sections of these.
+     * The values are obtained from the primitive getters of the ISO classes and
+     * the digits are appended directly, avoiding boxing and string conversion.
+     * Any other temporal, or any value that would fail to print, is left to the
+     * general printer-parser chain.
+     */
+    static final class IsoFastPrinter {
+        private static final int DATE = 1;
+        private static final int TIME = 2;
+        private static final int OFFSET = 4;
+        private static final int INSTANT = 8;
+
+        private static final int OP_CHAR = 0;
+        private static final int OP_STRING = 1;
+        private static final int OP_YEAR = 2;
+        private static final int OP_MONTH = 3;
+        private static final int OP_DAY = 4;
+        private static final int OP_HOUR = 5;
+        private static final int OP_MINUTE = 6;
+        private static final int OP_SECOND = 7;
+        private static final int OP_FRACTION = 8;
+        private static final int OP_OFFSET = 9;
+        private static final int OP_INSTANT = 10;
+        private static final int OP_OPTIONAL = 11;
+
+        /** Array of 10 to the power of n. */
+        private static final int[] POWERS = new int[] {
+            1, 10, 100, 1000, 10000, 100000, 1000000, 10000000, 100000000, 1000000000,
+        };
+        /** The first epoch-second of year 10000. */
+        private static final long SECONDS_10000_TO_1970 =
+                InstantPrinterParser.SECONDS_PER_10000_YEARS - InstantPrinterParser.SECONDS_0000_TO_1970;
+
+        /** The operations, see the OP constants. */
+        private final int[] ops;
+        /** The printer-parser of each operation, null for an optional section. */
+        private final DateTimePrinterParser[] printerParsers;
+        /** The parts each operation needs, for an optional section the parts of its direct contents. */
+        private final int[] parts;
+        /** The index after the end of each optional section, zero for other operations. */
+        private final int[] ends;
+        /** The parts needed outside optional sections. */
+        private final int required;
+
+        private IsoFastPrinter(int[] ops, DateTimePrinterParser[] printerParsers, int[] parts, int[] ends, int required) {
+            this.ops = ops;
+            this.printerParsers = printerParsers;
+            this.parts = parts;
+            this.ends = ends;
+            this.required = required;
+        }
+
+        /**
+         * Obtains a fast printer for the formatter settings, if the chain is recognized.
+         *
+         * @param printerParser  the printer-parser chain, not null
+         * @param decimalStyle  the decimal style, not null
+         * @param chrono  the override chronology, null if none
+         * @param zone  the override zone, null if none
+         * @return the fast printer, null if the chain cannot be printed directly
+         */
+        static IsoFastPrinter of(CompositePrinterParser printerParser, DecimalStyle decimalStyle, Chronology chrono, ZoneId zone) {
+            if (decimalStyle.equals(DecimalStyle.STANDARD) == false || zone != null ||
+                    (chrono != null && chrono.equals(IsoChronology.INSTANCE) == false)) {
+                return null;
+            }
+            List<int[]> ops = new ArrayList<int[]>();
+            List<DateTimePrinterParser> pps = new ArrayList<DateTimePrinterParser>();
+            int required = flatten(printerParser, false, ops, pps);
+            if (required < 0) {
+                return null;
+            }
+            int size = ops.size();
+            int[] opArray = new int[size];
+            int[] partArray = new int[size];
+            int[] endArray = new int[size];
+            for (int i = 0; i < size; i++) {
+                opArray[i] = ops.get(i)[0];
+                partArray[i] = ops.get(i)[1];
+                endArray[i] = ops.get(i)[2];
+            }
+            return new IsoFastPrinter(opArray, pps.toArray(new DateTimePrinterParser[size]), partArray, endArray, required);
+        }
+
+        // adds the operations of the composite, each as {op, parts, end}, returning the parts needed or -1
+        // the parts needed exclude those of nested sections, which are checked separately when printing
+        private static int flatten(CompositePrinterParser composite, boolean inOptional,
+                List<int[]> ops, List<DateTimePrinterParser> pps) {
+            int required = 0;
+            for (DateTimePrinterParser pp : composite.printerParsers) {
+                int op;
+                int parts;
+                if (pp instanceof CompositePrinterParser) {
+                    CompositePrinterParser section = (CompositePrinterParser) pp;
+                    // within an optional section any composite only drops its own output if a field is missing
+                    if (section.optional || inOptional) {
+                        int start = ops.size();
+                        ops.add(null);
+                        pps.add(null);
+                        parts = flatten(section, true, ops, pps);
+                        if (parts < 0) {
+                            return -1;
+                        }
+                        ops.set(start, new int[] {OP_OPTIONAL, parts, ops.size()});
+                    } else {
+                        parts = flatten(section, false, ops, pps);
+                        if (parts < 0) {
+                            return -1;
+                        }
+                        required |= parts;
+                    }
+                    continue;
+                } else if (pp instanceof SettingsParser || pp instanceof DefaultingParser) {
+                    continue;
+                } else if (pp instanceof CharLiteralPrinterParser) {
+                    op = OP_CHAR;
+                    parts = 0;
+                } else if (pp instanceof StringLiteralPrinterParser) {
+                    op = OP_STRING;
+                    parts = 0;
+                } else if (pp.getClass() == NumberPrinterParser.class && ((NumberPrinterParser) pp).minWidth <= 9) {
+                    TemporalField field = ((NumberPrinterParser) pp).field;
+                    if (field == YEAR) {
+                        op = OP_YEAR;
+                        parts = DATE;
+                    } else if (field == MONTH_OF_YEAR) {
+                        op = OP_MONTH;
+                        parts = DATE;
+                    } else if (field == DAY_OF_MONTH) {
+                        op = OP_DAY;
+                        parts = DATE;
+                    } else if (field == HOUR_OF_DAY) {
+                        op = OP_HOUR;
+                        parts = TIME;
+                    } else if (field == MINUTE_OF_HOUR) {
+                        op = OP_MINUTE;
+                        parts = TIME;
+                    } else if (field == SECOND_OF_MINUTE) {
+                        op = OP_SECOND;
+                        parts = TIME;
+                    } else {
+                        return -1;
+                    }
+                } else if (pp instanceof FractionPrinterParser && ((FractionPrinterParser) pp).field == NANO_OF_SECOND) {
+                    op = OP_FRACTION;
+                    parts = TIME;
+                } else if (pp instanceof OffsetIdPrinterParser) {
+                    op = OP_OFFSET;
+                    parts = OFFSET;
+                } else if (pp instanceof InstantPrinterParser) {
+                    op = OP_INSTANT;
+                    parts = INSTANT;
+                } else {
+                    return -1;
+                }
+                ops.add(new int[] {op, parts, 0});
+                pps.add(pp);
+                required |= parts;
+            }
+            return required;
+        }
+
+        /**
+         * Prints the temporal directly to the buffer.
+         * <p>
+         * If false is returned the buffer is unchanged and the temporal must
+         * be printed using the printer-parser chain.
+         *
+         * @param temporal  the temporal to print, not null
+         * @param buf  the buffer to append to, not null
+         * @return true if printed, false if the temporal cannot be printed directly
+         */
+        boolean print(TemporalAccessor temporal, StringBuilder buf) {
+            LocalDate date = null;
+            LocalTime time = null;
+            ZoneOffset offset = null;
+            Instant instant = null;
+            if (temporal instanceof LocalDateTime) {
+                LocalDateTime ldt = (LocalDateTime) temporal;
+                date = ldt.toLocalDate();
+                time = ldt.toLocalTime();
+            } else if (temporal instanceof OffsetDateTime) {
+                OffsetDateTime odt = (OffsetDateTime) temporal;
+                date = odt.toLocalDate();
+                time = odt.toLocalTime();
+                offset = odt.getOffset();
+            } else if (temporal instanceof ZonedDateTime) {
+                ZonedDateTime zdt = (ZonedDateTime) temporal;
+                date = zdt.toLocalDate();
+                time = zdt.toLocalTime();
+                offset = zdt.getOffset();
+            } else if (temporal instanceof LocalDate) {
+                date = (LocalDate) temporal;
+            } else if (temporal instanceof LocalTime) {
+                time = (LocalTime) temporal;
+            } else if (temporal instanceof OffsetTime) {
+                OffsetTime ot = (OffsetTime) temporal;
+                time = ot.toLocalTime();
+                offset = ot.getOffset();
+            } else if (temporal instanceof Instant) {
+                instant = (Instant) temporal;
+            } else {
+                return false;
+            }
+            int available = (date != null ? DATE : 0) | (time != null ? TIME : 0) | (offset != null ? OFFSET : 0) |
+                    (instant != null || (date != null && offset != null) ? INSTANT : 0);
+            if ((required & available) != required) {
+                return false;
+            }
+            int length = buf.length();
+            for (int i = 0; i < ops.length; i++) {
+                DateTimePrinterParser pp = printerParsers[i];
+                boolean printed = true;
+                switch (ops[i]) {
+                    case OP_OPTIONAL:
+                        if ((parts[i] & available) != parts[i]) {
+                            i = ends[i] - 1;  // skip the section
+                        }
+                        break;
+                    case OP_CHAR:
+                        buf.append(((CharLiteralPrinterParser) pp).literal);
+                        break;
+                    case OP_STRING:
+                        buf.append(((StringLiteralPrinterParser) pp).literal);
+                        break;
+                    case OP_YEAR:
+                        printed = printNumber((NumberPrinterParser) pp, date.getYear(), buf);
+                        break;
+                    case OP_MONTH:
+                        printed = printNumber((NumberPrinterParser) pp, date.getMonthValue(), buf);
+                        break;
+                    case OP_DAY:
+                        printed = printNumber((NumberPrinterParser) pp, date.getDayOfMonth(), buf);
+                        break;
+                    case OP_HOUR:
+                        printed = printNumber((NumberPrinterParser) pp, time.getHour(), buf);
+                        break;
+                    case OP_MINUTE:
+                        printed = printNumber((NumberPrinterParser) pp, time.getMinute(), buf);
+                        break;
+                    case OP_SECOND:
+                        printed = printNumber((NumberPrinterParser) pp, time.getSecond(), buf);
+                        break;
+                    case OP_FRACTION:
+                        printFraction((FractionPrinterParser) pp, time.getNano(), buf);
+                        break;
+                    case OP_OFFSET:
+                        ((OffsetIdPrinterParser) pp).print(offset.getTotalSeconds(), buf);
+                        break;
+                    case OP_INSTANT:
+                        if (instant != null) {
+                            printInstant((InstantPrinterParser) pp, instant.getEpochSecond(), instant.getNano(), buf);
+                        } else {
+                            long epochSec = date.toEpochDay() * 86400 + time.toSecondOfDay() - offset.getTotalSeconds();
+                            printInstant((InstantPrinterParser) pp, epochSec, time.getNano(), buf);
+                        }
+                        break;
+                }
+                if (printed == false) {
+                    buf.setLength(length);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // matches NumberPrinterParser, returning false where that would throw an exception
+        private static boolean printNumber(NumberPrinterParser pp, int value, StringBuilder buf) {
+            int abs = Math.abs(value);
+            int digits = 1;
+            while (digits < 10 && abs >= POWERS[digits]) {
+                digits++;
+            }
+            if (digits > pp.maxWidth) {
+                return false;
+            }
+            if (value >= 0) {
+                if (pp.signStyle == SignStyle.ALWAYS ||
+                        (pp.signStyle == SignStyle.EXCEEDS_PAD && value >= POWERS[pp.minWidth])) {
+                    buf.append('+');
+                }
+            } else {
+                if (pp.signStyle == SignStyle.NOT_NEGATIVE) {
+                    return false;
+                }
+                if (pp.signStyle != SignStyle.NEVER) {
+                    buf.append('-');
+                }
+            }
+            for (int i = digits; i < pp.minWidth; i++) {
+                buf.append('0');
+            }
+            appendDigits(abs, digits, buf);
+            return true;
+        }
+
+        // matches FractionPrinterParser for the nano-of-second field
+        private static void printFraction(FractionPrinterParser pp, int nano, StringBuilder buf) {
+            int scale = 0;
+            if (nano != 0) {
+                scale = 9;
+                for (int n = nano; n % 10 == 0; n /= 10) {
+                    scale--;
+                }
+            }
+            int outputScale = Math.min(Math.max(scale, pp.minWidth), pp.maxWidth);
+            if (outputScale > 0) {
+                if (pp.decimalPoint) {
+                    buf.append('.');
+                }
+                appendDigits(nano / POWERS[9 - outputScale], outputScale, buf);
+            }
+        }
+
+        // matches InstantPrinterParser, writing years from 0000 to 9999 directly
+        private static void printInstant(InstantPrinterParser pp, long epochSec, int nano, StringBuilder buf) {
+            if (epochSec < -InstantPrinterParser.SECONDS_0000_TO_1970 || epochSec >= SECONDS_10000_TO_1970) {
+                pp.print(epochSec, nano, buf);
+                return;
+            }
+            LocalDate date = LocalDate.ofEpochDay(Jdk8Methods.floorDiv(epochSec, 86400));
+            int secsOfDay = Jdk8Methods.floorMod(epochSec, 86400);
+            appendDigits(date.getYear(), 4, buf);
+            buf.append('-');
+            appendDigits(date.getMonthValue(), 2, buf);
+            buf.append('-');
+            appendDigits(date.getDayOfMonth(), 2, buf);
+            buf.append('T');
+            appendDigits(secsOfDay / 3600, 2, buf);
+            buf.append(':');
+            appendDigits((secsOfDay / 60) % 60, 2, buf);
+            buf.append(':');
+            appendDigits(secsOfDay % 60, 2, buf);
+            pp.printFraction(nano, buf);
+            buf.append('Z');
+        }
+
+        // appends the lowest digits of the non-negative value, including leading zeros
+        private static void appendDigits(int value, int digits, StringBuilder buf) {
+            for (int i = digits - 1; i >= 0; i--) {
+                buf.append((char) ('0' + (value / POWERS[i]) % 10));
+            }
+        }
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Prints or parses a localized offset.
@@ -3339,17 +3725,17 @@ public final class DateTimeFormatterBuilder {
      * Prints or parses a zone ID.
      */
     static final class ZoneTextPrinterParser implements DateTimePrinterParser {
-        /** The text style to output. */
-        private static final Comparator<String> LENGTH_COMPARATOR = new Comparator<String>() {
-            @Override
-            public int compare(String str1, String str2) {
-                int cmp = str2.length() - str1.length();
-                if (cmp == 0) {
-                    cmp = str1.compareTo(str2);
-                }
-                return cmp;
-            }
-        };
+        /** The cached tries of short names for parsing, keyed by locale. */
+        private static final ConcurrentMap<Locale, Entry<Integer, ZoneNameTrie>> SHORT_NAME_TRIES =
+                new ConcurrentHashMap<Locale, Entry<Integer, ZoneNameTrie>>(16, 0.75f, 2);
+        /** The cached tries of long names for parsing, keyed by locale. */
+        private static final ConcurrentMap<Locale, Entry<Integer, ZoneNameTrie>> LONG_NAME_TRIES =
+                new ConcurrentHashMap<Locale, Entry<Integer, ZoneNameTrie>>(16, 0.75f, 2);
+        /** The maximum number of display names cached for printing. */
+        private static final int MAX_DISPLAY_NAMES = 4096;
+        /** The cached display names for printing. */
+        private static final ConcurrentMap<DisplayNameKey, String> DISPLAY_NAMES =
+                new ConcurrentHashMap<DisplayNameKey, String>(256, 0.75f, 2);
         /** The text style to output. */
         private final TextStyle textStyle;
 
@@ -3371,16 +3757,41 @@ public final class DateTimeFormatterBuilder {
             TemporalAccessor temporal = context.getTemporal();
             boolean daylight = false;
             if (temporal.isSupported(INSTANT_SECONDS)) {
-                Instant instant = Instant.ofEpochSecond(temporal.getLong(INSTANT_SECONDS));
-                daylight = zone.getRules().isDaylightSavings(instant);
+                daylight = zone.getRules().getDaylightSavingsSeconds(temporal.getLong(INSTANT_SECONDS)) != 0;
             }
-            TimeZone tz = TimeZone.getTimeZone(zone.getId());
             int tzstyle = (textStyle.asNormal() == TextStyle.FULL ? TimeZone.LONG : TimeZone.SHORT);
-            String text = tz.getDisplayName(daylight, tzstyle, context.getLocale());
-            buf.append(text);
+            buf.append(findDisplayName(zone.getId(), daylight, tzstyle, context.getLocale()));
             return true;
         }
 
+        /**
+         * Finds the display name of a zone, caching the result.
+         * <p>
+         * The cache is bounded, removing a quarter of the names when full.
+         *
+         * @param zoneId  the zone ID, not null
+         * @param daylight  whether to find the name for daylight savings time
+         * @param tzstyle  the {@code TimeZone} style
+         * @param locale  the locale, not null
+         * @return the display name, not null
+         */
+        static String findDisplayName(String zoneId, boolean daylight, int tzstyle, Locale locale) {
+            DisplayNameKey key = new DisplayNameKey(zoneId, daylight, tzstyle, locale);
+            String text = DISPLAY_NAMES.get(key);
+            if (text == null) {
+                text = TimeZone.getTimeZone(zoneId).getDisplayName(daylight, tzstyle, locale);
+                if (DISPLAY_NAMES.size() >= MAX_DISPLAY_NAMES) {
+                    Iterator<DisplayNameKey> it = DISPLAY_NAMES.keySet().iterator();
+                    for (int i = 0; i < MAX_DISPLAY_NAMES / 4 && it.hasNext(); i++) {
+                        it.next();
+                        it.remove();
+                    }
+                }
+                DISPLAY_NAMES.putIfAbsent(key, text);
+            }
+            return text;
+        }
+
         @Override
         public int parse(DateTimeParseContext context, CharSequence text, int position) {
             // handle fixed offsets
@@ -3408,34 +3819,56 @@ public final class DateTimeFormatterBuilder {
                 return parseOffset(context, text, position, "UT");
             }
 
+            // find the longest zone ID or display name
+            ZoneNameTrie found = findTrie(context.getLocale()).match(text, position, context.isCaseSensitive());
+            if (found != null) {
+                context.setParsed(found.getZone());
+                return position + found.length;
+            }
+            if (first == 'Z') {
+                context.setParsed(ZoneOffset.UTC);
+                return position + 1;
+            }
+            return ~position;
+        }
+
+        /**
+         * Finds the trie of zone IDs and display names for the locale, creating it if necessary.
+         * <p>
+         * The trie is recreated when the version of the available zones changes.
+         *
+         * @param locale  the locale, not null
+         * @return the trie, not null
+         */
+        private ZoneNameTrie findTrie(Locale locale) {
+            int tzstyle = (textStyle.asNormal() == TextStyle.FULL ? TimeZone.LONG : TimeZone.SHORT);
+            ConcurrentMap<Locale, Entry<Integer, ZoneNameTrie>> tries = (tzstyle == TimeZone.LONG ? LONG_NAME_TRIES : SHORT_NAME_TRIES);
+            int version = ZoneNameTrie.currentVersion();
+            Entry<Integer, ZoneNameTrie> cached = tries.get(locale);
+            if (cached == null || cached.getKey() != version) {
+                cached = new SimpleImmutableEntry<Integer, ZoneNameTrie>(version, createTrie(tzstyle, locale));
+                tries.put(locale, cached);
+            }
+            return cached.getValue();
+        }
+
+        private static ZoneNameTrie createTrie(int tzstyle, Locale locale) {
             // this is a poor implementation that handles some but not all of the spec
             // JDK8 has a lot of extra information here
-            Map<String, String> ids = new TreeMap<String, String>(LENGTH_COMPARATOR);
+            SortedMap<String, String> ids = new TreeMap<String, String>();
             for (String id : ZoneId.getAvailableZoneIds()) {
                 ids.put(id, id);
                 TimeZone tz = TimeZone.getTimeZone(id);
-                int tzstyle = (textStyle.asNormal() == TextStyle.FULL ? TimeZone.LONG : TimeZone.SHORT);
-                String textWinter = tz.getDisplayName(false, tzstyle, context.getLocale());
+                String textWinter = tz.getDisplayName(false, tzstyle, locale);
                 if (id.startsWith("Etc/") || (!textWinter.startsWith("GMT+") && !textWinter.startsWith("GMT+"))) {
                     ids.put(textWinter, id);
                 }
-                String textSummer = tz.getDisplayName(true, tzstyle, context.getLocale());
+                String textSummer = tz.getDisplayName(true, tzstyle, locale);
                 if (id.startsWith("Etc/") || (!textSummer.startsWith("GMT+") && !textSummer.startsWith("GMT+"))) {
                     ids.put(textSummer, id);
                 }
             }
-            for (Entry<String, String> entry : ids.entrySet()) {
-                String name = entry.getKey();
-                if (context.subSequenceEquals(text, position, name, 0, name.length())) {
-                    context.setParsed(ZoneId.of(entry.getValue()));
-                    return position + name.length();
-                }
-            }
-            if (first == 'Z') {
-                context.setParsed(ZoneOffset.UTC);
-                return position + 1;
-            }
-            return ~position;
+            return ZoneNameTrie.of(ids);
         }
 
         private int parseOffset(DateTimeParseContext context, CharSequence text, int position, String prefix) {
@@ -3470,6 +3903,179 @@ public final class DateTimeFormatterBuilder {
         public String toString() {
             return "ZoneText(" + textStyle + ")";
         }
+
+        /**
+         * The key of a cached display name.
+         */
+        private static final class DisplayNameKey {
+            private final String zoneId;
+            private final boolean daylight;
+            private final int tzstyle;
+            private final Locale locale;
+
+            DisplayNameKey(String zoneId, boolean daylight, int tzstyle, Locale locale) {
+                this.zoneId = zoneId;
+                this.daylight = daylight;
+                this.tzstyle = tzstyle;
+                this.locale = locale;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (this == obj) {
+                    return true;
+                }
+                if (obj instanceof DisplayNameKey) {
+                    DisplayNameKey other = (DisplayNameKey) obj;
+                    return zoneId.equals(other.zoneId) && daylight == other.daylight &&
+                            tzstyle == other.tzstyle && locale.equals(other.locale);
+                }
+                return false;
+            }
+
+            @Override
+            public int hashCode() {
+                return zoneId.hashCode() ^ locale.hashCode() * 31 + (daylight ? 2 : 0) + tzstyle;
+            }
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * An immutable trie of the names of zones, used to find the longest name
+     * at a position in the text without creating substrings.
+     * <p>
+     * The zone of each name is created when first matched and then kept,
+     * like any {@code ZoneId} held by an application. Rules that a dynamic provider
+     * prevents {@code ZoneId} from caching are still queried on each use of the zone.
+     * A trie should be recreated when {@link #currentVersion()} changes.
+     */
+    static final class ZoneNameTrie {
+        /** The next character of each child, sorted. */
+        private final char[] chars;
+        /** The child for each character. */
+        private final ZoneNameTrie[] children;
+        /** The length of the names that reach this node. */
+        final int length;
+        /** The zone ID of the name ending at this node, null if none. */
+        final String zoneId;
+        /** The zone of the name ending at this node, null if not yet created. */
+        private ZoneId zone;
+
+        /**
+         * Gets the version of the available zones, which changes when a zone ID is added.
+         *
+         * @return the version
+         */
+        static int currentVersion() {
+            return ZoneRulesProvider.getAvailableZoneIds().size();
+        }
+
+        /**
+         * Creates a trie from names.
+         *
+         * @param names  the map of name to zone ID, sorted by name, not null
+         * @return the trie, not null
+         */
+        static ZoneNameTrie of(SortedMap<String, String> names) {
+            String[] keys = names.keySet().toArray(new String[names.size()]);
+            String[] zoneIds = names.values().toArray(new String[names.size()]);
+            return new ZoneNameTrie(keys, zoneIds, 0, keys.length, 0);
+        }
+
+        /**
+         * Constructor.
+         *
+         * @param names  the sorted names, not null
+         * @param zoneIds  the zone ID of each name, not null
+         * @param start  the index of the first name with the prefix of this node
+         * @param end  the index after the last name with the prefix of this node
+         * @param length  the length of the prefix of this node
+         */
+        private ZoneNameTrie(String[] names, String[] zoneIds, int start, int end, int length) {
+            this.length = length;
+            // a name equal to the prefix sorts before the longer names
+            if (start < end && names[start].length() == length) {
+                zoneId = zoneIds[start];
+                start++;
+            } else {
+                zoneId = null;
+            }
+            int count = 0;
+            for (int i = start; i < end; i++) {
+                if (i == start || names[i].charAt(length) != names[i - 1].charAt(length)) {
+                    count++;
+                }
+            }
+            chars = new char[count];
+            children = new ZoneNameTrie[count];
+            int pos = 0;
+            for (int i = start; i < end; ) {
+                char ch = names[i].charAt(length);
+                int childEnd = i + 1;
+                while (childEnd < end && names[childEnd].charAt(length) == ch) {
+                    childEnd++;
+                }
+                chars[pos] = ch;
+                children[pos] = new ZoneNameTrie(names, zoneIds, i, childEnd, length + 1);
+                pos++;
+                i = childEnd;
+            }
+        }
+
+        /**
+         * Finds the longest name starting at the position in the text.
+         * <p>
+         * When ignoring case, if more than one name of the longest length matches,
+         * the first in name order is found.
+         *
+         * @param text  the text to match, not null
+         * @param position  the position of the next character, after the prefix of this node
+         * @param caseSensitive  whether to match case sensitively
+         * @return the node of the longest name, null if none
+         */
+        ZoneNameTrie match(CharSequence text, int position, boolean caseSensitive) {
+            ZoneNameTrie best = (zoneId != null ? this : null);
+            if (position < text.length()) {
+                char ch = text.charAt(position);
+                if (caseSensitive) {
+                    int index = Arrays.binarySearch(chars, ch);
+                    if (index >= 0) {
+                        ZoneNameTrie found = children[index].match(text, position + 1, true);
+                        if (found != null) {
+                            best = found;
+                        }
+                    }
+                } else {
+                    for (int i = 0; i < chars.length; i++) {
+                        if (DateTimeParseContext.charEqualsIgnoreCase(chars[i], ch)) {
+                            ZoneNameTrie found = children[i].match(text, position + 1, false);
+                            if (found != null && (best == null || found.length > best.length)) {
+                                best = found;
+                            }
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Gets the zone of the name ending at this node.
+         * <p>
+         * The zone is immutable, thus it may be created by more than one thread.
+         *
+         * @return the zone, not null
+         * @throws DateTimeException if no name ends at this node or the zone cannot be found
+         */
+        ZoneId getZone() {
+            ZoneId result = zone;
+            if (result == null) {
+                result = ZoneId.of(zoneId);
+                zone = result;
+            }
+            return result;
+        }
     }
 
     //-----------------------------------------------------------------------
@@ -3498,19 +4104,17 @@ public final class DateTimeFormatterBuilder {
 
         //-----------------------------------------------------------------------
         /**
-         * The cached tree to speed up parsing.
+         * The cached trie to speed up parsing, keyed by the version of the zones.
          */
-        private static volatile Entry<Integer, SubstringTree> cachedSubstringTree;
+        private static volatile Entry<Integer, ZoneNameTrie> cachedTrie;
 
         /**
          * This implementation looks for the longest matching string.
          * For example, parsing Etc/GMT-2 will return Etc/GMC-2 rather than just
          * Etc/GMC although both are valid.
          * <p>
-         * This implementation uses a tree to search for valid time-zone names in
-         * the parseText. The top level node of the tree has a length equal to the
-         * length of the shortest time-zone as well as the beginning characters of
-         * all other time-zones.
+         * This implementation uses a trie of the available time-zone IDs,
+         * matching the characters of the parseText directly.
          */
         @Override
         public int parse(DateTimeParseContext context, CharSequence text, int position) {
@@ -3551,62 +4155,33 @@ public final class DateTimeFormatterBuilder {
                 }
             }
 
-            // prepare parse tree
-            Set<String> regionIds = ZoneRulesProvider.getAvailableZoneIds();
-            final int regionIdsSize = regionIds.size();
-            Entry<Integer, SubstringTree> cached = cachedSubstringTree;
-            if (cached == null || cached.getKey() != regionIdsSize) {
+            // prepare parse trie
+            int version = ZoneNameTrie.currentVersion();
+            Entry<Integer, ZoneNameTrie> cached = cachedTrie;
+            if (cached == null || cached.getKey() != version) {
                 synchronized (this) {
-                    cached = cachedSubstringTree;
-                    if (cached == null || cached.getKey() != regionIdsSize) {
-                        cachedSubstringTree = cached = new SimpleImmutableEntry<Integer, SubstringTree>(regionIdsSize, prepareParser(regionIds));
+                    cached = cachedTrie;
+                    if (cached == null || cached.getKey() != version) {
+                        SortedMap<String, String> regionIds = new TreeMap<String, String>();
+                        for (String regionId : ZoneRulesProvider.getAvailableZoneIds()) {
+                            regionIds.put(regionId, regionId);
+                        }
+                        cachedTrie = cached = new SimpleImmutableEntry<Integer, ZoneNameTrie>(version, ZoneNameTrie.of(regionIds));
                     }
                 }
             }
-            SubstringTree tree = cached.getValue();
 
             // parse
-            String parsedZoneId = null;
-            String lastZoneId = null;
-            while (tree != null) {
-                int nodeLength = tree.length;
-                if (position + nodeLength > length) {
-                    break;
-                }
-                lastZoneId = parsedZoneId;
-                parsedZoneId = text.subSequence(position, position + nodeLength).toString();
-                tree = tree.get(parsedZoneId, context.isCaseSensitive());
-            }
-            ZoneId zone = convertToZone(regionIds, parsedZoneId, context.isCaseSensitive());
-            if (zone == null) {
-                zone = convertToZone(regionIds, lastZoneId, context.isCaseSensitive());
-                if (zone == null) {
-                    if (context.charEquals(nextChar, 'Z')) {
-                        context.setParsed(ZoneOffset.UTC);
-                        return position + 1;
-                    }
-                    return ~position;
+            ZoneNameTrie found = cached.getValue().match(text, position, context.isCaseSensitive());
+            if (found == null) {
+                if (context.charEquals(nextChar, 'Z')) {
+                    context.setParsed(ZoneOffset.UTC);
+                    return position + 1;
                 }
-                parsedZoneId = lastZoneId;
-            }
-            context.setParsed(zone);
-            return position + parsedZoneId.length();
-        }
-
-        private ZoneId convertToZone(Set<String> regionIds, String parsedZoneId, boolean caseSensitive) {
-            if (parsedZoneId == null) {
-                return null;
-            }
-            if (caseSensitive) {
-                return (regionIds.contains(parsedZoneId) ? ZoneId.of(parsedZoneId) : null);
-            } else {
-                for (String regionId : regionIds) {
-                    if (regionId.equalsIgnoreCase(parsedZoneId)) {
-                        return ZoneId.of(regionId);
-                    }
-                }
-                return null;
+                return ~position;
             }
+            context.setParsed(found.getZone());
+            return position + found.length;
         }
 
         private int parsePrefixedOffset(DateTimeParseContext context, CharSequence text, int prefixPos, int position) {
@@ -3627,102 +4202,6 @@ public final class DateTimeFormatterBuilder {
             return endPos;
         }
 
-        //-----------------------------------------------------------------------
-        /**
-         * Model a tree of substrings to make the parsing easier. Due to the nature
-         * of time-zone names, it can be faster to parse based in unique substrings
-         * rather than just a character by character match.
-         * <p>
-         * For example, to parse America/Denver we can look at the first two
-         * character "Am". We then notice that the shortest time-zone that starts
-         * with Am is America/Nome which is 12 characters long. Checking the first
-         * 12 characters of America/Denver gives America/Denv which is a substring
-         * of only 1 time-zone: America/Denver. Thus, with just 3 comparisons that
-         * match can be found.
-         * <p>
-         * This structure maps substrings to substrings of a longer length. Each
-         * node of the tree contains a length and a map of valid substrings to
-         * sub-nodes. The parser gets the length from the root node. It then
-         * extracts a substring of that length from the parseText. If the map
-         * contains the substring, it is set as the possible time-zone and the
-         * sub-node for that substring is retrieved. The process continues until the
-         * substring is no longer found, at which point the matched text is checked
-         * against the real time-zones.
-         */
-        private static final class SubstringTree {
-            /**
-             * The length of the substring this node of the tree contains.
-             * Subtrees will have a longer length.
-             */
-            final int length;
-            /**
-             * Map of a substring to a set of substrings that contain the key.
-             */
-            private final Map<CharSequence, SubstringTree> substringMap = new HashMap<CharSequence, SubstringTree>();
-            /**
-             * Map of a substring to a set of substrings that contain the key.
-             */
-            private final Map<String, SubstringTree> substringMapCI = new HashMap<String, SubstringTree>();
-
-            /**
-             * Constructor.
-             *
-             * @param length  the length of this tree
-             */
-            private SubstringTree(int length) {
-                this.length = length;
-            }
-
-            private SubstringTree get(CharSequence substring2, boolean caseSensitive) {
-                if (caseSensitive) {
-                    return substringMap.get(substring2);
-                } else {
-                    return substringMapCI.get(substring2.toString().toLowerCase(Locale.ENGLISH));
-                }
-            }
-
-            /**
-             * Values must be added from shortest to longest.
-             *
-             * @param newSubstring  the substring to add, not null
-             */
-            private void add(String newSubstring) {
-                int idLen = newSubstring.length();
-                if (idLen == length) {
-                    substringMap.put(newSubstring, null);
-                    substringMapCI.put(newSubstring.toLowerCase(Locale.ENGLISH), null);
-                } else if (idLen > length) {
-                    String substring = newSubstring.substring(0, length);
-                    SubstringTree parserTree = substringMap.get(substring);
-                    if (parserTree == null) {
-                        parserTree = new SubstringTree(idLen);
-                        substringMap.put(substring, parserTree);
-                        substringMapCI.put(substring.toLowerCase(Locale.ENGLISH), parserTree);
-                    }
-                    parserTree.add(newSubstring);
-                }
-            }
-        }
-
-        /**
-         * Builds an optimized parsing tree.
-         *
-         * @param availableIDs  the available IDs, not null, not empty
-         * @return the tree, not null
-         */
-        private static SubstringTree prepareParser(Set<String> availableIDs) {
-            // sort by length
-            List<String> ids = new ArrayList<String>(availableIDs);
-            Collections.sort(ids, LENGTH_SORT);
-
-            // build the tree
-            SubstringTree tree = new SubstringTree(ids.get(0).length());
-            for (String id : ids) {
-                tree.add(id);
-            }
-            return tree;
-        }
-
         //-----------------------------------------------------------------------
         @Override
         public String toString() {
@@ -3924,15 +4403,4 @@ public final class DateTimeFormatterBuilder {
         }
     }
 
-    //-------------------------------------------------------------------------
-    /**
-     * Length comparator.
-     */
-    static final Comparator<String> LENGTH_SORT = new Comparator<String>() {
-        @Override
-        public int compare(String str1, String str2) {
-            return str1.length() == str2.length() ? str1.compareTo(str2) : str1.length() - str2.length();
-        }
-    };
-
 }
@@ -0,0 +1,489 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.threeten.bp.Duration;
+import org.threeten.bp.Instant;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.jdk8.Jdk8Methods;
+
+/**
+ * Loads time-zone rules for 'TZDB' from a file that may be replaced while running.
+ * <p>
+ * The file must be in the {@code TZDB.dat} format, such as a copy of the file
+ * extracted from the jar. The file is checked for changes whenever
+ * {@link ZoneRulesProvider#refresh()} is called and, optionally, by polling at a
+ * fixed interval on a daemon thread. When the length or last modified time of the
+ * file changes, the whole file is read and the rules for every region are decoded,
+ * before being published as a new immutable snapshot. Looking up rules is a single
+ * volatile read of the current snapshot, without locking, thus a lookup sees either
+ * the old file or the new file in full.
+ * A file that cannot be read, such as one still being written, is ignored until it
+ * changes again.
+ * <p>
+ * The rules cached by {@code ZoneId} delegate to the latest snapshot, thus existing
+ * zones use the latest rules as soon as they are published. Regions added by a new file are registered
+ * when it is loaded, while regions and versions only found in earlier files remain available.
+ * <p>
+ * This can be registered in place of the default using {@link ZoneRulesInitializer}.
+ *
+ * <h3>Specification for implementors</h3>
+ * This class is thread-safe.
+ */
+public final class ReloadingTzdbZoneRulesProvider extends ZoneRulesProvider {
+
+    /**
+     * The file to load.
+     */
+    private final File file;
+    /**
+     * The lock used to ensure only one thread reloads at a time.
+     * Lookups do not use this lock.
+     */
+    private final Object reloadLock = new Object();
+    /**
+     * The timer used to poll the file, null if not polling.
+     */
+    private final Timer timer;
+    /**
+     * The latest snapshot, linked to those it replaced.
+     */
+    private volatile Snapshot snapshot;
+    /**
+     * The last modified time of the file that could not be loaded, guarded by the reload lock.
+     */
+    private long failedLastModified;
+    /**
+     * The length of the file that could not be loaded, -1 if none, guarded by the reload lock.
+     */
+    private long failedLength = -1;
+    /**
+     * The rules cached by {@code ZoneId}, keyed by region ID.
+     */
+    private final ConcurrentMap<String, ReloadingZoneRules> reloadingRules =
+            new ConcurrentHashMap<String, ReloadingZoneRules>(16, 0.75f, 2);
+
+    /**
+     * Creates an instance that loads the specified file, checking for changes
+     * only when the rules are refreshed.
+     *
+     * @param file  the file to load, not null
+     * @throws ZoneRulesException if unable to load
+     */
+    public ReloadingTzdbZoneRulesProvider(File file) {
+        this(file, 0);
+    }
+
+    /**
+     * Creates an instance that loads the specified file, polling it for changes.
+     * <p>
+     * The polling thread is a daemon thread, which can be stopped using {@link #stopPolling()}.
+     *
+     * @param file  the file to load, not null
+     * @param pollMillis  the interval between checks for changes in milliseconds,
+     *  zero to only check when the rules are refreshed
+     * @throws IllegalArgumentException if the interval is negative
+     * @throws ZoneRulesException if unable to load
+     */
+    public ReloadingTzdbZoneRulesProvider(File file, long pollMillis) {
+        super();
+        Jdk8Methods.requireNonNull(file, "file");
+        if (pollMillis < 0) {
+            throw new IllegalArgumentException("Poll interval must not be negative: " + pollMillis);
+        }
+        this.file = file;
+        this.snapshot = load(null, file.lastModified(), file.length());
+        if (pollMillis > 0) {
+            timer = new Timer("ThreeTen-ReloadingTzdbZoneRulesProvider", true);
+            timer.schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    reload();
+                }
+            }, pollMillis, pollMillis);
+        } else {
+            timer = null;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Stops polling the file for changes.
+     * <p>
+     * The current rules remain available, and are still updated when the rules are refreshed.
+     */
+    public void stopPolling() {
+        if (timer != null) {
+            timer.cancel();
+        }
+    }
+
+    /**
+     * Checks the file for changes, loading it if changed.
+     * <p>
+     * If the changed file cannot be loaded, the current rules are kept and the
+     * file is not loaded again until its length or last modified time changes.
+     *
+     * @return true if a new snapshot was published
+     */
+    boolean reload() {
+        synchronized (reloadLock) {
+            Snapshot current = snapshot;
+            long lastModified = file.lastModified();
+            long length = file.length();
+            if ((current.lastModified == lastModified && current.length == length) ||
+                    (failedLastModified == lastModified && failedLength == length)) {
+                return false;
+            }
+            try {
+                snapshot = load(current, lastModified, length);
+            } catch (RuntimeException ex) {
+                // keep the current rules, such as when the file is still being written
+                failedLastModified = lastModified;
+                failedLength = length;
+                return false;
+            }
+        }
+        ZoneRulesProvider.registerNewZoneIds(this);
+        return true;
+    }
+
+    /**
+     * Loads the file.
+     * <p>
+     * The file is read fully onto the heap, so that later changes to the file
+     * cannot affect the rules in the snapshot.
+     *
+     * @param current  the current snapshot, null if none
+     * @param lastModified  the last modified time of the file
+     * @param length  the length of the file
+     * @return the new snapshot, not null
+     * @throws ZoneRulesException if unable to load
+     */
+    private Snapshot load(Snapshot current, long lastModified, long length) {
+        byte[] bytes;
+        try {
+            DataInputStream in = new DataInputStream(new FileInputStream(file));
+            try {
+                bytes = new byte[Jdk8Methods.safeToInt(length)];
+                in.readFully(bytes);
+                if (in.read() != -1) {
+                    throw new IOException("File changed while reading");
+                }
+            } finally {
+                in.close();
+            }
+        } catch (Exception ex) {
+            throw new ZoneRulesException("Unable to load TZDB time-zone rules: " + file, ex);
+        }
+        TzdbZoneRulesProvider provider = new TzdbZoneRulesProvider(new ByteArrayInputStream(bytes));
+        Set<String> regionIds = provider.provideZoneIds();
+        Set<String> versionIds = provider.getVersionIds();
+        // only keep earlier snapshots that have regions or versions not in the new file
+        Snapshot previous = current;
+        while (previous != null && regionIds.containsAll(previous.rules.keySet()) && versionIds.containsAll(previous.versionIds)) {
+            previous = previous.previous;
+        }
+        return new Snapshot(provider, regionIds, versionIds, lastModified, length, previous);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Set<String> provideZoneIds() {
+        Set<String> regionIds = new HashSet<String>();
+        for (Snapshot s = snapshot; s != null; s = s.previous) {
+            regionIds.addAll(s.rules.keySet());
+        }
+        return regionIds;
+    }
+
+    @Override
+    protected ZoneRules provideRules(String zoneId, boolean forCaching) {
+        Jdk8Methods.requireNonNull(zoneId, "zoneId");
+        ZoneRules rules = findRules(snapshot, zoneId);
+        if (forCaching == false) {
+            return rules;
+        }
+        ReloadingZoneRules reloading = reloadingRules.get(zoneId);
+        if (reloading == null) {
+            reloading = new ReloadingZoneRules(this, zoneId);
+            ReloadingZoneRules existing = reloadingRules.putIfAbsent(zoneId, reloading);
+            reloading = (existing != null ? existing : reloading);
+        }
+        return reloading;
+    }
+
+    private static ZoneRules findRules(Snapshot latest, String zoneId) {
+        for (Snapshot s = latest; s != null; s = s.previous) {
+            ZoneRules rules = s.rules.get(zoneId);
+            if (rules != null) {
+                return rules;
+            }
+        }
+        throw new ZoneRulesException("Unknown time-zone ID: " + zoneId);
+    }
+
+    @Override
+    protected NavigableMap<String, ZoneRules> provideVersions(String zoneId) {
+        List<Snapshot> snapshots = new ArrayList<Snapshot>();
+        for (Snapshot s = snapshot; s != null; s = s.previous) {
+            snapshots.add(s);
+        }
+        Collections.reverse(snapshots);
+        TreeMap<String, ZoneRules> map = new TreeMap<String, ZoneRules>();
+        for (Snapshot s : snapshots) {
+            if (s.rules.containsKey(zoneId)) {
+                map.putAll(s.provider.provideVersions(zoneId));
+            }
+        }
+        return map;
+    }
+
+    @Override
+    protected boolean provideRefresh() {
+        return reload();
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "TZDB[" + file + "]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The rules of a region that are cached by {@code ZoneId}, delegating to the latest snapshot.
+     * <p>
+     * The rules of the region are found again only when a new snapshot is published,
+     * thus most uses cost a single volatile read of the snapshot.
+     */
+    private static final class ReloadingZoneRules extends ZoneRules {
+        /** The provider. */
+        private final ReloadingTzdbZoneRulesProvider provider;
+        /** The region ID. */
+        private final String zoneId;
+        /** The rules found in a snapshot, null if not yet found. */
+        private volatile SnapshotRules found;
+
+        ReloadingZoneRules(ReloadingTzdbZoneRulesProvider provider, String zoneId) {
+            this.provider = provider;
+            this.zoneId = zoneId;
+        }
+
+        @Override
+        ZoneRules underlyingRules() {
+            Snapshot latest = provider.snapshot;
+            SnapshotRules f = found;
+            if (f == null || f.snapshot != latest) {
+                f = new SnapshotRules(latest, findRules(latest, zoneId));
+                found = f;
+            }
+            return f.rules;
+        }
+
+        @Override
+        public boolean isFixedOffset() {
+            return underlyingRules().isFixedOffset();
+        }
+        @Override
+        public long getFixedOffsetEpochSecond() {
+            return underlyingRules().getFixedOffsetEpochSecond();
+        }
+        @Override
+        public ZoneOffset getMinimumOffset() {
+            return underlyingRules().getMinimumOffset();
+        }
+        @Override
+        public ZoneOffset getMaximumOffset() {
+            return underlyingRules().getMaximumOffset();
+        }
+        @Override
+        public ZoneOffset getOffset(Instant instant) {
+            return underlyingRules().getOffset(instant);
+        }
+        @Override
+        public int getOffsetSeconds(long epochSecond) {
+            return underlyingRules().getOffsetSeconds(epochSecond);
+        }
+        @Override
+        public void getOffsetSeconds(long[] epochSeconds, int[] offsetSeconds) {
+            underlyingRules().getOffsetSeconds(epochSeconds, offsetSeconds);
+        }
+        @Override
+        public void toLocalEpochSeconds(long[] epochSeconds) {
+            underlyingRules().toLocalEpochSeconds(epochSeconds);
+        }
+        @Override
+        public ZoneOffset getOffset(LocalDateTime localDateTime) {
+            return underlyingRules().getOffset(localDateTime);
+        }
+        @Override
+        public List<ZoneOffset> getValidOffsets(LocalDateTime localDateTime) {
+            return underlyingRules().getValidOffsets(localDateTime);
+        }
+        @Override
+        public int getValidOffsetCount(LocalDateTime localDateTime) {
+            return underlyingRules().getValidOffsetCount(localDateTime);
+        }
+        @Override
+        public ZoneOffsetTransition getTransition(LocalDateTime localDateTime) {
+            return underlyingRules().getTransition(localDateTime);
+        }
+        @Override
+        public int getOffsetSeconds(long localEpochSecond, int preferredOffset) {
+            return underlyingRules().getOffsetSeconds(localEpochSecond, preferredOffset);
+        }
+        @Override
+        public ZoneOffset getStandardOffset(Instant instant) {
+            return underlyingRules().getStandardOffset(instant);
+        }
+        @Override
+        public Duration getDaylightSavings(Instant instant) {
+            return underlyingRules().getDaylightSavings(instant);
+        }
+        @Override
+        public int getDaylightSavingsSeconds(long epochSecond) {
+            return underlyingRules().getDaylightSavingsSeconds(epochSecond);
+        }
+        @Override
+        public boolean isDaylightSavings(Instant instant) {
+            return underlyingRules().isDaylightSavings(instant);
+        }
+        @Override
+        public boolean isValidOffset(LocalDateTime localDateTime, ZoneOffset offset) {
+            return underlyingRules().isValidOffset(localDateTime, offset);
+        }
+        @Override
+        public ZoneOffsetTransition nextTransition(Instant instant) {
+            return underlyingRules().nextTransition(instant);
+        }
+        @Override
+        public ZoneOffsetTransition previousTransition(Instant instant) {
+            return underlyingRules().previousTransition(instant);
+        }
+        @Override
+        public Iterator<ZoneOffsetTransition> transitionIterator(Instant startInclusive, Instant endExclusive) {
+            return underlyingRules().transitionIterator(startInclusive, endExclusive);
+        }
+        @Override
+        public List<ZoneOffsetTransition> getTransitions() {
+            return underlyingRules().getTransitions();
+        }
+        @Override
+        public List<ZoneOffsetTransitionRule> getTransitionRules() {
+            return underlyingRules().getTransitionRules();
+        }
+
+        // equal to the current rules, so that the result matches the rules not cached by ZoneId
+        @Override
+        public boolean equals(Object otherRules) {
+            return underlyingRules().equals(otherRules);
+        }
+        @Override
+        public int hashCode() {
+            return underlyingRules().hashCode();
+        }
+        @Override
+        public String toString() {
+            return underlyingRules().toString();
+        }
+    }
+
+    /**
+     * The rules of a region found in a snapshot.
+     */
+    private static final class SnapshotRules {
+        /** The snapshot searched. */
+        private final Snapshot snapshot;
+        /** The rules found. */
+        private final ZoneRules rules;
+
+        SnapshotRules(Snapshot snapshot, ZoneRules rules) {
+            this.snapshot = snapshot;
+            this.rules = rules;
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * An immutable snapshot of the rules loaded from one version of the file.
+     */
+    private static final class Snapshot {
+        /** The rules loaded from the file. */
+        private final TzdbZoneRulesProvider provider;
+        /** The latest rules in the file, keyed by region. */
+        private final Map<String, ZoneRules> rules;
+        /** The versions in the file. */
+        private final Set<String> versionIds;
+        /** The last modified time of the file. */
+        private final long lastModified;
+        /** The length of the file. */
+        private final long length;
+        /** The snapshot replaced by this one, null if none. */
+        private final Snapshot previous;
+
+        Snapshot(TzdbZoneRulesProvider provider, Set<String> regionIds, Set<String> versionIds,
+                long lastModified, long length, Snapshot previous) {
+            this.provider = provider;
+            this.rules = new HashMap<String, ZoneRules>(regionIds.size() * 2);
+            for (String regionId : regionIds) {
+                rules.put(regionId, provider.provideRules(regionId, false));
+            }
+            this.versionIds = versionIds;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.previous = previous;
+        }
+    }
+
+}
@@ -223,4 +223,119 @@ final class Ser implements Externalizable {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Writes an array of ascending epoch seconds to the stream.
+     * <p>
+     * The first value is stored in full and each subsequent value as the
+     * difference from the previous, using a variable length encoding
+     * that favors whole hours and quarter hours.
+     *
+     * @param epochSecs  the ascending epoch seconds, not null
+     * @param out  the output stream, not null
+     * @throws IOException if an error occurs
+     */
+    static void writeEpochSecs(long[] epochSecs, DataOutput out) throws IOException {
+        writeVarLong(epochSecs.length, out);
+        for (int i = 0; i < epochSecs.length; i++) {
+            if (i == 0) {
+                long packed = packSeconds(epochSecs[0]);
+                writeVarLong((packed << 1) ^ (packed >> 63), out);  // zig-zag as may be negative
+            } else {
+                writeVarLong(packSeconds(epochSecs[i] - epochSecs[i - 1]), out);
+            }
+        }
+    }
+
+    /**
+     * Reads an array of ascending epoch seconds from the stream.
+     *
+     * @param in  the input stream, not null
+     * @return the epoch seconds, not null
+     * @throws IOException if an error occurs
+     */
+    static long[] readEpochSecs(DataInput in) throws IOException {
+        int size = readVarInt(in);
+        long[] epochSecs = new long[size];
+        for (int i = 0; i < size; i++) {
+            if (i == 0) {
+                long zigzag = readVarLong(in);
+                epochSecs[0] = unpackSeconds((zigzag >>> 1) ^ -(zigzag & 1));
+            } else {
+                epochSecs[i] = epochSecs[i - 1] + unpackSeconds(readVarLong(in));
+            }
+        }
+        return epochSecs;
+    }
+
+    // the low bits select hours, quarter hours or seconds
+    private static long packSeconds(long secs) {
+        if (secs % 3600 == 0) {
+            return (secs / 3600) << 1;
+        } else if (secs % 900 == 0) {
+            return ((secs / 900) << 2) | 1;
+        } else {
+            return (secs << 2) | 3;
+        }
+    }
+
+    private static long unpackSeconds(long packed) {
+        if ((packed & 1) == 0) {
+            return (packed >> 1) * 3600;
+        } else if ((packed & 2) == 0) {
+            return (packed >> 2) * 900;
+        } else {
+            return packed >> 2;
+        }
+    }
+
+    /**
+     * Writes a value to the stream using seven bits per byte.
+     *
+     * @param value  the value, treated as unsigned
+     * @param out  the output stream, not null
+     * @throws IOException if an error occurs
+     */
+    static void writeVarLong(long value, DataOutput out) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Reads a value from the stream using seven bits per byte.
+     *
+     * @param in  the input stream, not null
+     * @return the value
+     * @throws IOException if an error occurs
+     */
+    static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Invalid variable length value");
+    }
+
+    /**
+     * Reads a non-negative int from the stream using seven bits per byte.
+     *
+     * @param in  the input stream, not null
+     * @return the value
+     * @throws IOException if an error occurs
+     */
+    static int readVarInt(DataInput in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Invalid variable length value");
+        }
+        return (int) value;
+    }
+
 }
@@ -31,16 +31,22 @@
  */
 package org.threeten.bp.zone;
 
+import static org.threeten.bp.temporal.ChronoField.EPOCH_DAY;
+import static org.threeten.bp.temporal.ChronoField.YEAR;
+
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.io.Serializable;
+import java.io.StreamCorruptedException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.threeten.bp.Duration;
 import org.threeten.bp.Instant;
@@ -68,6 +74,35 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
      * The last year to have its transitions cached.
      */
     private static final int LAST_CACHED_YEAR = 2100;
+    /**
+     * The size of the cache of transitions for years outside the main cache, a power of two.
+     */
+    private static final int OVERFLOW_CACHE_SIZE = 16;
+    /**
+     * The number of days in a 400 year cycle.
+     */
+    private static final int DAYS_PER_CYCLE = 146097;
+    /**
+     * The epoch second of the start of the offset index, 1900-01-01T00:00Z.
+     */
+    private static final long INDEX_START = -2208988800L;
+    /**
+     * The shift converting seconds since the start of the index to a bucket, 2^22 seconds or about 48 days.
+     */
+    private static final int INDEX_SHIFT = 22;
+    /**
+     * The number of buckets in the offset index, reaching beyond 2100-01-01T00:00Z.
+     */
+    private static final int INDEX_BUCKETS = (int) ((4102444800L - INDEX_START) >> INDEX_SHIFT) + 1;
+    /**
+     * The marker for a bucket that cannot be resolved by the index.
+     */
+    private static final long INDEX_UNRESOLVED = -1;
+    /**
+     * The shared single offset lists, indexed by quarter hour from -18:00 to +18:00.
+     */
+    private static final AtomicReferenceArray<List<ZoneOffset>> SINGLE_OFFSET_LISTS =
+                new AtomicReferenceArray<List<ZoneOffset>>(145);
 
     /**
      * The transitions between standard offsets (epoch seconds), sorted.
@@ -82,11 +117,15 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
      */
     private final long[] savingsInstantTransitions;
     /**
-     * The transitions between local date-times, sorted.
+     * The transitions between local date-times (local epoch seconds), sorted.
      * This is a paired array, where the first entry is the start of the transition
      * and the second entry is the end of the transition.
      */
-    private final LocalDateTime[] savingsLocalTransitions;
+    private final long[] savingsLocalTransitions;
+    /**
+     * The transitions between instants, created lazily from the epoch seconds and wall offsets.
+     */
+    private final AtomicReferenceArray<ZoneOffsetTransition> savingsTransitionCache;
     /**
      * The wall offsets.
      */
@@ -96,10 +135,52 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
      */
     private final ZoneOffsetTransitionRule[] lastRules;
     /**
-     * The map of recent transitions.
+     * The first year in the cache of recent transitions.
      */
-    private final ConcurrentMap<Integer, ZoneOffsetTransition[]> lastRulesCache =
-                new ConcurrentHashMap<Integer, ZoneOffsetTransition[]>();
+    private final int lastRulesCacheStartYear;
+    /**
+     * The cache of recent transitions, indexed by year minus the start year,
+     * up to the last cached year.
+     */
+    private final AtomicReferenceArray<ZoneOffsetTransition[]> lastRulesCache;
+    /**
+     * The cache of transitions for other years, indexed by the low bits of the year.
+     * A year replaces any other year using the same slot.
+     */
+    private final AtomicReferenceArray<YearTransitions> lastRulesOverflowCache =
+                new AtomicReferenceArray<YearTransitions>(OVERFLOW_CACHE_SIZE);
+    /**
+     * The epoch-second from which the wall offset no longer varies.
+     */
+    private final long fixedOffsetEpochSecond;
+    /**
+     * The local epoch-second from which the wall offset no longer varies.
+     */
+    private final long fixedOffsetLocalSecond;
+    /**
+     * The minimum wall offset.
+     */
+    private final ZoneOffset minimumOffset;
+    /**
+     * The maximum wall offset.
+     */
+    private final ZoneOffset maximumOffset;
+    /**
+     * The offset index, one entry per bucket, created lazily.
+     * Each entry packs the second within the bucket that the offsets change
+     * and the indices into {@link #offsetIndexTable} before and after the change.
+     */
+    private transient volatile long[] offsetIndex;
+    /**
+     * The distinct actual offsets referred to by the offset index.
+     * Always written before, and read after, the volatile index field.
+     */
+    private transient ZoneOffset[] offsetIndexTable;
+    /**
+     * The daylight savings, in seconds, matching each entry in {@link #offsetIndexTable}.
+     * Always written before, and read after, the volatile index field.
+     */
+    private transient int[] offsetIndexSavings;
 
     /**
      * Creates an instance.
@@ -127,34 +208,32 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
             this.standardOffsets[i + 1] = standardOffsetTransitionList.get(i).getOffsetAfter();
         }
 
-        // convert savings transitions to locals
-        List<LocalDateTime> localTransitionList = new ArrayList<LocalDateTime>();
-        List<ZoneOffset> localTransitionOffsetList = new ArrayList<ZoneOffset>();
-        localTransitionOffsetList.add(baseWallOffset);
-        for (ZoneOffsetTransition trans : transitionList) {
-            if (trans.isGap()) {
-                localTransitionList.add(trans.getDateTimeBefore());
-                localTransitionList.add(trans.getDateTimeAfter());
-            } else {
-                localTransitionList.add(trans.getDateTimeAfter());
-                localTransitionList.add(trans.getDateTimeBefore());
-            }
-            localTransitionOffsetList.add(trans.getOffsetAfter());
-        }
-        this.savingsLocalTransitions = localTransitionList.toArray(new LocalDateTime[localTransitionList.size()]);
-        this.wallOffsets = localTransitionOffsetList.toArray(new ZoneOffset[localTransitionOffsetList.size()]);
-
         // convert savings transitions to instants
         this.savingsInstantTransitions = new long[transitionList.size()];
+        this.wallOffsets = new ZoneOffset[transitionList.size() + 1];
+        this.wallOffsets[0] = baseWallOffset;
         for (int i = 0; i < transitionList.size(); i++) {
-            this.savingsInstantTransitions[i] = transitionList.get(i).getInstant().getEpochSecond();
+            this.savingsInstantTransitions[i] = transitionList.get(i).toEpochSecond();
+            this.wallOffsets[i + 1] = transitionList.get(i).getOffsetAfter();
         }
 
+        // convert savings transitions to locals
+        this.savingsLocalTransitions = createLocalTransitions(savingsInstantTransitions, wallOffsets);
+        this.savingsTransitionCache = new AtomicReferenceArray<ZoneOffsetTransition>(savingsInstantTransitions.length);
+
         // last rules
         if (lastRules.size() > 15) {
             throw new IllegalArgumentException("Too many transition rules");
         }
         this.lastRules = lastRules.toArray(new ZoneOffsetTransitionRule[lastRules.size()]);
+        this.lastRulesCacheStartYear = findCacheStartYear(savingsInstantTransitions, wallOffsets);
+        this.lastRulesCache = createCache(lastRulesCacheStartYear, this.lastRules);
+
+        // summary
+        this.fixedOffsetEpochSecond = findFixedOffsetSecond(savingsInstantTransitions, this.lastRules);
+        this.fixedOffsetLocalSecond = findFixedOffsetSecond(savingsLocalTransitions, this.lastRules);
+        this.minimumOffset = findOffsetLimit(wallOffsets, this.lastRules, -1);
+        this.maximumOffset = findOffsetLimit(wallOffsets, this.lastRules, 1);
     }
 
     /**
@@ -181,20 +260,106 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         this.lastRules = lastRules;
 
         // convert savings transitions to locals
-        List<LocalDateTime> localTransitionList = new ArrayList<LocalDateTime>();
+        this.savingsLocalTransitions = createLocalTransitions(savingsInstantTransitions, wallOffsets);
+        this.savingsTransitionCache = new AtomicReferenceArray<ZoneOffsetTransition>(savingsInstantTransitions.length);
+        this.lastRulesCacheStartYear = findCacheStartYear(savingsInstantTransitions, wallOffsets);
+        this.lastRulesCache = createCache(lastRulesCacheStartYear, lastRules);
+
+        // summary
+        this.fixedOffsetEpochSecond = findFixedOffsetSecond(savingsInstantTransitions, lastRules);
+        this.fixedOffsetLocalSecond = findFixedOffsetSecond(savingsLocalTransitions, lastRules);
+        this.minimumOffset = findOffsetLimit(wallOffsets, lastRules, -1);
+        this.maximumOffset = findOffsetLimit(wallOffsets, lastRules, 1);
+    }
+
+    /**
+     * Finds the second from which the wall offset no longer varies.
+     *
+     * @param transitions  the instant or local transitions, not null
+     * @param lastRules  the last rules, not null
+     * @return the second, MIN_VALUE if always fixed, MAX_VALUE if never fixed
+     */
+    private static long findFixedOffsetSecond(long[] transitions, ZoneOffsetTransitionRule[] lastRules) {
+        if (lastRules.length > 0) {
+            return Long.MAX_VALUE;
+        }
+        return (transitions.length == 0 ? Long.MIN_VALUE : transitions[transitions.length - 1]);
+    }
+
+    /**
+     * Finds the minimum or maximum wall offset.
+     *
+     * @param wallOffsets  the wall offsets, not null
+     * @param lastRules  the last rules, not null
+     * @param sign  negative for the minimum, positive for the maximum
+     * @return the offset, not null
+     */
+    private static ZoneOffset findOffsetLimit(ZoneOffset[] wallOffsets, ZoneOffsetTransitionRule[] lastRules, int sign) {
+        ZoneOffset limit = wallOffsets[0];
+        for (ZoneOffset offset : wallOffsets) {
+            if (Integer.signum(offset.getTotalSeconds() - limit.getTotalSeconds()) == sign) {
+                limit = offset;
+            }
+        }
+        for (ZoneOffsetTransitionRule rule : lastRules) {
+            if (Integer.signum(rule.getOffsetAfter().getTotalSeconds() - limit.getTotalSeconds()) == sign) {
+                limit = rule.getOffsetAfter();
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Converts the savings transitions to local epoch seconds.
+     * <p>
+     * Each transition is converted to a pair, the start and end of the gap or overlap.
+     *
+     * @param savingsInstantTransitions  the transitions, not null
+     * @param wallOffsets  the wall offsets, not null
+     * @return the paired local transitions, not null
+     */
+    private static long[] createLocalTransitions(long[] savingsInstantTransitions, ZoneOffset[] wallOffsets) {
+        long[] localTransitions = new long[savingsInstantTransitions.length * 2];
         for (int i = 0; i < savingsInstantTransitions.length; i++) {
-            ZoneOffset before = wallOffsets[i];
-            ZoneOffset after = wallOffsets[i + 1];
-            ZoneOffsetTransition trans = new ZoneOffsetTransition(savingsInstantTransitions[i], before, after);
-            if (trans.isGap()) {
-                localTransitionList.add(trans.getDateTimeBefore());
-                localTransitionList.add(trans.getDateTimeAfter());
+            long localBefore = savingsInstantTransitions[i] + wallOffsets[i].getTotalSeconds();
+            long localAfter = savingsInstantTransitions[i] + wallOffsets[i + 1].getTotalSeconds();
+            if (localAfter > localBefore) {
+                // gap
+                localTransitions[i * 2] = localBefore;
+                localTransitions[i * 2 + 1] = localAfter;
             } else {
-                localTransitionList.add(trans.getDateTimeAfter());
-                localTransitionList.add(trans.getDateTimeBefore());
+                // overlap
+                localTransitions[i * 2] = localAfter;
+                localTransitions[i * 2 + 1] = localBefore;
             }
         }
-        this.savingsLocalTransitions = localTransitionList.toArray(new LocalDateTime[localTransitionList.size()]);
+        return localTransitions;
+    }
+
+    /**
+     * Finds the first year that the last rules can apply to.
+     *
+     * @param savingsInstantTransitions  the transitions, not null
+     * @param wallOffsets  the wall offsets, not null
+     * @return the year of the last transition, 1900 if there are no transitions
+     */
+    private static int findCacheStartYear(long[] savingsInstantTransitions, ZoneOffset[] wallOffsets) {
+        if (savingsInstantTransitions.length == 0) {
+            return 1900;
+        }
+        return findYear(savingsInstantTransitions[savingsInstantTransitions.length - 1], wallOffsets[wallOffsets.length - 1]);
+    }
+
+    /**
+     * Creates the cache of recent transitions.
+     *
+     * @param startYear  the first year of the cache
+     * @param lastRules  the last rules, not null
+     * @return the cache, empty if there are no last rules, not null
+     */
+    private static AtomicReferenceArray<ZoneOffsetTransition[]> createCache(int startYear, ZoneOffsetTransitionRule[] lastRules) {
+        int size = (lastRules.length > 0 ? Math.max(LAST_CACHED_YEAR - startYear, 0) : 0);
+        return new AtomicReferenceArray<ZoneOffsetTransition[]>(size);
     }
 
     //-----------------------------------------------------------------------
@@ -265,7 +430,92 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         for (int i = 0; i < ruleSize; i++) {
             rules[i] = ZoneOffsetTransitionRule.readExternal(in);
         }
-        return new StandardZoneRules(stdTrans, stdOffsets, savTrans, savOffsets, rules);
+        return new StandardZoneRules(stdTrans, stdOffsets, savTrans, savOffsets, ZoneRulesInterner.intern(rules));
+    }
+
+    /**
+     * Counts the uses of each offset in the compact form used by version 2 of the TZDB file.
+     *
+     * @param counts  the map of offset to count, updated, not null
+     */
+    void countOffsets(Map<ZoneOffset, Integer> counts) {
+        for (ZoneOffset offset : standardOffsets) {
+            Integer count = counts.get(offset);
+            counts.put(offset, count == null ? 1 : count + 1);
+        }
+        for (ZoneOffset offset : wallOffsets) {
+            Integer count = counts.get(offset);
+            counts.put(offset, count == null ? 1 : count + 1);
+        }
+    }
+
+    /**
+     * Writes the state to the stream in the compact form used by version 2 of the TZDB file.
+     * <p>
+     * Offsets are written as indices into a dictionary shared by all the rules in the file.
+     * Any offset not yet in the dictionary is added to it.
+     *
+     * @param out  the output stream, not null
+     * @param offsetIndices  the dictionary of offset to index, updated, not null
+     * @throws IOException if an error occurs
+     */
+    void writeCompact(DataOutput out, Map<ZoneOffset, Integer> offsetIndices) throws IOException {
+        Ser.writeEpochSecs(standardTransitions, out);
+        for (ZoneOffset offset : standardOffsets) {
+            writeOffsetIndex(offset, out, offsetIndices);
+        }
+        Ser.writeEpochSecs(savingsInstantTransitions, out);
+        for (ZoneOffset offset : wallOffsets) {
+            writeOffsetIndex(offset, out, offsetIndices);
+        }
+        out.writeByte(lastRules.length);
+        for (ZoneOffsetTransitionRule rule : lastRules) {
+            rule.writeExternal(out);
+        }
+    }
+
+    private static void writeOffsetIndex(ZoneOffset offset, DataOutput out, Map<ZoneOffset, Integer> offsetIndices) throws IOException {
+        Integer index = offsetIndices.get(offset);
+        if (index == null) {
+            index = offsetIndices.size();
+            offsetIndices.put(offset, index);
+        }
+        Ser.writeVarLong(index, out);
+    }
+
+    /**
+     * Reads the state from the stream in the compact form used by version 2 of the TZDB file.
+     *
+     * @param in  the input stream, not null
+     * @param offsets  the dictionary of offsets, not null
+     * @return the created object, not null
+     * @throws IOException if an error occurs
+     */
+    static StandardZoneRules readCompact(DataInput in, ZoneOffset[] offsets) throws IOException {
+        long[] stdTrans = Ser.readEpochSecs(in);
+        ZoneOffset[] stdOffsets = new ZoneOffset[stdTrans.length + 1];
+        for (int i = 0; i < stdOffsets.length; i++) {
+            stdOffsets[i] = readOffsetIndex(in, offsets);
+        }
+        long[] savTrans = Ser.readEpochSecs(in);
+        ZoneOffset[] savOffsets = new ZoneOffset[savTrans.length + 1];
+        for (int i = 0; i < savOffsets.length; i++) {
+            savOffsets[i] = readOffsetIndex(in, offsets);
+        }
+        int ruleSize = in.readByte();
+        ZoneOffsetTransitionRule[] rules = new ZoneOffsetTransitionRule[ruleSize];
+        for (int i = 0; i < ruleSize; i++) {
+            rules[i] = ZoneOffsetTransitionRule.readExternal(in);
+        }
+        return new StandardZoneRules(stdTrans, stdOffsets, savTrans, savOffsets, ZoneRulesInterner.intern(rules));
+    }
+
+    private static ZoneOffset readOffsetIndex(DataInput in, ZoneOffset[] offsets) throws IOException {
+        int index = Ser.readVarInt(in);
+        if (index >= offsets.length) {
+            throw new StreamCorruptedException("Invalid offset index");
+        }
+        return offsets[index];
     }
 
     //-----------------------------------------------------------------------
@@ -274,16 +524,207 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         return savingsInstantTransitions.length == 0 && lastRules.length == 0 && wallOffsets[0].equals(standardOffsets[0]);
     }
 
+    @Override
+    public long getFixedOffsetEpochSecond() {
+        return fixedOffsetEpochSecond;
+    }
+
+    @Override
+    public ZoneOffset getMinimumOffset() {
+        return minimumOffset;
+    }
+
+    @Override
+    public ZoneOffset getMaximumOffset() {
+        return maximumOffset;
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public ZoneOffset getOffset(Instant instant) {
-        long epochSec = instant.getEpochSecond();
+        return findOffset(instant.getEpochSecond());
+    }
+
+    @Override
+    public int getOffsetSeconds(long epochSecond) {
+        return findOffset(epochSecond).getTotalSeconds();
+    }
+
+    @Override
+    public void getOffsetSeconds(long[] epochSeconds, int[] offsetSeconds) {
+        Jdk8Methods.requireNonNull(epochSeconds, "epochSeconds");
+        Jdk8Methods.requireNonNull(offsetSeconds, "offsetSeconds");
+        if (epochSeconds.length != offsetSeconds.length) {
+            throw new IllegalArgumentException("Arrays must have the same length");
+        }
+        convertOffsets(epochSeconds, offsetSeconds);
+    }
+
+    @Override
+    public void toLocalEpochSeconds(long[] epochSeconds) {
+        Jdk8Methods.requireNonNull(epochSeconds, "epochSeconds");
+        convertOffsets(epochSeconds, null);
+    }
+
+    /**
+     * Finds the offsets for an array of epoch-seconds.
+     * <p>
+     * Rather than searching for each value, this tracks the range of epoch-seconds
+     * between the transitions either side of the last value found.
+     * Values within that range share its offset, and the next range is found by
+     * stepping to the adjacent transition where possible.
+     * Sorted or clustered input therefore only searches when a transition is crossed.
+     *
+     * @param epochSeconds  the epoch-seconds, updated to local epoch-seconds if no offsets array, not null
+     * @param offsetSeconds  the offsets to fill, null to update the epoch-seconds
+     */
+    private void convertOffsets(long[] epochSeconds, int[] offsetSeconds) {
+        long[] transitions = savingsInstantTransitions;
+        long lastHistoric = (transitions.length > 0 ? transitions[transitions.length - 1] : Long.MIN_VALUE);
+        boolean useLastRules = lastRules.length > 0;
+        long rangeStart = Long.MAX_VALUE;  // inclusive
+        long rangeEnd = Long.MIN_VALUE;  // exclusive
+        int rangeOffset = 0;
+        int historicIndex = -2;  // the index of the transition starting the historic range, -2 if none
+        for (int i = 0; i < epochSeconds.length; i++) {
+            long epochSec = epochSeconds[i];
+            if (epochSec < rangeStart || epochSec >= rangeEnd) {
+                if (useLastRules && (transitions.length == 0 || epochSec > lastHistoric)) {
+                    // range bounded by the year and the transitions of the year
+                    ZoneOffset lastHistoricOffset = wallOffsets[wallOffsets.length - 1];
+                    int year = findYear(epochSec, lastHistoricOffset);
+                    rangeStart = Math.max(findYearStart(year, lastHistoricOffset), lastHistoric + 1);
+                    rangeEnd = (year < Year.MAX_VALUE ? findYearStart(year + 1, lastHistoricOffset) : Long.MAX_VALUE);
+                    ZoneOffsetTransition[] transArray = findTransitionArray(year);
+                    ZoneOffset offset = null;
+                    for (ZoneOffsetTransition trans : transArray) {
+                        long transEpochSec = trans.toEpochSecond();
+                        if (epochSec < transEpochSec) {
+                            offset = trans.getOffsetBefore();
+                            rangeEnd = Math.min(rangeEnd, transEpochSec);
+                            break;
+                        }
+                        rangeStart = Math.max(rangeStart, transEpochSec);
+                        offset = trans.getOffsetAfter();
+                    }
+                    rangeOffset = offset.getTotalSeconds();
+                    historicIndex = -2;
+                } else {
+                    // range between two historic transitions
+                    int index;
+                    if (historicIndex > -2 && historicIndex + 2 < transitions.length &&
+                            epochSec >= transitions[historicIndex + 1] && epochSec < transitions[historicIndex + 2]) {
+                        index = historicIndex + 1;
+                    } else {
+                        index = Arrays.binarySearch(transitions, epochSec);
+                        if (index < 0) {
+                            // switch negative insert position to start of matched range
+                            index = -index - 2;
+                        }
+                    }
+                    rangeStart = (index >= 0 ? transitions[index] : Long.MIN_VALUE);
+                    if (index + 1 < transitions.length) {
+                        rangeEnd = transitions[index + 1];
+                    } else {
+                        rangeEnd = (useLastRules ? lastHistoric + 1 : Long.MAX_VALUE);
+                    }
+                    rangeOffset = wallOffsets[index + 1].getTotalSeconds();
+                    historicIndex = index;
+                }
+            }
+            if (offsetSeconds != null) {
+                offsetSeconds[i] = rangeOffset;
+            } else {
+                epochSeconds[i] = epochSec + rangeOffset;
+            }
+        }
+    }
+
+    /**
+     * Finds the offset for the epoch-second.
+     *
+     * @param epochSec  the epoch second
+     * @return the offset, not null
+     */
+    private ZoneOffset findOffset(long epochSec) {
+        if (epochSec >= fixedOffsetEpochSecond) {
+            return wallOffsets[wallOffsets.length - 1];
+        }
+        int tableIndex = findOffsetIndexEntry(epochSec);
+        if (tableIndex >= 0) {
+            return offsetIndexTable[tableIndex];
+        }
+        return findOffsetWithoutIndex(epochSec, true);
+    }
+
+    /**
+     * Finds the amount of daylight savings for the epoch-second.
+     * <p>
+     * Within the offset index, the actual and standard offsets are found together.
+     *
+     * @param epochSec  the epoch second
+     * @return the daylight savings in seconds
+     */
+    private int findDaylightSavingsSeconds(long epochSec) {
+        if (epochSec >= fixedOffsetEpochSecond &&
+                (standardTransitions.length == 0 || epochSec >= standardTransitions[standardTransitions.length - 1])) {
+            return wallOffsets[wallOffsets.length - 1].getTotalSeconds() - standardOffsets[standardOffsets.length - 1].getTotalSeconds();
+        }
+        int tableIndex = findOffsetIndexEntry(epochSec);
+        if (tableIndex >= 0) {
+            return offsetIndexSavings[tableIndex];
+        }
+        return findOffsetWithoutIndex(epochSec, true).getTotalSeconds() - findStandardOffset(epochSec).getTotalSeconds();
+    }
+
+    /**
+     * Finds the offset table index for the epoch-second using the offset index.
+     *
+     * @param epochSec  the epoch second
+     * @return the index into the offset table, negative if not resolved by the offset index
+     */
+    private int findOffsetIndexEntry(long epochSec) {
+        // check the offset index, 1900 to 2100
+        long indexSec = epochSec - INDEX_START;
+        if (indexSec >= 0 && (indexSec >> INDEX_SHIFT) < INDEX_BUCKETS) {
+            long[] index = offsetIndex;
+            if (index == null) {
+                index = buildOffsetIndex();
+            }
+            if (index.length > 0) {
+                long entry = index[(int) (indexSec >> INDEX_SHIFT)];
+                if (entry != INDEX_UNRESOLVED) {
+                    long secOfBucket = indexSec & ((1L << INDEX_SHIFT) - 1);
+                    return (int) (secOfBucket < (entry >>> 16) ? entry : entry >>> 8) & 0xFF;
+                }
+            }
+        }
+        return -1;
+    }
 
+    /**
+     * Finds the offset for the epoch-second without using the offset index.
+     *
+     * @param epochSec  the epoch second
+     * @param useCache  whether to use the cache of transitions for the year
+     * @return the offset, not null
+     */
+    private ZoneOffset findOffsetWithoutIndex(long epochSec, boolean useCache) {
         // check if using last rules
         if (lastRules.length > 0 && (savingsInstantTransitions.length == 0 ||
                 epochSec > savingsInstantTransitions[savingsInstantTransitions.length - 1])) {
             int year = findYear(epochSec, wallOffsets[wallOffsets.length - 1]);
-            ZoneOffsetTransition[] transArray = findTransitionArray(year);
+            ZoneOffsetTransition[] transArray = (useCache ? findCachedTransitionArray(year) : null);
+            if (transArray == null) {
+                // calculate the transitions directly, avoiding object creation
+                ZoneOffsetTransitionRule[] ruleArray = lastRules;
+                for (int i = 0; i < ruleArray.length; i++) {
+                    if (epochSec < ruleArray[i].createTransitionEpochSecond(year)) {
+                        return ruleArray[i].getOffsetBefore();
+                    }
+                }
+                return ruleArray[ruleArray.length - 1].getOffsetAfter();
+            }
             ZoneOffsetTransition trans = null;
             for (int i = 0; i < transArray.length; i++) {
                 trans = transArray[i];
@@ -303,6 +744,127 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         return wallOffsets[index + 1];
     }
 
+    /**
+     * Builds the offset index.
+     * <p>
+     * The index covers 1900 to 2100 in buckets of 2^22 seconds.
+     * A bucket holds the actual and standard offsets at its start and, if either changes
+     * within the bucket, the second of the change and the offsets after it.
+     * Buckets with more than one change are left unresolved.
+     * Fixed offset rules, and rules with more than 256 distinct pairs of offsets, have an empty index.
+     *
+     * @return the index, not null
+     */
+    private long[] buildOffsetIndex() {
+        long indexEnd = INDEX_START + ((long) INDEX_BUCKETS << INDEX_SHIFT);
+        // find each epoch-second where the offsets may change
+        // the last rules are checked at their transitions and at the boundaries of each year
+        List<Long> changes = new ArrayList<Long>();
+        for (long trans : standardTransitions) {
+            if (trans >= INDEX_START && trans < indexEnd) {
+                changes.add(trans);
+            }
+        }
+        long lastHistoric = Long.MIN_VALUE;
+        for (long trans : savingsInstantTransitions) {
+            if (trans >= INDEX_START && trans < indexEnd) {
+                changes.add(trans);
+            }
+            lastHistoric = trans;
+        }
+        if (lastRules.length > 0) {
+            ZoneOffset lastHistoricOffset = wallOffsets[wallOffsets.length - 1];
+            int startYear = findYear(Math.max(lastHistoric, INDEX_START), lastHistoricOffset);
+            int endYear = findYear(indexEnd, lastHistoricOffset) + 1;
+            if (lastHistoric >= INDEX_START && lastHistoric < indexEnd - 1) {
+                changes.add(lastHistoric + 1);
+            }
+            for (int year = startYear; year <= endYear; year++) {
+                long yearStart = LocalDate.of(year, 1, 1).toEpochDay() * 86400 - lastHistoricOffset.getTotalSeconds();
+                if (yearStart > lastHistoric && yearStart >= INDEX_START && yearStart < indexEnd) {
+                    changes.add(yearStart);
+                }
+                for (ZoneOffsetTransitionRule rule : lastRules) {
+                    long trans = rule.createTransition(year).toEpochSecond();
+                    if (trans > lastHistoric && trans >= INDEX_START && trans < indexEnd) {
+                        changes.add(trans);
+                    }
+                }
+            }
+        }
+        if (changes.isEmpty()) {
+            offsetIndex = new long[0];
+            return offsetIndex;
+        }
+        Collections.sort(changes);
+
+        // fill the buckets
+        List<ZoneOffset> table = new ArrayList<ZoneOffset>();
+        List<ZoneOffset> standardTable = new ArrayList<ZoneOffset>();
+        long[] index = new long[INDEX_BUCKETS];
+        ZoneOffset current = findOffsetWithoutIndex(INDEX_START, false);
+        ZoneOffset currentStandard = findStandardOffset(INDEX_START);
+        int changeIndex = 0;
+        for (int bucket = 0; bucket < INDEX_BUCKETS; bucket++) {
+            long bucketStart = INDEX_START + ((long) bucket << INDEX_SHIFT);
+            long bucketEnd = bucketStart + (1L << INDEX_SHIFT);
+            ZoneOffset before = current;
+            ZoneOffset beforeStandard = currentStandard;
+            long changeSec = 1L << INDEX_SHIFT;
+            int changeCount = 0;
+            while (changeIndex < changes.size() && changes.get(changeIndex) < bucketEnd) {
+                long change = changes.get(changeIndex++);
+                ZoneOffset offset = findOffsetWithoutIndex(change, false);
+                ZoneOffset standardOffset = findStandardOffset(change);
+                if (offset.equals(current) == false || standardOffset.equals(currentStandard) == false) {
+                    changeSec = change - bucketStart;
+                    changeCount++;
+                    current = offset;
+                    currentStandard = standardOffset;
+                }
+            }
+            if (changeCount > 1) {
+                index[bucket] = INDEX_UNRESOLVED;
+                continue;
+            }
+            int beforeIndex = findTableIndex(table, standardTable, before, beforeStandard);
+            int afterIndex = findTableIndex(table, standardTable, current, currentStandard);
+            if (table.size() > 256) {
+                offsetIndex = new long[0];
+                return offsetIndex;
+            }
+            index[bucket] = (changeSec << 16) | (afterIndex << 8) | beforeIndex;
+        }
+        int[] savings = new int[table.size()];
+        for (int i = 0; i < savings.length; i++) {
+            savings[i] = table.get(i).getTotalSeconds() - standardTable.get(i).getTotalSeconds();
+        }
+        offsetIndexTable = table.toArray(new ZoneOffset[table.size()]);
+        offsetIndexSavings = savings;
+        offsetIndex = index;
+        return index;
+    }
+
+    /**
+     * Finds the index of a pair of offsets in the offset table, adding them if necessary.
+     *
+     * @param table  the actual offsets, not null
+     * @param standardTable  the standard offsets, not null
+     * @param offset  the actual offset, not null
+     * @param standardOffset  the standard offset, not null
+     * @return the index of the pair
+     */
+    private static int findTableIndex(List<ZoneOffset> table, List<ZoneOffset> standardTable, ZoneOffset offset, ZoneOffset standardOffset) {
+        for (int i = 0; i < table.size(); i++) {
+            if (table.get(i).equals(offset) && standardTable.get(i).equals(standardOffset)) {
+                return i;
+            }
+        }
+        table.add(offset);
+        standardTable.add(standardOffset);
+        return table.size() - 1;
+    }
+
     //-----------------------------------------------------------------------
     @Override
     public ZoneOffset getOffset(LocalDateTime localDateTime) {
@@ -315,12 +877,40 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
 
     @Override
     public List<ZoneOffset> getValidOffsets(LocalDateTime localDateTime) {
-        // should probably be optimized
         Object info = getOffsetInfo(localDateTime);
         if (info instanceof ZoneOffsetTransition) {
             return ((ZoneOffsetTransition) info).getValidOffsets();
         }
-        return Collections.singletonList((ZoneOffset) info);
+        return singleOffsetList((ZoneOffset) info);
+    }
+
+    /**
+     * Obtains an immutable list containing the offset, shared where possible.
+     *
+     * @param offset  the offset, not null
+     * @return the list, not null
+     */
+    private static List<ZoneOffset> singleOffsetList(ZoneOffset offset) {
+        int totalSecs = offset.getTotalSeconds();
+        if (totalSecs % 900 != 0) {
+            return Collections.singletonList(offset);
+        }
+        int index = totalSecs / 900 + 72;
+        List<ZoneOffset> list = SINGLE_OFFSET_LISTS.get(index);
+        if (list == null) {
+            list = Collections.singletonList(offset);
+            SINGLE_OFFSET_LISTS.set(index, list);
+        }
+        return list;
+    }
+
+    @Override
+    public int getValidOffsetCount(LocalDateTime localDateTime) {
+        Object info = getOffsetInfo(localDateTime);
+        if (info instanceof ZoneOffsetTransition) {
+            return ((ZoneOffsetTransition) info).isGap() ? 0 : 2;
+        }
+        return 1;
     }
 
     @Override
@@ -329,14 +919,43 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         return (info instanceof ZoneOffsetTransition ? (ZoneOffsetTransition) info : null);
     }
 
+    @Override
+    public int getOffsetSeconds(long localEpochSecond, int preferredOffset) {
+        Object info = getOffsetInfo(localEpochSecond, 0, findLocalYear(localEpochSecond));
+        if (info instanceof ZoneOffsetTransition) {
+            ZoneOffsetTransition trans = (ZoneOffsetTransition) info;
+            int after = trans.getOffsetAfter().getTotalSeconds();
+            if (trans.isGap() || preferredOffset == after) {
+                return after;
+            }
+            return trans.getOffsetBefore().getTotalSeconds();
+        }
+        return ((ZoneOffset) info).getTotalSeconds();
+    }
+
     private Object getOffsetInfo(LocalDateTime dt) {
+        return getOffsetInfo(dt.toEpochSecond(ZoneOffset.UTC), dt.getNano(), dt.getYear());
+    }
+
+    /**
+     * Finds the offset info for a local date-time.
+     *
+     * @param localSec  the local epoch second of the date-time
+     * @param nano  the nano-of-second of the date-time
+     * @param year  the year of the date-time
+     * @return the offset or transition, not null
+     */
+    private Object getOffsetInfo(long localSec, int nano, int year) {
+        if (localSec >= fixedOffsetLocalSecond) {
+            return wallOffsets[wallOffsets.length - 1];
+        }
         // check if using last rules
         if (lastRules.length > 0 && (savingsLocalTransitions.length == 0 ||
-                dt.isAfter(savingsLocalTransitions[savingsLocalTransitions.length - 1]))) {
-            ZoneOffsetTransition[] transArray = findTransitionArray(dt.getYear());
+                isAfter(localSec, nano, savingsLocalTransitions[savingsLocalTransitions.length - 1]))) {
+            ZoneOffsetTransition[] transArray = findTransitionArray(year);
             Object info = null;
             for (ZoneOffsetTransition trans : transArray) {
-                info = findOffsetInfo(dt, trans);
+                info = findOffsetInfo(localSec, trans);
                 if (info instanceof ZoneOffsetTransition || info.equals(trans.getOffsetBefore())) {
                     return info;
                 }
@@ -345,7 +964,7 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         }
 
         // using historic rules
-        int index  = Arrays.binarySearch(savingsLocalTransitions, dt);
+        int index  = Arrays.binarySearch(savingsLocalTransitions, localSec);
         if (index == -1) {
             // before first transition
             return wallOffsets[0];
@@ -354,52 +973,59 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
             // switch negative insert position to start of matched range
             index = -index - 2;
         } else if (index < savingsLocalTransitions.length - 1 &&
-                savingsLocalTransitions[index].equals(savingsLocalTransitions[index + 1])) {
+                savingsLocalTransitions[index] == savingsLocalTransitions[index + 1]) {
             // handle overlap immediately following gap
             index++;
         }
         if ((index & 1) == 0) {
             // gap or overlap
-            LocalDateTime dtBefore = savingsLocalTransitions[index];
-            LocalDateTime dtAfter = savingsLocalTransitions[index + 1];
-            ZoneOffset offsetBefore = wallOffsets[index / 2];
-            ZoneOffset offsetAfter = wallOffsets[index / 2 + 1];
-            if (offsetAfter.getTotalSeconds() > offsetBefore.getTotalSeconds()) {
-                // gap
-                return new ZoneOffsetTransition(dtBefore, offsetBefore, offsetAfter);
-            } else {
-                // overlap
-                return new ZoneOffsetTransition(dtAfter, offsetBefore, offsetAfter);
-            }
+            return findSavingsTransition(index / 2);
         } else {
             // normal (neither gap or overlap)
             return wallOffsets[index / 2 + 1];
         }
     }
 
+    /**
+     * Checks if a local date-time is after a local transition.
+     *
+     * @param localSec  the local epoch second of the date-time
+     * @param nano  the nano-of-second of the date-time
+     * @param localTransition  the local epoch second of the transition
+     * @return true if the date-time is after the transition
+     */
+    private static boolean isAfter(long localSec, int nano, long localTransition) {
+        return localSec > localTransition || (localSec == localTransition && nano > 0);
+    }
+
     /**
      * Finds the offset info for a local date-time and transition.
+     * <p>
+     * As the transition has no fraction of second, comparing the date-time
+     * by its local epoch second alone gives the correct result.
      *
-     * @param dt  the date-time, not null
+     * @param localSec  the local epoch second of the date-time
      * @param trans  the transition, not null
      * @return the offset info, not null
      */
-    private Object findOffsetInfo(LocalDateTime dt, ZoneOffsetTransition trans) {
-        LocalDateTime localTransition = trans.getDateTimeBefore();
+    private Object findOffsetInfo(long localSec, ZoneOffsetTransition trans) {
+        long epochSec = trans.toEpochSecond();
+        long localTransition = epochSec + trans.getOffsetBefore().getTotalSeconds();
+        long localTransitionAfter = epochSec + trans.getOffsetAfter().getTotalSeconds();
         if (trans.isGap()) {
-            if (dt.isBefore(localTransition)) {
+            if (localSec < localTransition) {
                 return trans.getOffsetBefore();
             }
-            if (dt.isBefore(trans.getDateTimeAfter())) {
+            if (localSec < localTransitionAfter) {
                 return trans;
             } else {
                 return trans.getOffsetAfter();
             }
         } else {
-            if (dt.isBefore(localTransition) == false) {
+            if (localSec >= localTransition) {
                 return trans.getOffsetAfter();
             }
-            if (dt.isBefore(trans.getDateTimeAfter())) {
+            if (localSec < localTransitionAfter) {
                 return trans.getOffsetBefore();
             } else {
                 return trans;
@@ -407,9 +1033,28 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         }
     }
 
+    /**
+     * Finds the historic transition at the specified index, caching the result.
+     *
+     * @param index  the index of the transition
+     * @return the transition, not null
+     */
+    private ZoneOffsetTransition findSavingsTransition(int index) {
+        ZoneOffsetTransition trans = savingsTransitionCache.get(index);
+        if (trans == null) {
+            trans = new ZoneOffsetTransition(savingsInstantTransitions[index], wallOffsets[index], wallOffsets[index + 1]);
+            savingsTransitionCache.set(index, trans);
+        }
+        return trans;
+    }
+
     @Override
     public boolean isValidOffset(LocalDateTime localDateTime, ZoneOffset offset) {
-        return getValidOffsets(localDateTime).contains(offset);
+        Object info = getOffsetInfo(localDateTime);
+        if (info instanceof ZoneOffsetTransition) {
+            return ((ZoneOffsetTransition) info).isValidOffset(offset);
+        }
+        return info.equals(offset);
     }
 
     //-----------------------------------------------------------------------
@@ -420,26 +1065,72 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
      * @return the transition array, not null
      */
     private ZoneOffsetTransition[] findTransitionArray(int year) {
-        Integer yearObj = year;  // should use Year class, but this saves a class load
-        ZoneOffsetTransition[] transArray = lastRulesCache.get(yearObj);
-        if (transArray != null) {
+        int cacheIndex = year - lastRulesCacheStartYear;
+        if (cacheIndex >= 0 && cacheIndex < lastRulesCache.length()) {
+            ZoneOffsetTransition[] transArray = lastRulesCache.get(cacheIndex);
+            if (transArray == null) {
+                transArray = createTransitionArray(year);
+                lastRulesCache.set(cacheIndex, transArray);
+            }
             return transArray;
         }
+        int overflowIndex = year & (OVERFLOW_CACHE_SIZE - 1);
+        YearTransitions cached = lastRulesOverflowCache.get(overflowIndex);
+        if (cached != null && cached.year == year) {
+            return cached.transitions;
+        }
+        ZoneOffsetTransition[] transArray = createTransitionArray(year);
+        lastRulesOverflowCache.set(overflowIndex, new YearTransitions(year, transArray));
+        return transArray;
+    }
+
+    /**
+     * Finds the transition array for the given year if it is cheap to do so.
+     * <p>
+     * Within the main cache the array is created and cached as normal.
+     * Beyond it, the array is only returned if already in the overflow cache,
+     * as creating arrays for many distinct far-future years would thrash that cache.
+     *
+     * @param year  the year, not null
+     * @return the transition array, null if not cached
+     */
+    private ZoneOffsetTransition[] findCachedTransitionArray(int year) {
+        int cacheIndex = year - lastRulesCacheStartYear;
+        if (cacheIndex >= 0 && cacheIndex < lastRulesCache.length()) {
+            return findTransitionArray(year);
+        }
+        YearTransitions cached = lastRulesOverflowCache.get(year & (OVERFLOW_CACHE_SIZE - 1));
+        return (cached != null && cached.year == year ? cached.transitions : null);
+    }
+
+    /**
+     * Creates the transition array for the given year, without caching.
+     *
+     * @param year  the year, not null
+     * @return the transition array, not null
+     */
+    private ZoneOffsetTransition[] createTransitionArray(int year) {
         ZoneOffsetTransitionRule[] ruleArray = lastRules;
-        transArray  = new ZoneOffsetTransition[ruleArray.length];
+        ZoneOffsetTransition[] transArray  = new ZoneOffsetTransition[ruleArray.length];
         for (int i = 0; i < ruleArray.length; i++) {
             transArray[i] = ruleArray[i].createTransition(year);
         }
-        if (year < LAST_CACHED_YEAR) {
-            lastRulesCache.putIfAbsent(yearObj, transArray);
-        }
         return transArray;
     }
 
     //-----------------------------------------------------------------------
     @Override
     public ZoneOffset getStandardOffset(Instant instant) {
-        long epochSec = instant.getEpochSecond();
+        return findStandardOffset(instant.getEpochSecond());
+    }
+
+    /**
+     * Finds the standard offset for the epoch-second.
+     *
+     * @param epochSec  the epoch second
+     * @return the standard offset, not null
+     */
+    private ZoneOffset findStandardOffset(long epochSec) {
         int index  = Arrays.binarySearch(standardTransitions, epochSec);
         if (index < 0) {
             // switch negative insert position to start of matched range
@@ -450,14 +1141,17 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
 
     @Override
     public Duration getDaylightSavings(Instant instant) {
-        ZoneOffset standardOffset = getStandardOffset(instant);
-        ZoneOffset actualOffset = getOffset(instant);
-        return Duration.ofSeconds(actualOffset.getTotalSeconds() - standardOffset.getTotalSeconds());
+        return Duration.ofSeconds(findDaylightSavingsSeconds(instant.getEpochSecond()));
+    }
+
+    @Override
+    public int getDaylightSavingsSeconds(long epochSecond) {
+        return findDaylightSavingsSeconds(epochSecond);
     }
 
     @Override
     public boolean isDaylightSavings(Instant instant) {
-        return (getStandardOffset(instant).equals(getOffset(instant)) == false);
+        return findDaylightSavingsSeconds(instant.getEpochSecond()) != 0;
     }
 
     //-----------------------------------------------------------------------
@@ -497,7 +1191,7 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         } else {
             index += 1;  // exact match, so need to add one to get the next
         }
-        return new ZoneOffsetTransition(savingsInstantTransitions[index], wallOffsets[index], wallOffsets[index + 1]);
+        return findSavingsTransition(index);
     }
 
     @Override
@@ -540,22 +1234,73 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         if (index <= 0) {
             return null;
         }
-        return new ZoneOffsetTransition(savingsInstantTransitions[index - 1], wallOffsets[index - 1], wallOffsets[index]);
+        return findSavingsTransition(index - 1);
+    }
+
+    private static int findYear(long epochSecond, ZoneOffset offset) {
+        return findLocalYear(epochSecond + offset.getTotalSeconds());
+    }
+
+    /**
+     * Finds the epoch-second of the start of a year, consistent with {@link #findYear}.
+     *
+     * @param year  the year
+     * @param offset  the offset defining the start of the year, not null
+     * @return the epoch-second
+     */
+    private static long findYearStart(int year, ZoneOffset offset) {
+        return ZoneOffsetTransitionRule.yearStartEpochDay(year) * 86400 - offset.getTotalSeconds();
     }
 
-    private int findYear(long epochSecond, ZoneOffset offset) {
+    /**
+     * Finds the year of a local epoch-second without creating a {@code LocalDate}.
+     * <p>
+     * This is the year part of {@link LocalDate#ofEpochDay(long)}.
+     *
+     * @param localSecond  the local epoch second
+     * @return the year
+     */
+    private static int findLocalYear(long localSecond) {
         // inline for performance
-        long localSecond = epochSecond + offset.getTotalSeconds();
         long localEpochDay = Jdk8Methods.floorDiv(localSecond, 86400);
-        return LocalDate.ofEpochDay(localEpochDay).getYear();
+        EPOCH_DAY.checkValidValue(localEpochDay);
+        long zeroDay = localEpochDay + ZoneOffsetTransitionRule.DAYS_0000_TO_1970 - 60;  // adjust to 0000-03-01
+        long adjust = 0;
+        if (zeroDay < 0) {
+            // adjust negative years to positive for calculation
+            long adjustCycles = (zeroDay + 1) / DAYS_PER_CYCLE - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * DAYS_PER_CYCLE;
+        }
+        long yearEst = (400 * zeroDay + 591) / DAYS_PER_CYCLE;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            // fix estimate
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        }
+        yearEst += adjust;  // reset any negative year
+        int marchMonth0 = ((int) doyEst * 5 + 2) / 153;
+        yearEst += marchMonth0 / 10;
+        return YEAR.checkValidIntValue(yearEst);
     }
 
     //-------------------------------------------------------------------------
+    @Override
+    public Iterator<ZoneOffsetTransition> transitionIterator(Instant startInclusive, Instant endExclusive) {
+        Jdk8Methods.requireNonNull(startInclusive, "startInclusive");
+        Jdk8Methods.requireNonNull(endExclusive, "endExclusive");
+        // convert to whole seconds, as transitions are always on a second
+        long startSec = startInclusive.getEpochSecond() + (startInclusive.getNano() > 0 ? 1 : 0);
+        long endSec = endExclusive.getEpochSecond() + (endExclusive.getNano() > 0 ? 1 : 0);
+        return new TransitionIterator(startSec, endSec);
+    }
+
     @Override
     public List<ZoneOffsetTransition> getTransitions() {
         List<ZoneOffsetTransition> list = new ArrayList<ZoneOffsetTransition>();
         for (int i = 0; i < savingsInstantTransitions.length; i++) {
-            list.add(new ZoneOffsetTransition(savingsInstantTransitions[i], wallOffsets[i], wallOffsets[i + 1]));
+            list.add(findSavingsTransition(i));
         }
         return Collections.unmodifiableList(list);
     }
@@ -571,6 +1316,9 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         if (this == obj) {
            return true;
         }
+        if (obj instanceof ZoneRules) {
+            obj = ((ZoneRules) obj).underlyingRules();
+        }
         if (obj instanceof StandardZoneRules) {
             StandardZoneRules other = (StandardZoneRules) obj;
             return Arrays.equals(standardTransitions, other.standardTransitions) &&
@@ -605,4 +1353,101 @@ final class StandardZoneRules extends ZoneRules implements Serializable {
         return "StandardZoneRules[currentStandardOffset=" + standardOffsets[standardOffsets.length - 1] + "]";
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * Iterates over the transitions in a window, using the historic transitions
+     * and then the transitions created from the last rules, year by year.
+     * Transitions are obtained from the caches where possible.
+     */
+    private final class TransitionIterator implements Iterator<ZoneOffsetTransition> {
+        private final long startSec;
+        private final long endSec;
+        private int index;
+        private int year;
+        private ZoneOffsetTransition[] yearTransitions;
+        private int yearIndex;
+        private ZoneOffsetTransition next;
+
+        TransitionIterator(long startSec, long endSec) {
+            this.startSec = startSec;
+            this.endSec = endSec;
+            if (savingsInstantTransitions.length == 0 || startSec >= endSec) {
+                return;  // empty, consistent with nextTransition()
+            }
+            int startIndex = Arrays.binarySearch(savingsInstantTransitions, startSec);
+            index = (startIndex < 0 ? -startIndex - 1 : startIndex);
+            long lastHistoric = savingsInstantTransitions[savingsInstantTransitions.length - 1];
+            year = findYear(Math.max(startSec, lastHistoric), wallOffsets[wallOffsets.length - 1]);
+            next = findNext();
+        }
+
+        private ZoneOffsetTransition findNext() {
+            ZoneOffsetTransition trans;
+            if (index < savingsInstantTransitions.length) {
+                trans = findSavingsTransition(index++);
+            } else {
+                trans = findNextFromLastRules();
+            }
+            return (trans != null && trans.toEpochSecond() < endSec ? trans : null);
+        }
+
+        private ZoneOffsetTransition findNextFromLastRules() {
+            if (lastRules.length == 0) {
+                return null;
+            }
+            long lastHistoric = savingsInstantTransitions[savingsInstantTransitions.length - 1];
+            while (true) {
+                if (yearTransitions == null) {
+                    yearTransitions = findTransitionArray(year);
+                    yearIndex = 0;
+                }
+                while (yearIndex < yearTransitions.length) {
+                    ZoneOffsetTransition trans = yearTransitions[yearIndex++];
+                    long epochSec = trans.toEpochSecond();
+                    if (epochSec > lastHistoric && epochSec >= startSec) {
+                        return trans;
+                    }
+                }
+                if (year >= Year.MAX_VALUE) {
+                    return null;
+                }
+                year++;
+                yearTransitions = null;
+            }
+        }
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public ZoneOffsetTransition next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            ZoneOffsetTransition trans = next;
+            next = findNext();
+            return trans;
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The transitions for a single year.
+     */
+    private static final class YearTransitions {
+        /** The year. */
+        private final int year;
+        /** The transitions. */
+        private final ZoneOffsetTransition[] transitions;
+
+        YearTransitions(int year, ZoneOffsetTransition[] transitions) {
+            this.year = year;
+            this.transitions = transitions;
+        }
+    }
+
 }
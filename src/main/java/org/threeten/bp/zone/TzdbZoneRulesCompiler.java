@@ -35,19 +35,31 @@ import static org.threeten.bp.temporal.ChronoField.HOUR_OF_DAY;
 import static org.threeten.bp.temporal.ChronoField.MINUTE_OF_HOUR;
 import static org.threeten.bp.temporal.ChronoField.SECOND_OF_MINUTE;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.ParsePosition;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -55,6 +67,15 @@ import java.util.SortedMap;
 import java.util.StringTokenizer;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.jar.JarOutputStream;
 import java.util.zip.ZipEntry;
 
@@ -107,6 +128,7 @@ final class TzdbZoneRulesCompiler {
         String version = null;
         File baseSrcDir = null;
         File dstDir = null;
+        File cacheFile = null;
         boolean unpacked = false;
         boolean verbose = false;
 
@@ -132,6 +154,11 @@ final class TzdbZoneRulesCompiler {
                     version = args[i];
                     continue;
                 }
+            } else if ("-cache".equals(arg)) {
+                if (cacheFile == null && ++i < args.length) {
+                    cacheFile = new File(args[i]);
+                    continue;
+                }
             } else if ("-unpacked".equals(arg)) {
                 if (unpacked == false) {
                     unpacked = true;
@@ -200,7 +227,7 @@ final class TzdbZoneRulesCompiler {
             System.out.println("Destination is not a directory: " + dstDir);
             return;
         }
-        process(srcDirs, srcFileNames, dstDir, unpacked, verbose);
+        process(srcDirs, srcFileNames, dstDir, cacheFile, unpacked, verbose);
     }
 
     /**
@@ -212,6 +239,7 @@ final class TzdbZoneRulesCompiler {
         System.out.println("   -srcdir <directory>   Where to find source directories (required)");
         System.out.println("   -dstdir <directory>   Where to output generated files (default srcdir)");
         System.out.println("   -version <version>    Specify the version, such as 2009a (optional)");
+        System.out.println("   -cache <file>         Reuse zones built by earlier runs, stored in the file (optional)");
         System.out.println("   -unpacked             Generate dat files without jar files");
         System.out.println("   -help                 Print this usage message");
         System.out.println("   -verbose              Output verbose information during compilation");
@@ -221,14 +249,48 @@ final class TzdbZoneRulesCompiler {
         System.out.println(" Directories must match the regex [12][0-9][0-9][0-9][A-Za-z0-9._-]+");
         System.out.println(" There will be one jar file for each version and one combined jar in dstdir");
         System.out.println(" If the version is specified, only that version is processed");
+        System.out.println(" Zones are only rebuilt if their Zone lines or the Rule lines they use have changed");
+    }
+
+    /**
+     * Process to create the jar files.
+     * <p>
+     * The zones of each version are built in parallel, using one thread per processor.
+     * A zone is only built if no other version, or earlier run using the same cache file,
+     * has built a zone from the same source lines.
+     */
+    private static void process(List<File> srcDirs, List<String> srcFileNames, File dstDir, File cacheFile, boolean unpacked, boolean verbose) {
+        ZoneRulesCache cache = new ZoneRulesCache();
+        if (cacheFile != null) {
+            cache.load(cacheFile, verbose);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ThreeTen-TzdbZoneRulesCompiler");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            process(srcDirs, srcFileNames, dstDir, cache, executor, unpacked, verbose);
+        } finally {
+            executor.shutdown();
+        }
+        if (verbose) {
+            System.out.println("Built " + cache.getBuildCount() + " zones, reused " + cache.getReuseCount() + " zones");
+        }
+        if (cacheFile != null) {
+            cache.save(cacheFile, verbose);
+        }
     }
 
     /**
      * Process to create the jar files.
      */
-    private static void process(List<File> srcDirs, List<String> srcFileNames, File dstDir, boolean unpacked, boolean verbose) {
+    private static void process(List<File> srcDirs, List<String> srcFileNames, File dstDir,
+            ZoneRulesCache cache, ExecutorService executor, boolean unpacked, boolean verbose) {
         // build actual jar files
-        Map<Object, Object> deduplicateMap = new HashMap<Object, Object>();
+        Map<Object, Object> deduplicateMap = new ConcurrentHashMap<Object, Object>();
         Map<String, SortedMap<String, ZoneRules>> allBuiltZones = new TreeMap<String, SortedMap<String, ZoneRules>>();
         Set<String> allRegionIds = new TreeSet<String>();
         Set<ZoneRules> allRules = new HashSet<ZoneRules>();
@@ -256,6 +318,8 @@ final class TzdbZoneRulesCompiler {
             String loopVersion = srcDir.getName();
             TzdbZoneRulesCompiler compiler = new TzdbZoneRulesCompiler(loopVersion, srcFiles, leapSecondsFile, verbose);
             compiler.setDeduplicateMap(deduplicateMap);
+            compiler.setCache(cache);
+            compiler.setExecutor(executor);
             try {
                 // compile
                 compiler.compile();
@@ -385,14 +449,28 @@ final class TzdbZoneRulesCompiler {
 
     /**
      * Outputs the timezone DAT file.
+     * <p>
+     * This writes version 2 of the format, which is laid out as follows:
+     * <ul>
+     * <li>the format version and group, as for version 1</li>
+     * <li>the version identifiers and the sorted region identifiers, as for version 1</li>
+     * <li>a dictionary of all the offsets used by the rules</li>
+     * <li>a table of the position of each set of rules, relative to the end of the table,
+     *  with a final entry holding the total length of the rules</li>
+     * <li>the rules, each with delta encoded transitions and offsets referring to the dictionary</li>
+     * <li>for each version, the region and rules index of each region, in region order</li>
+     * </ul>
+     * The position table allows a set of rules to be read directly without decoding the others.
+     * The rules are written in order of first use and the offsets in order of most use,
+     * thus the output is the same however the rules were built.
      */
-    private static void outputTzdbDat(OutputStream jos,
+    static void outputTzdbDat(OutputStream jos,
             Map<String, SortedMap<String, ZoneRules>> allBuiltZones,
             Set<String> allRegionIds, Set<ZoneRules> allRules) throws IOException {
         DataOutputStream out = new DataOutputStream(jos);
 
         // file version
-        out.writeByte(1);
+        out.writeByte(2);
         // group
         out.writeUTF("TZDB");
         // versions
@@ -407,25 +485,57 @@ final class TzdbZoneRulesCompiler {
         for (String regionId : regionArray) {
             out.writeUTF(regionId);
         }
-        // rules
-        List<ZoneRules> rulesList = new ArrayList<ZoneRules>(allRules);
-        out.writeShort(rulesList.size());
-        ByteArrayOutputStream baos = new ByteArrayOutputStream(1024);
+        // rules, in order of first use so that the output does not depend on hash order
+        Set<ZoneRules> orderedRules = new LinkedHashSet<ZoneRules>();
+        for (SortedMap<String, ZoneRules> builtZones : allBuiltZones.values()) {
+            orderedRules.addAll(builtZones.values());
+        }
+        orderedRules.addAll(allRules);
+        List<ZoneRules> rulesList = new ArrayList<ZoneRules>(orderedRules);
+        Map<ZoneRules, Integer> rulesIndices = new HashMap<ZoneRules, Integer>();
+        // offset dictionary, most used first so that most indices fit in one byte
+        final Map<ZoneOffset, Integer> offsetCounts = new HashMap<ZoneOffset, Integer>();
         for (ZoneRules rules : rulesList) {
-            baos.reset();
-            DataOutputStream dataos = new DataOutputStream(baos);
-            Ser.write(rules, dataos);
-            dataos.close();
-            byte[] bytes = baos.toByteArray();
-            out.writeShort(bytes.length);
-            out.write(bytes);
+            ((StandardZoneRules) rules).countOffsets(offsetCounts);
+        }
+        List<ZoneOffset> offsetList = new ArrayList<ZoneOffset>(offsetCounts.keySet());
+        Collections.sort(offsetList, new Comparator<ZoneOffset>() {
+            public int compare(ZoneOffset offset1, ZoneOffset offset2) {
+                int cmp = offsetCounts.get(offset2).compareTo(offsetCounts.get(offset1));
+                return cmp != 0 ? cmp : offset1.compareTo(offset2);
+            }
+        });
+        Map<ZoneOffset, Integer> offsetIndices = new LinkedHashMap<ZoneOffset, Integer>();
+        for (ZoneOffset offset : offsetList) {
+            offsetIndices.put(offset, offsetIndices.size());
+        }
+        int[] rulePositions = new int[rulesList.size() + 1];
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(1024 * 64);
+        DataOutputStream dataos = new DataOutputStream(baos);
+        for (int i = 0; i < rulesList.size(); i++) {
+            rulesIndices.put(rulesList.get(i), i);
+            rulePositions[i] = baos.size();
+            ((StandardZoneRules) rulesList.get(i)).writeCompact(dataos, offsetIndices);
+        }
+        dataos.close();
+        rulePositions[rulesList.size()] = baos.size();
+        // offsets
+        out.writeShort(offsetIndices.size());
+        for (ZoneOffset offset : offsetIndices.keySet()) {
+            Ser.writeOffset(offset, out);
         }
+        // rule positions and rules
+        out.writeShort(rulesList.size());
+        for (int position : rulePositions) {
+            out.writeInt(position);
+        }
+        baos.writeTo(out);
         // link version-region-rules
         for (String version : allBuiltZones.keySet()) {
             out.writeShort(allBuiltZones.get(version).size());
             for (Map.Entry<String, ZoneRules> entry : allBuiltZones.get(version).entrySet()) {
                  int regionIndex = Arrays.binarySearch(regionArray, entry.getKey());
-                 int rulesIndex = rulesList.indexOf(entry.getValue());
+                 int rulesIndex = rulesIndices.get(entry.getValue());
                  out.writeShort(regionIndex);
                  out.writeShort(rulesIndex);
             }
@@ -440,10 +550,18 @@ final class TzdbZoneRulesCompiler {
     private final Map<String, List<TZDBZone>> zones = new HashMap<String, List<TZDBZone>>();
     /** The TZDB links. */
     private final Map<String, String> links = new HashMap<String, String>();
+    /** The normalized source lines of each TZDB zone. */
+    private final Map<String, List<String>> zoneLines = new HashMap<String, List<String>>();
+    /** The normalized source lines of each set of TZDB rules. */
+    private final Map<String, List<String>> ruleLines = new HashMap<String, List<String>>();
     /** The built zones. */
     private final SortedMap<String, ZoneRules> builtZones = new TreeMap<String, ZoneRules>();
-    /** A map to deduplicate object instances. */
-    private Map<Object, Object> deduplicateMap = new HashMap<Object, Object>();
+    /** A map to deduplicate object instances, concurrent as zones may be built in parallel. */
+    private Map<Object, Object> deduplicateMap = new ConcurrentHashMap<Object, Object>();
+    /** The cache of built zones, null if not caching. */
+    private ZoneRulesCache cache;
+    /** The executor used to build zones, null to build them on the calling thread. */
+    private ExecutorService executor;
     /** Sorted collection of LeapSecondRules. */
     private final SortedMap<LocalDate, Byte> leapSeconds = new TreeMap<LocalDate, Byte>();
 
@@ -521,6 +639,26 @@ final class TzdbZoneRulesCompiler {
         this.deduplicateMap = deduplicateMap;
     }
 
+    /**
+     * Sets the cache of built zones.
+     *
+     * @param cache  the cache, null to build every zone
+     */
+    void setCache(ZoneRulesCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Sets the executor used to build zones in parallel.
+     * <p>
+     * If a deduplication map is set, it must be safe for concurrent use.
+     *
+     * @param executor  the executor, null to build zones on the calling thread
+     */
+    void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Parses the source files.
@@ -639,6 +777,7 @@ final class TzdbZoneRulesCompiler {
         try {
             in = new BufferedReader(new FileReader(file));
             List<TZDBZone> openZone = null;
+            List<String> openZoneLines = null;
             for ( ; (line = in.readLine()) != null; lineNumber++) {
                 int index = line.indexOf('#');  // remove comments (doesn't handle # in quotes)
                 if (index >= 0) {
@@ -648,7 +787,9 @@ final class TzdbZoneRulesCompiler {
                     continue;
                 }
                 StringTokenizer st = new StringTokenizer(line, " \t");
+                String source = normalizeLine(line);
                 if (openZone != null && Character.isWhitespace(line.charAt(0)) && st.hasMoreTokens()) {
+                    openZoneLines.add(source);
                     if (parseZoneLine(st, openZone)) {
                         openZone = null;
                     }
@@ -660,8 +801,12 @@ final class TzdbZoneRulesCompiler {
                                 printVerbose("Invalid Zone line in file: " + file + ", line: " + line);
                                 throw new IllegalArgumentException("Invalid Zone line");
                             }
+                            String zoneId = st.nextToken();
                             openZone = new ArrayList<TZDBZone>();
-                            zones.put(st.nextToken(), openZone);
+                            openZoneLines = new ArrayList<String>();
+                            openZoneLines.add(source);
+                            zones.put(zoneId, openZone);
+                            zoneLines.put(zoneId, openZoneLines);
                             if (parseZoneLine(st, openZone)) {
                                 openZone = null;
                             }
@@ -672,7 +817,11 @@ final class TzdbZoneRulesCompiler {
                                     printVerbose("Invalid Rule line in file: " + file + ", line: " + line);
                                     throw new IllegalArgumentException("Invalid Rule line");
                                 }
-                                parseRuleLine(st);
+                                String name = parseRuleLine(st);
+                                if (ruleLines.containsKey(name) == false) {
+                                    ruleLines.put(name, new ArrayList<String>());
+                                }
+                                ruleLines.get(name).add(source);
 
                             } else if (first.equals("Link")) {
                                 if (st.countTokens() < 2) {
@@ -699,12 +848,31 @@ final class TzdbZoneRulesCompiler {
         }
     }
 
+    /**
+     * Normalizes a line, so that changes to whitespace do not cause zones to be rebuilt.
+     *
+     * @param line  the line without comments, not null
+     * @return the tokens of the line separated by single spaces, not null
+     */
+    private static String normalizeLine(String line) {
+        StringBuilder buf = new StringBuilder(line.length());
+        StringTokenizer st = new StringTokenizer(line, " \t");
+        while (st.hasMoreTokens()) {
+            if (buf.length() > 0) {
+                buf.append(' ');
+            }
+            buf.append(st.nextToken());
+        }
+        return buf.toString();
+    }
+
     /**
      * Parses a Rule line.
      *
      * @param st  the tokenizer, not null
+     * @return the name of the rules, not null
      */
-    private void parseRuleLine(StringTokenizer st) {
+    private String parseRuleLine(StringTokenizer st) {
         TZDBRule rule = new TZDBRule();
         String name = st.nextToken();
         if (rules.containsKey(name) == false) {
@@ -720,6 +888,7 @@ final class TzdbZoneRulesCompiler {
         parseMonthDayTime(st, rule);
         rule.savingsAmount = parsePeriod(st.nextToken());
         rule.text = parseOptional(st.nextToken());
+        return name;
     }
 
     /**
@@ -898,17 +1067,39 @@ final class TzdbZoneRulesCompiler {
      * @throws Exception if an error occurs
      */
     private void buildZoneRules() throws Exception {
+        // adjust the shared rules before any zone uses them
+        for (List<TZDBRule> ruleList : rules.values()) {
+            for (TZDBRule rule : ruleList) {
+                rule.adjustToFowards(2004);  // irrelevant, treat as leap year
+            }
+        }
+
         // build zones
-        for (String zoneId : zones.keySet()) {
-            printVerbose("Building zone " + zoneId);
-            zoneId = deduplicate(zoneId);
-            List<TZDBZone> tzdbZones = zones.get(zoneId);
-            ZoneRulesBuilder bld = new ZoneRulesBuilder();
-            for (TZDBZone tzdbZone : tzdbZones) {
-                bld = tzdbZone.addToBuilder(bld, rules);
+        List<String> zoneIds = new ArrayList<String>(zones.keySet());
+        if (executor == null) {
+            for (String zoneId : zoneIds) {
+                builtZones.put(deduplicate(zoneId), buildZone(zoneId));
+            }
+        } else {
+            List<Callable<ZoneRules>> tasks = new ArrayList<Callable<ZoneRules>>(zoneIds.size());
+            for (final String zoneId : zoneIds) {
+                tasks.add(new Callable<ZoneRules>() {
+                    public ZoneRules call() {
+                        return buildZone(zoneId);
+                    }
+                });
+            }
+            List<Future<ZoneRules>> futures = executor.invokeAll(tasks);
+            for (int i = 0; i < zoneIds.size(); i++) {
+                try {
+                    builtZones.put(deduplicate(zoneIds.get(i)), futures.get(i).get());
+                } catch (ExecutionException ex) {
+                    if (ex.getCause() instanceof Exception) {
+                        throw (Exception) ex.getCause();
+                    }
+                    throw (Error) ex.getCause();
+                }
             }
-            ZoneRules buildRules = bld.toRules(zoneId, deduplicateMap);
-            builtZones.put(zoneId, deduplicate(buildRules));
         }
 
         // build aliases
@@ -936,6 +1127,67 @@ final class TzdbZoneRulesCompiler {
         builtZones.remove("GMT-0");
     }
 
+    /**
+     * Builds a single zone, reusing the rules built from the same source lines if possible.
+     *
+     * @param zoneId  the zone ID, not null
+     * @return the built rules, not null
+     */
+    private ZoneRules buildZone(String zoneId) {
+        List<TZDBZone> tzdbZones = zones.get(zoneId);
+        String key = (cache != null ? sourceKey(zoneId) : null);
+        if (key != null) {
+            ZoneRules cachedRules = cache.get(key);
+            if (cachedRules != null) {
+                printVerbose("Reusing zone " + zoneId);
+                return deduplicate(cachedRules);
+            }
+        }
+        printVerbose("Building zone " + zoneId);
+        ZoneRulesBuilder bld = new ZoneRulesBuilder();
+        for (TZDBZone tzdbZone : tzdbZones) {
+            bld = tzdbZone.addToBuilder(bld, rules);
+        }
+        ZoneRules buildRules = deduplicate(bld.toRules(deduplicate(zoneId), deduplicateMap));
+        if (key != null) {
+            cache.put(key, buildRules);
+        }
+        return buildRules;
+    }
+
+    /**
+     * Calculates the key of a zone in the cache.
+     * <p>
+     * This is a hash of the normalized Zone lines and the Rule lines used by the zone,
+     * thus a zone is rebuilt whenever any of the lines used to build it changes.
+     *
+     * @param zoneId  the zone ID, not null
+     * @return the key, not null
+     */
+    private String sourceKey(String zoneId) {
+        MessageDigest digest = ZoneRulesCache.createDigest();
+        Set<String> ruleNames = new LinkedHashSet<String>();
+        for (String source : zoneLines.get(zoneId)) {
+            digest.update(ZoneRulesCache.toBytes(source));
+            digest.update((byte) '\n');
+        }
+        for (TZDBZone tzdbZone : zones.get(zoneId)) {
+            if (tzdbZone.savingsRule != null) {
+                ruleNames.add(tzdbZone.savingsRule);
+            }
+        }
+        for (String ruleName : ruleNames) {
+            List<String> sources = ruleLines.get(ruleName);
+            if (sources != null) {
+                for (String source : sources) {
+                    digest.update(ZoneRulesCache.toBytes(source));
+                    digest.update((byte) '\n');
+                }
+            }
+        }
+        return ZoneRulesCache.toHex(digest.digest());
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Deduplicates an object instance.
@@ -1072,6 +1324,204 @@ final class TzdbZoneRulesCompiler {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * A cache of built zones, keyed by a hash of the source lines of each zone.
+     * <p>
+     * The cache can be saved to a file and loaded by a later run. Only the zones
+     * used by the current run are saved, thus zones from older versions of the
+     * source files are dropped once no longer compiled. The file is stamped with
+     * a hash of the compiler classes, so that a changed compiler rebuilds every zone.
+     * <p>
+     * This class is thread-safe.
+     */
+    static final class ZoneRulesCache {
+        /** The format of the cache file. */
+        private static final byte FORMAT = 1;
+        /** The classes that affect the built zones or their serialized form, including nested classes. */
+        private static final Class<?>[] STAMP_CLASSES = {
+            TzdbZoneRulesCompiler.class,
+            TZDBMonthDayTime.class,
+            TZDBRule.class,
+            TZDBZone.class,
+            ZoneRulesBuilder.class,
+            ZoneRulesBuilder.TZWindow.class,
+            ZoneRulesBuilder.TZRule.class,
+            ZoneRules.class,
+            StandardZoneRules.class,
+            ZoneOffsetTransition.class,
+            ZoneOffsetTransitionRule.class,
+            ZoneOffsetTransitionRule.TimeDefinition.class,
+            Ser.class,
+        };
+
+        /** The zones loaded from a file, keyed by source hash. */
+        private final ConcurrentMap<String, ZoneRules> loaded = new ConcurrentHashMap<String, ZoneRules>();
+        /** The zones used by this run, keyed by source hash. */
+        private final ConcurrentMap<String, ZoneRules> used = new ConcurrentHashMap<String, ZoneRules>();
+        /** The number of zones built. */
+        private final AtomicInteger buildCount = new AtomicInteger();
+        /** The number of zones reused. */
+        private final AtomicInteger reuseCount = new AtomicInteger();
+
+        /**
+         * Gets the rules built from the source lines with the specified hash.
+         *
+         * @param key  the hash of the source lines, not null
+         * @return the rules, null if not cached
+         */
+        ZoneRules get(String key) {
+            ZoneRules rules = used.get(key);
+            if (rules == null) {
+                rules = loaded.get(key);
+                if (rules == null) {
+                    return null;
+                }
+                used.putIfAbsent(key, rules);
+            }
+            reuseCount.incrementAndGet();
+            return rules;
+        }
+
+        /**
+         * Adds rules built from the source lines with the specified hash.
+         *
+         * @param key  the hash of the source lines, not null
+         * @param rules  the rules, not null
+         */
+        void put(String key, ZoneRules rules) {
+            used.put(key, rules);
+            buildCount.incrementAndGet();
+        }
+
+        int getBuildCount() {
+            return buildCount.get();
+        }
+
+        int getReuseCount() {
+            return reuseCount.get();
+        }
+
+        /**
+         * Loads the cache from a file, ignoring a missing, invalid or out of date file.
+         *
+         * @param file  the file, not null
+         * @param verbose  whether to output verbose messages
+         */
+        void load(File file, boolean verbose) {
+            if (file.exists() == false) {
+                return;
+            }
+            try {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                try {
+                    if (in.readByte() != FORMAT || in.readUTF().equals(stamp()) == false) {
+                        if (verbose) {
+                            System.out.println("Ignoring out of date cache file: " + file);
+                        }
+                        return;
+                    }
+                    int size = in.readInt();
+                    Map<String, ZoneRules> map = new HashMap<String, ZoneRules>();
+                    for (int i = 0; i < size; i++) {
+                        map.put(in.readUTF(), (ZoneRules) Ser.read(in));
+                    }
+                    loaded.putAll(map);
+                } finally {
+                    in.close();
+                }
+            } catch (Exception ex) {
+                System.out.println("Ignoring invalid cache file: " + file + ": " + ex);
+            }
+        }
+
+        /**
+         * Saves the zones used by this run to a file.
+         *
+         * @param file  the file, not null
+         * @param verbose  whether to output verbose messages
+         */
+        void save(File file, boolean verbose) {
+            if (verbose) {
+                System.out.println("Outputting cache file: " + file);
+            }
+            try {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+                try {
+                    out.writeByte(FORMAT);
+                    out.writeUTF(stamp());
+                    Map<String, ZoneRules> map = new TreeMap<String, ZoneRules>(used);
+                    out.writeInt(map.size());
+                    for (Map.Entry<String, ZoneRules> entry : map.entrySet()) {
+                        out.writeUTF(entry.getKey());
+                        Ser.write(entry.getValue(), out);
+                    }
+                } finally {
+                    out.close();
+                }
+            } catch (Exception ex) {
+                System.out.println("Failed to output cache file: " + file + ": " + ex);
+                file.delete();
+            }
+        }
+
+        /**
+         * Calculates a hash of the compiler classes.
+         * <p>
+         * The anonymous classes of each class are included.
+         *
+         * @return the hash, not null
+         * @throws IOException if unable to read the classes
+         */
+        static String stamp() throws IOException {
+            MessageDigest digest = createDigest();
+            byte[] buf = new byte[4096];
+            for (Class<?> cls : STAMP_CLASSES) {
+                String name = cls.getName().substring(cls.getName().lastIndexOf('.') + 1);
+                InputStream in = cls.getResourceAsStream(name + ".class");
+                if (in == null) {
+                    throw new IOException("Unable to read class: " + cls.getName());
+                }
+                for (int i = 1; in != null; i++) {
+                    try {
+                        int count;
+                        while ((count = in.read(buf)) != -1) {
+                            digest.update(buf, 0, count);
+                        }
+                    } finally {
+                        in.close();
+                    }
+                    in = cls.getResourceAsStream(name + '$' + i + ".class");
+                }
+            }
+            return toHex(digest.digest());
+        }
+
+        static MessageDigest createDigest() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        static byte[] toBytes(String str) {
+            try {
+                return str.getBytes("UTF-8");
+            } catch (UnsupportedEncodingException ex) {
+                throw new IllegalStateException(ex);
+            }
+        }
+
+        static String toHex(byte[] bytes) {
+            StringBuilder buf = new StringBuilder(bytes.length * 2);
+            for (byte b : bytes) {
+                buf.append(Character.forDigit((b >> 4) & 15, 16)).append(Character.forDigit(b & 15, 16));
+            }
+            return buf.toString();
+        }
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Class representing a rule line in the TZDB file.
@@ -33,10 +33,14 @@ package org.threeten.bp.zone;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.io.StreamCorruptedException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashSet;
@@ -49,12 +53,22 @@ import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import org.threeten.bp.ZoneOffset;
 import org.threeten.bp.jdk8.Jdk8Methods;
 
 /**
  * Loads time-zone rules for 'TZDB'.
  * <p>
  * This class is public for the service loader to access.
+ * <p>
+ * By default, the rules are read from the {@code TZDB.dat} files on the classpath.
+ * Alternatively, a {@code TZDB.dat} file on the file system can be memory-mapped using
+ * {@link #TzdbZoneRulesProvider(File)}. In that mode, only the version and region
+ * identifiers and the location of each set of rules are read at startup, with
+ * the rules for a region decoded directly from the mapped file when first used.
+ * This can be registered in place of the default using {@link ZoneRulesInitializer}.
+ * <p>
+ * Equal rules are shared, both between versions and between instances of this provider.
  *
  * <h3>Specification for implementors</h3>
  * This class is immutable and thread-safe.
@@ -126,6 +140,29 @@ public final class TzdbZoneRulesProvider extends ZoneRulesProvider {
         }
     }
 
+    /**
+     * Creates an instance that memory-maps the specified file.
+     * <p>
+     * The file must be in the {@code TZDB.dat} format, such as a copy of the file
+     * extracted from the jar. The rules for each region are decoded from the mapped
+     * file on first use, rather than being read onto the heap at startup.
+     * The file must not be modified while the provider is in use.
+     *
+     * @param file  the file to map, not null
+     * @throws ZoneRulesException if unable to load
+     */
+    public TzdbZoneRulesProvider(File file) {
+        super();
+        Jdk8Methods.requireNonNull(file, "file");
+        try {
+            if (load(file) == false) {
+                throw new ZoneRulesException("No time-zone rules found: " + file);
+            }
+        } catch (Exception ex) {
+            throw new ZoneRulesException("Unable to load TZDB time-zone rules: " + file, ex);
+        }
+    }
+
     //-----------------------------------------------------------------------
     @Override
     protected Set<String> provideZoneIds() {
@@ -202,6 +239,31 @@ public final class TzdbZoneRulesProvider extends ZoneRulesProvider {
         return updated;
     }
 
+    /**
+     * Loads the rules by memory-mapping a file.
+     *
+     * @param file  the file to map, not null
+     * @return true if updated
+     * @throws IOException if an IO error occurs
+     * @throws ZoneRulesException if the data is already loaded for the version
+     */
+    private boolean load(File file) throws IOException, ZoneRulesException {
+        boolean updated = false;
+        if (loadedUrls.add(file.toURI().toURL().toExternalForm())) {
+            ByteBuffer buffer;
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            try {
+                // the mapping remains valid after the channel is closed
+                FileChannel channel = raf.getChannel();
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } finally {
+                raf.close();
+            }
+            updated |= register(loadData(new DataInputStream(new ByteBufferInputStream(buffer)), buffer));
+        }
+        return updated;
+    }
+
     /**
      * Loads the rules from an input stream.
      *
@@ -209,8 +271,18 @@ public final class TzdbZoneRulesProvider extends ZoneRulesProvider {
      * @throws Exception if an error occurs
      */
     private boolean load(InputStream in) throws IOException, StreamCorruptedException {
+        return register(loadData(new DataInputStream(in), null));
+    }
+
+    /**
+     * Registers the loaded versions.
+     *
+     * @param loadedVersions  the loaded versions, not null
+     * @return true if updated
+     * @throws ZoneRulesException if the data is already loaded for the version
+     */
+    private boolean register(Iterable<Version> loadedVersions) {
         boolean updated = false;
-        Iterable<Version> loadedVersions = loadData(in);
         for (Version loadedVersion : loadedVersions) {
             // see https://github.com/ThreeTen/threetenbp/pull/28 for issue wrt
             // multiple versions of lib on classpath
@@ -225,13 +297,18 @@ public final class TzdbZoneRulesProvider extends ZoneRulesProvider {
 
     /**
      * Loads the rules from an input stream.
+     * <p>
+     * Both version 1 and version 2 of the file format can be read.
+     * If the stream reads from a mapped buffer, the rules are left in the buffer
+     * and only their location is recorded, otherwise they are copied to the heap.
      *
-     * @param in  the stream to load, not null, not closed after use
+     * @param dis  the stream to load, not null, not closed after use
+     * @param mapped  the buffer the stream reads from, null if not mapped
      * @throws Exception if an error occurs
      */
-    private Iterable<Version> loadData(InputStream in) throws IOException, StreamCorruptedException {
-        DataInputStream dis = new DataInputStream(in);
-        if (dis.readByte() != 1) {
+    private Iterable<Version> loadData(DataInputStream dis, ByteBuffer mapped) throws IOException, StreamCorruptedException {
+        int format = dis.readByte();
+        if (format != 1 && format != 2) {
             throw new StreamCorruptedException("File format not recognised");
         }
         // group
@@ -253,12 +330,50 @@ public final class TzdbZoneRulesProvider extends ZoneRulesProvider {
         }
         regionIds = Arrays.asList(regionArray);
         // rules
-        int ruleCount = dis.readShort();
-        Object[] ruleArray = new Object[ruleCount];
-        for (int i = 0; i < ruleCount; i++) {
-            byte[] bytes = new byte[dis.readShort()];
-            dis.readFully(bytes);
-            ruleArray[i] = bytes;
+        ZoneOffset[] offsets = null;
+        Object[] ruleArray;
+        int[] rulePositions = null;
+        ByteBuffer buffer = mapped;
+        if (format == 1) {
+            int ruleCount = dis.readShort();
+            ruleArray = new Object[ruleCount];
+            rulePositions = (mapped != null ? new int[ruleCount] : null);
+            for (int i = 0; i < ruleCount; i++) {
+                int length = dis.readShort();
+                if (mapped != null) {
+                    rulePositions[i] = mapped.position();
+                    mapped.position(mapped.position() + length);
+                } else {
+                    byte[] bytes = new byte[length];
+                    dis.readFully(bytes);
+                    ruleArray[i] = bytes;
+                }
+            }
+        } else {
+            int offsetCount = dis.readShort();
+            offsets = new ZoneOffset[offsetCount];
+            for (int i = 0; i < offsetCount; i++) {
+                offsets[i] = Ser.readOffset(dis);
+            }
+            int ruleCount = dis.readShort();
+            ruleArray = new Object[ruleCount];
+            rulePositions = new int[ruleCount];
+            for (int i = 0; i < ruleCount; i++) {
+                rulePositions[i] = dis.readInt();
+            }
+            int length = dis.readInt();
+            if (mapped != null) {
+                int base = mapped.position();
+                for (int i = 0; i < ruleCount; i++) {
+                    rulePositions[i] += base;
+                }
+                mapped.position(base + length);
+            } else {
+                // a single array, decoded in place when each region is first used
+                byte[] bytes = new byte[length];
+                dis.readFully(bytes);
+                buffer = ByteBuffer.wrap(bytes);
+            }
         }
         AtomicReferenceArray<Object> ruleData = new AtomicReferenceArray<Object>(ruleArray);
         // link version-region-rules
@@ -271,11 +386,20 @@ public final class TzdbZoneRulesProvider extends ZoneRulesProvider {
                 versionRegionArray[j] = regionArray[dis.readShort()];
                 versionRulesArray[j] = dis.readShort();
             }
-            versionSet.add(new Version(versionArray[i], versionRegionArray, versionRulesArray, ruleData));
+            versionSet.add(new Version(versionArray[i], versionRegionArray, versionRulesArray, ruleData, buffer, rulePositions, offsets));
         }
         return versionSet;
     }
 
+    /**
+     * Gets the identifiers of the versions that have been loaded.
+     *
+     * @return the version identifiers, sorted from oldest to newest, not null
+     */
+    Set<String> getVersionIds() {
+        return versions.keySet();
+    }
+
     @Override
     public String toString() {
         return "TZDB";
@@ -284,18 +408,39 @@ public final class TzdbZoneRulesProvider extends ZoneRulesProvider {
     //-----------------------------------------------------------------------
     /**
      * A version of the TZDB rules.
+     * <p>
+     * Each element of the rule data is either the decoded rules, the bytes to decode,
+     * or null if the rules are to be decoded from the buffer.
+     * The offset dictionary is only present for version 2 of the file format.
      */
     static class Version {
+        /**
+         * The locks guarding decoding, striped by rules index.
+         */
+        private static final Object[] DECODE_LOCKS = new Object[16];
+        static {
+            for (int i = 0; i < DECODE_LOCKS.length; i++) {
+                DECODE_LOCKS[i] = new Object();
+            }
+        }
+
         private final String versionId;
         private final String[] regionArray;
         private final short[] ruleIndices;
         private final AtomicReferenceArray<Object> ruleData;
+        private final ByteBuffer buffer;
+        private final int[] rulePositions;
+        private final ZoneOffset[] offsets;
 
-        Version(String versionId, String[] regionIds, short[] ruleIndices, AtomicReferenceArray<Object> ruleData) {
+        Version(String versionId, String[] regionIds, short[] ruleIndices, AtomicReferenceArray<Object> ruleData,
+                ByteBuffer buffer, int[] rulePositions, ZoneOffset[] offsets) {
             this.ruleData = ruleData;
             this.versionId = versionId;
             this.regionArray = regionIds;
             this.ruleIndices = ruleIndices;
+            this.buffer = buffer;
+            this.rulePositions = rulePositions;
+            this.offsets = offsets;
         }
 
         ZoneRules getRules(String regionId) {
@@ -312,13 +457,26 @@ public final class TzdbZoneRulesProvider extends ZoneRulesProvider {
 
         ZoneRules createRule(short index) throws Exception {
             Object obj = ruleData.get(index);
-            if (obj instanceof byte[]) {
-                byte[] bytes = (byte[]) obj;
-                DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
-                obj = Ser.read(dis);
-                ruleData.set(index, obj);
+            if (obj instanceof ZoneRules) {
+                return (ZoneRules) obj;
+            }
+            // decode each set of rules at most once, even under contention
+            synchronized (DECODE_LOCKS[index & (DECODE_LOCKS.length - 1)]) {
+                obj = ruleData.get(index);
+                if (obj instanceof byte[]) {
+                    byte[] bytes = (byte[]) obj;
+                    DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes));
+                    obj = ZoneRulesInterner.intern((ZoneRules) Ser.read(dis));
+                    ruleData.set(index, obj);
+                } else if (obj == null) {
+                    ByteBuffer bytes = buffer.duplicate();
+                    bytes.position(rulePositions[index]);
+                    DataInputStream dis = new DataInputStream(new ByteBufferInputStream(bytes));
+                    obj = ZoneRulesInterner.intern(offsets != null ? StandardZoneRules.readCompact(dis, offsets) : (ZoneRules) Ser.read(dis));
+                    ruleData.set(index, obj);
+                }
+                return (ZoneRules) obj;
             }
-            return (ZoneRules) obj;
         }
 
         @Override
@@ -327,4 +485,46 @@ public final class TzdbZoneRulesProvider extends ZoneRulesProvider {
         }
     }
 
+    //-----------------------------------------------------------------------
+    /**
+     * An input stream reading from a buffer, advancing its position.
+     */
+    static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (buffer.hasRemaining() == false) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(Math.min(n, buffer.remaining()), 0);
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
 }
@@ -0,0 +1,612 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.io.StreamCorruptedException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.threeten.bp.DayOfWeek;
+import org.threeten.bp.Instant;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalTime;
+import org.threeten.bp.Month;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.jdk8.Jdk8Methods;
+import org.threeten.bp.zone.ZoneOffsetTransitionRule.TimeDefinition;
+
+/**
+ * Loads time-zone rules from a directory of compiled TZif files.
+ * <p>
+ * Many operating systems, including Linux, provide the time-zone database as a
+ * directory of TZif files, one for each region, such as {@code /usr/share/zoneinfo}.
+ * These are frequently updated by the operating system, often before a release
+ * containing a new {@code TZDB.dat} is available.
+ * <p>
+ * At startup, the region identifiers and version are read from the {@code tzdata.zi}
+ * file in the directory if present, otherwise from the names of the files in the directory.
+ * No TZif file is read at startup. The file for a region is memory-mapped and
+ * converted to rules when first used, with the yearly rules for future transitions
+ * read from the POSIX TZ string at the end of the file.
+ * Leap second data in the files is ignored.
+ * <p>
+ * As the region identifiers are the same as those of {@link TzdbZoneRulesProvider},
+ * this is normally registered in its place using {@link ZoneRulesInitializer}.
+ *
+ * <h3>Specification for implementors</h3>
+ * This class is immutable and thread-safe.
+ */
+public final class TzifZoneRulesProvider extends ZoneRulesProvider {
+
+    /**
+     * The default directory.
+     */
+    private static final String DEFAULT_DIRECTORY = "/usr/share/zoneinfo";
+    /**
+     * The version used when the directory does not specify one.
+     */
+    private static final String UNKNOWN_VERSION = "UNKNOWN";
+    /**
+     * The file names that are not regions.
+     */
+    private static final Set<String> EXCLUDED_NAMES = new HashSet<String>(Arrays.asList(
+            "posix", "right", "localtime", "posixrules", "leapseconds", "SECURITY", "+VERSION"));
+    /**
+     * The region identifiers that are handled by {@code ZoneId} directly, as per the TZDB compiler.
+     */
+    private static final Set<String> EXCLUDED_IDS = new HashSet<String>(Arrays.asList(
+            "UTC", "GMT", "GMT0", "GMT+0", "GMT-0"));
+    /**
+     * The magic number at the start of a TZif file, 'TZif'.
+     */
+    private static final int MAGIC = 0x545A6966;
+    /**
+     * The earliest transition that can be represented, earlier transitions define the initial offset.
+     */
+    private static final long MIN_TRANSITION = Instant.MIN.getEpochSecond() + 86400;
+
+    /**
+     * The directory.
+     */
+    private final File directory;
+    /**
+     * The version.
+     */
+    private final String versionId;
+    /**
+     * All the regions that are available.
+     */
+    private final Set<String> regionIds;
+    /**
+     * The rules that have been loaded, keyed by region identifier.
+     */
+    private final ConcurrentMap<String, ZoneRules> loadedRules = new ConcurrentHashMap<String, ZoneRules>();
+
+    /**
+     * Creates an instance reading from {@code /usr/share/zoneinfo}.
+     *
+     * @throws ZoneRulesException if unable to load
+     */
+    public TzifZoneRulesProvider() {
+        this(new File(DEFAULT_DIRECTORY));
+    }
+
+    /**
+     * Creates an instance reading from the specified directory.
+     * <p>
+     * The files must not be modified while the provider is in use.
+     *
+     * @param directory  the directory containing the TZif files, not null
+     * @throws ZoneRulesException if unable to load
+     */
+    public TzifZoneRulesProvider(File directory) {
+        super();
+        Jdk8Methods.requireNonNull(directory, "directory");
+        if (directory.isDirectory() == false) {
+            throw new ZoneRulesException("No TZif time-zone rules directory found: " + directory);
+        }
+        this.directory = directory;
+        Set<String> ids = new TreeSet<String>();
+        String version;
+        try {
+            File index = new File(directory, "tzdata.zi");
+            if (index.isFile()) {
+                version = loadIndex(index, ids);
+            } else {
+                version = null;
+                loadNames(directory, "", ids);
+            }
+        } catch (IOException ex) {
+            throw new ZoneRulesException("Unable to load TZif time-zone rules: " + directory, ex);
+        }
+        ids.removeAll(EXCLUDED_IDS);
+        if (ids.isEmpty()) {
+            throw new ZoneRulesException("No TZif time-zone rules found: " + directory);
+        }
+        this.versionId = (version != null ? version : UNKNOWN_VERSION);
+        this.regionIds = Collections.unmodifiableSet(ids);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Set<String> provideZoneIds() {
+        return new HashSet<String>(regionIds);
+    }
+
+    @Override
+    protected ZoneRules provideRules(String zoneId, boolean forCaching) {
+        Jdk8Methods.requireNonNull(zoneId, "zoneId");
+        ZoneRules rules = loadedRules.get(zoneId);
+        if (rules == null) {
+            if (regionIds.contains(zoneId) == false) {
+                throw new ZoneRulesException("Unknown time-zone ID: " + zoneId);
+            }
+            File file = new File(directory, zoneId);
+            try {
+                rules = ZoneRulesInterner.intern(readRules(map(file)));
+            } catch (Exception ex) {
+                throw new ZoneRulesException("Unable to load TZif time-zone rules: " + file, ex);
+            }
+            ZoneRules existing = loadedRules.putIfAbsent(zoneId, rules);
+            rules = (existing != null ? existing : rules);
+        }
+        return rules;
+    }
+
+    @Override
+    protected NavigableMap<String, ZoneRules> provideVersions(String zoneId) {
+        TreeMap<String, ZoneRules> map = new TreeMap<String, ZoneRules>();
+        if (regionIds.contains(zoneId)) {
+            map.put(versionId, provideRules(zoneId, false));
+        }
+        return map;
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Loads the region identifiers and version from the {@code tzdata.zi} file.
+     *
+     * @param file  the file, not null
+     * @param ids  the set to add the identifiers to, not null
+     * @return the version, null if not found
+     * @throws IOException if an IO error occurs
+     */
+    private static String loadIndex(File file, Set<String> ids) throws IOException {
+        String version = null;
+        BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), "US-ASCII"));
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("# version ")) {
+                    version = line.substring(10).trim();
+                } else if (line.startsWith("Z ") || line.startsWith("L ")) {
+                    // zone is 'Z name ...', link is 'L target name'
+                    String[] parts = line.split("\\s+");
+                    int nameIndex = (line.charAt(0) == 'Z' ? 1 : 2);
+                    if (parts.length > nameIndex) {
+                        ids.add(parts[nameIndex]);
+                    }
+                }
+            }
+        } finally {
+            in.close();
+        }
+        return version;
+    }
+
+    /**
+     * Loads the region identifiers from the names of the files, without reading the files.
+     *
+     * @param dir  the directory to list, not null
+     * @param prefix  the prefix of identifiers in the directory, not null
+     * @param ids  the set to add the identifiers to, not null
+     */
+    private static void loadNames(File dir, String prefix, Set<String> ids) {
+        String[] names = dir.list();
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            if (name.indexOf('.') >= 0 || (prefix.length() == 0 && EXCLUDED_NAMES.contains(name))) {
+                continue;
+            }
+            File file = new File(dir, name);
+            if (file.isDirectory()) {
+                loadNames(file, prefix + name + '/', ids);
+            } else {
+                ids.add(prefix + name);
+            }
+        }
+    }
+
+    /**
+     * Memory-maps a file.
+     *
+     * @param file  the file to map, not null
+     * @return the mapped buffer, not null
+     * @throws IOException if an IO error occurs
+     */
+    private static ByteBuffer map(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            // the mapping remains valid after the channel is closed
+            FileChannel channel = raf.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            raf.close();
+        }
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Reads the rules from a TZif file.
+     * <p>
+     * The version 2 and later data is used if present, otherwise the version 1 data.
+     *
+     * @param buffer  the buffer containing the file, not null
+     * @return the rules, not null
+     * @throws StreamCorruptedException if the file is invalid
+     */
+    static ZoneRules readRules(ByteBuffer buffer) throws StreamCorruptedException {
+        try {
+            ByteBuffer buf = buffer.duplicate();
+            int version = readHeader(buf);
+            int[] counts = readCounts(buf);
+            if (version >= '2') {
+                // skip version 1 data and header
+                buf.position(buf.position() + dataLength(counts, 4));
+                readHeader(buf);
+                counts = readCounts(buf);
+            }
+            return readData(buf, counts, version >= '2' ? 8 : 4);
+        } catch (BufferUnderflowException ex) {
+            throw new StreamCorruptedException("Truncated TZif file");
+        } catch (IllegalArgumentException ex) {
+            throw new StreamCorruptedException("Invalid TZif file: " + ex.getMessage());
+        }
+    }
+
+    private static int readHeader(ByteBuffer buf) throws StreamCorruptedException {
+        if (buf.getInt() != MAGIC) {
+            throw new StreamCorruptedException("File format not recognised");
+        }
+        int version = buf.get() & 0xFF;
+        buf.position(buf.position() + 15);
+        return version;
+    }
+
+    // isutcnt, isstdcnt, leapcnt, timecnt, typecnt, charcnt
+    private static int[] readCounts(ByteBuffer buf) throws StreamCorruptedException {
+        int[] counts = new int[6];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = buf.getInt();
+            if (counts[i] < 0) {
+                throw new StreamCorruptedException("Invalid TZif count");
+            }
+        }
+        if (counts[4] == 0) {
+            throw new StreamCorruptedException("TZif file has no local time types");
+        }
+        return counts;
+    }
+
+    private static int dataLength(int[] counts, int timeSize) {
+        return counts[3] * timeSize + counts[3] + counts[4] * 6 + counts[5] + counts[2] * (timeSize + 4) + counts[1] + counts[0];
+    }
+
+    private static ZoneRules readData(ByteBuffer buf, int[] counts, int timeSize) throws StreamCorruptedException {
+        int timeCount = counts[3];
+        int typeCount = counts[4];
+        long[] times = new long[timeCount];
+        for (int i = 0; i < timeCount; i++) {
+            times[i] = (timeSize == 8 ? buf.getLong() : buf.getInt());
+        }
+        int[] typeIndices = new int[timeCount];
+        for (int i = 0; i < timeCount; i++) {
+            typeIndices[i] = buf.get() & 0xFF;
+            if (typeIndices[i] >= typeCount) {
+                throw new StreamCorruptedException("Invalid TZif local time type index");
+            }
+        }
+        int[] utOffsets = new int[typeCount];
+        boolean[] dst = new boolean[typeCount];
+        for (int i = 0; i < typeCount; i++) {
+            utOffsets[i] = buf.getInt();
+            dst[i] = buf.get() != 0;
+            buf.get();  // designation index
+        }
+        buf.position(buf.position() + counts[5] + counts[2] * (timeSize + 4) + counts[1] + counts[0]);
+        List<ZoneOffsetTransitionRule> lastRules = Collections.emptyList();
+        if (timeSize == 8 && buf.remaining() > 0) {
+            lastRules = parsePosixRules(readFooter(buf));
+        }
+        return createRules(times, typeIndices, utOffsets, dst, lastRules);
+    }
+
+    private static String readFooter(ByteBuffer buf) throws StreamCorruptedException {
+        if (buf.get() != '\n') {
+            throw new StreamCorruptedException("Invalid TZif footer");
+        }
+        StringBuilder footer = new StringBuilder();
+        char ch;
+        while ((ch = (char) buf.get()) != '\n') {
+            footer.append(ch);
+        }
+        return footer.toString();
+    }
+
+    /**
+     * Creates the rules from the TZif data.
+     * <p>
+     * The standard offset is the offset of the most recent local time type
+     * that is not daylight saving time.
+     *
+     * @param times  the transition times, not null
+     * @param typeIndices  the local time type after each transition, not null
+     * @param utOffsets  the offset of each local time type, not null
+     * @param dst  whether each local time type is daylight saving time, not null
+     * @param lastRules  the rules after the last transition, not null
+     * @return the rules, not null
+     */
+    private static ZoneRules createRules(
+            long[] times, int[] typeIndices, int[] utOffsets, boolean[] dst, List<ZoneOffsetTransitionRule> lastRules) {
+        // local time type zero applies before the first transition
+        int wall = utOffsets[0];
+        int standard = wall;
+        if (dst[0]) {
+            for (int i = 0; i < dst.length; i++) {
+                if (dst[i] == false) {
+                    standard = utOffsets[i];
+                    break;
+                }
+            }
+        }
+        ZoneOffset baseWall = ZoneOffset.ofTotalSeconds(wall);
+        ZoneOffset baseStandard = ZoneOffset.ofTotalSeconds(standard);
+        List<ZoneOffsetTransition> standardTransitions = new ArrayList<ZoneOffsetTransition>();
+        List<ZoneOffsetTransition> transitions = new ArrayList<ZoneOffsetTransition>();
+        for (int i = 0; i < times.length; i++) {
+            int type = typeIndices[i];
+            int newWall = utOffsets[type];
+            int newStandard = (dst[type] ? standard : newWall);
+            if (times[i] < MIN_TRANSITION) {
+                // a transition at the big bang, defining the initial offset
+                baseWall = ZoneOffset.ofTotalSeconds(newWall);
+                baseStandard = ZoneOffset.ofTotalSeconds(newStandard);
+            } else {
+                if (newStandard != standard) {
+                    standardTransitions.add(new ZoneOffsetTransition(
+                            times[i], ZoneOffset.ofTotalSeconds(standard), ZoneOffset.ofTotalSeconds(newStandard)));
+                }
+                if (newWall != wall) {
+                    transitions.add(new ZoneOffsetTransition(
+                            times[i], ZoneOffset.ofTotalSeconds(wall), ZoneOffset.ofTotalSeconds(newWall)));
+                }
+            }
+            wall = newWall;
+            standard = newStandard;
+        }
+        return new StandardZoneRules(baseStandard, baseWall, standardTransitions, transitions, lastRules);
+    }
+
+    //-------------------------------------------------------------------------
+    /**
+     * Parses the rules from a POSIX TZ string, such as {@code GMT0BST,M3.5.0/1,M10.5.0}.
+     * <p>
+     * The month-week-day and Julian day without leap day forms of rule are supported.
+     * The zero-based Julian day form, which is not used by the TZif files, is rejected.
+     *
+     * @param tz  the POSIX TZ string, not null
+     * @return the rules in order within the year, empty if no daylight saving time, not null
+     * @throws StreamCorruptedException if the string is invalid or unsupported
+     */
+    static List<ZoneOffsetTransitionRule> parsePosixRules(String tz) throws StreamCorruptedException {
+        PosixParser parser = new PosixParser(tz);
+        if (parser.atEnd()) {
+            return Collections.emptyList();
+        }
+        parser.parseName();
+        ZoneOffset standard = ZoneOffset.ofTotalSeconds(-parser.parseSeconds());
+        if (parser.atEnd()) {
+            return Collections.emptyList();
+        }
+        parser.parseName();
+        ZoneOffset daylight;
+        if (parser.atEnd() || parser.peek() == ',') {
+            daylight = ZoneOffset.ofTotalSeconds(standard.getTotalSeconds() + 3600);
+        } else {
+            daylight = ZoneOffset.ofTotalSeconds(-parser.parseSeconds());
+        }
+        parser.expect(',');
+        ZoneOffsetTransitionRule start = parser.parseRule(standard, standard, daylight);
+        parser.expect(',');
+        ZoneOffsetTransitionRule end = parser.parseRule(standard, daylight, standard);
+        if (parser.atEnd() == false) {
+            throw parser.invalid();
+        }
+        List<ZoneOffsetTransitionRule> rules = Arrays.asList(start, end);
+        Collections.sort(rules, new Comparator<ZoneOffsetTransitionRule>() {
+            @Override
+            public int compare(ZoneOffsetTransitionRule rule1, ZoneOffsetTransitionRule rule2) {
+                long epochSec1 = rule1.createTransitionEpochSecond(2001);
+                long epochSec2 = rule2.createTransitionEpochSecond(2001);
+                return (epochSec1 < epochSec2 ? -1 : (epochSec1 > epochSec2 ? 1 : 0));
+            }
+        });
+        return rules;
+    }
+
+    /**
+     * Parser for POSIX TZ strings.
+     */
+    private static final class PosixParser {
+        private final String str;
+        private int pos;
+
+        PosixParser(String str) {
+            this.str = str;
+        }
+
+        boolean atEnd() {
+            return pos >= str.length();
+        }
+
+        char peek() {
+            return str.charAt(pos);
+        }
+
+        void expect(char ch) throws StreamCorruptedException {
+            if (atEnd() || str.charAt(pos) != ch) {
+                throw invalid();
+            }
+            pos++;
+        }
+
+        StreamCorruptedException invalid() {
+            return new StreamCorruptedException("Invalid POSIX TZ string: " + str);
+        }
+
+        // a name is alphabetic, or any characters within angle brackets
+        void parseName() throws StreamCorruptedException {
+            int start = pos;
+            if (atEnd() == false && peek() == '<') {
+                int end = str.indexOf('>', pos);
+                if (end < 0) {
+                    throw invalid();
+                }
+                pos = end + 1;
+            } else {
+                while (atEnd() == false && Character.isLetter(peek())) {
+                    pos++;
+                }
+            }
+            if (pos - start < 3) {
+                throw invalid();
+            }
+        }
+
+        // [+-]hh[:mm[:ss]]
+        int parseSeconds() throws StreamCorruptedException {
+            int sign = 1;
+            if (atEnd() == false && (peek() == '+' || peek() == '-')) {
+                sign = (peek() == '-' ? -1 : 1);
+                pos++;
+            }
+            int secs = parseNumber(0, 167) * 3600;
+            if (atEnd() == false && peek() == ':') {
+                pos++;
+                secs += parseNumber(0, 59) * 60;
+                if (atEnd() == false && peek() == ':') {
+                    pos++;
+                    secs += parseNumber(0, 59);
+                }
+            }
+            return sign * secs;
+        }
+
+        int parseNumber(int min, int max) throws StreamCorruptedException {
+            int start = pos;
+            while (atEnd() == false && peek() >= '0' && peek() <= '9' && pos - start < 3) {
+                pos++;
+            }
+            if (pos == start) {
+                throw invalid();
+            }
+            int value = Integer.parseInt(str.substring(start, pos));
+            if (value < min || value > max) {
+                throw invalid();
+            }
+            return value;
+        }
+
+        // Mm.w.d or Jn, followed by an optional /time
+        ZoneOffsetTransitionRule parseRule(
+                ZoneOffset standard, ZoneOffset before, ZoneOffset after) throws StreamCorruptedException {
+            Month month;
+            int dayOfMonthIndicator;
+            DayOfWeek dayOfWeek;
+            if (atEnd() == false && peek() == 'M') {
+                pos++;
+                month = Month.of(parseNumber(1, 12));
+                expect('.');
+                int week = parseNumber(1, 5);
+                expect('.');
+                int day = parseNumber(0, 6);
+                dayOfMonthIndicator = (week == 5 ? -1 : (week - 1) * 7 + 1);
+                dayOfWeek = DayOfWeek.of(day == 0 ? 7 : day);
+            } else if (atEnd() == false && peek() == 'J') {
+                pos++;
+                LocalDate date = LocalDate.ofYearDay(2001, parseNumber(1, 365));
+                month = date.getMonth();
+                dayOfMonthIndicator = date.getDayOfMonth();
+                dayOfWeek = null;
+            } else {
+                throw invalid();
+            }
+            int secs = 7200;
+            if (atEnd() == false && peek() == '/') {
+                pos++;
+                secs = parseSeconds();
+            }
+            LocalTime time = LocalTime.ofSecondOfDay(Jdk8Methods.floorMod(secs, 86400));
+            int adjustDays = Jdk8Methods.floorDiv(secs, 86400);
+            return new ZoneOffsetTransitionRule(
+                    month, dayOfMonthIndicator, dayOfWeek, time, adjustDays, TimeDefinition.WALL, standard, before, after);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+        return "TZif[" + directory + ", " + versionId + "]";
+    }
+
+}
@@ -70,6 +70,10 @@ public final class ZoneOffsetTransitionRule implements Serializable {
      * Serialization version.
      */
     private static final long serialVersionUID = 6889046316657758795L;
+    /**
+     * The number of days from year zero to year 1970, shared with {@code StandardZoneRules}.
+     */
+    static final long DAYS_0000_TO_1970 = (146097L * 5L) - (30L * 365L + 7L);
     /**
      * The number of seconds per day.
      */
@@ -425,6 +429,67 @@ public final class ZoneOffsetTransitionRule implements Serializable {
         return new ZoneOffsetTransition(transition, offsetBefore, offsetAfter);
     }
 
+    /**
+     * Calculates the epoch-second of the transition for the specified year.
+     * <p>
+     * This is equivalent to {@code createTransition(year).toEpochSecond()},
+     * but calculates directly from the fields without creating any objects.
+     *
+     * @param year  the year to calculate the transition for, within the supported range
+     * @return the epoch-second of the transition
+     */
+    long createTransitionEpochSecond(int year) {
+        int monthValue = month.getValue();
+        boolean leapYear = IsoChronology.INSTANCE.isLeapYear(year);
+        int dayOfMonth = (dom < 0 ? month.length(leapYear) + 1 + dom : dom);
+        // month and day part of LocalDate.toEpochDay()
+        long epochDay = yearStartEpochDay(year);
+        epochDay += (367 * monthValue - 362) / 12;
+        epochDay += dayOfMonth - 1;
+        if (monthValue > 2) {
+            epochDay--;
+            if (leapYear == false) {
+                epochDay--;
+            }
+        }
+        if (dow != null) {
+            int dowValue = Jdk8Methods.floorMod(epochDay + 3, 7) + 1;  // 1970-01-01 is a Thursday
+            if (dom < 0) {
+                epochDay -= Jdk8Methods.floorMod(dowValue - dow.getValue(), 7);  // previous or same
+            } else {
+                epochDay += Jdk8Methods.floorMod(dow.getValue() - dowValue, 7);  // next or same
+            }
+        }
+        long localSecond = (epochDay + adjustDays) * SECS_PER_DAY + time.toSecondOfDay();
+        switch (timeDefinition) {
+            case UTC:
+                return localSecond;
+            case STANDARD:
+                return localSecond - standardOffset.getTotalSeconds();
+            default:  // WALL
+                return localSecond - offsetBefore.getTotalSeconds();
+        }
+    }
+
+    /**
+     * Calculates the epoch-day of the first day of the specified year.
+     * <p>
+     * This is the year part of {@code LocalDate.toEpochDay()}, without creating any objects.
+     *
+     * @param year  the year, within the supported range
+     * @return the epoch-day of January 1st
+     */
+    static long yearStartEpochDay(int year) {
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Checks if this object equals another.
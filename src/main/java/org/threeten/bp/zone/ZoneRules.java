@@ -32,7 +32,9 @@
 package org.threeten.bp.zone;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import org.threeten.bp.Duration;
@@ -110,6 +112,15 @@ public abstract class ZoneRules {
     ZoneRules() {
     }
 
+    /**
+     * Gets the rules that this instance delegates to, used by {@code equals}.
+     *
+     * @return the underlying rules, not null
+     */
+    ZoneRules underlyingRules() {
+        return this;
+    }
+
     //-----------------------------------------------------------------------
     /**
      * Checks of the zone rules are fixed, such that the offset never varies.
@@ -118,6 +129,46 @@ public abstract class ZoneRules {
      */
     public abstract boolean isFixedOffset();
 
+    /**
+     * Gets the epoch-second from which the offset no longer varies.
+     * <p>
+     * Many time-zones have stopped observing daylight saving time, such that the
+     * offset has not changed since the last historic transition.
+     * Such rules behave as a fixed offset for all instants from the epoch-second
+     * returned by this method onwards, and for local date-times from the end of
+     * that transition onwards.
+     * <p>
+     * This is a precomputed value intended to allow fast path decisions.
+     * Only the actual offset is considered, the standard offset may still vary.
+     *
+     * @return the epoch-second from which the offset is fixed,
+     *  {@code Long.MIN_VALUE} if the offset never varies,
+     *  {@code Long.MAX_VALUE} if the offset continues to vary indefinitely
+     */
+    public abstract long getFixedOffsetEpochSecond();
+
+    /**
+     * Gets the smallest offset that is ever in force in these rules.
+     * <p>
+     * This considers the actual offset at all instants, including those
+     * created by the {@linkplain #getTransitionRules() transition rules}.
+     * This is a precomputed value intended to allow fast path decisions.
+     *
+     * @return the minimum offset, not null
+     */
+    public abstract ZoneOffset getMinimumOffset();
+
+    /**
+     * Gets the largest offset that is ever in force in these rules.
+     * <p>
+     * This considers the actual offset at all instants, including those
+     * created by the {@linkplain #getTransitionRules() transition rules}.
+     * This is a precomputed value intended to allow fast path decisions.
+     *
+     * @return the maximum offset, not null
+     */
+    public abstract ZoneOffset getMaximumOffset();
+
     //-----------------------------------------------------------------------
     /**
      * Gets the offset applicable at the specified instant in these rules.
@@ -132,6 +183,45 @@ public abstract class ZoneRules {
      */
     public abstract ZoneOffset getOffset(Instant instant);
 
+    /**
+     * Gets the offset applicable at the specified epoch-second in these rules.
+     * <p>
+     * This is equivalent to {@code getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds()}
+     * but avoids creating objects, which suits code handling large volumes of primitive values.
+     *
+     * @param epochSecond  the epoch-second to find the offset for, from 1970-01-01T00:00:00Z
+     * @return the total offset in seconds
+     */
+    public abstract int getOffsetSeconds(long epochSecond);
+
+    /**
+     * Gets the offsets applicable at each of the specified epoch-seconds in these rules.
+     * <p>
+     * This is equivalent to calling {@link #getOffsetSeconds(long)} for each element,
+     * storing the result at the same index in the offsets array.
+     * It is optimized for large arrays where adjacent values are close to one another,
+     * such as a sorted column of timestamps, as the work to find the offset is only
+     * repeated when a value falls outside the range between the transitions
+     * either side of the previous value.
+     *
+     * @param epochSeconds  the epoch-seconds to find the offsets for, not null
+     * @param offsetSeconds  the array to fill with the total offsets in seconds, not null
+     * @throws IllegalArgumentException if the arrays are of different lengths
+     */
+    public abstract void getOffsetSeconds(long[] epochSeconds, int[] offsetSeconds);
+
+    /**
+     * Converts each of the specified epoch-seconds to a local epoch-second in place.
+     * <p>
+     * Each element has the offset applicable at that epoch-second added to it,
+     * resulting in the number of seconds of the local date-time from 1970-01-01T00:00:00.
+     * As with {@link #getOffsetSeconds(long[], int[])}, this is optimized for
+     * arrays where adjacent values are close to one another.
+     *
+     * @param epochSeconds  the epoch-seconds to convert, updated in place, not null
+     */
+    public abstract void toLocalEpochSeconds(long[] epochSeconds);
+
     /**
      * Gets a suitable offset for the specified local date-time in these rules.
      * <p>
@@ -206,6 +296,18 @@ public abstract class ZoneRules {
      */
     public abstract List<ZoneOffset> getValidOffsets(LocalDateTime localDateTime);
 
+    /**
+     * Gets the number of valid offsets for the specified local date-time in these zone rules.
+     * <p>
+     * This is equivalent to {@code getValidOffsets(localDateTime).size()} but avoids
+     * creating the list. The result is zero in a gap, two in an overlap and one otherwise.
+     *
+     * @param localDateTime  the local date-time to query for valid offsets, not null, but null
+     *  may be ignored if the rules have a single offset for all instants
+     * @return the number of valid offsets, from 0 to 2
+     */
+    public abstract int getValidOffsetCount(LocalDateTime localDateTime);
+
     /**
      * Gets the offset transition applicable at the specified local date-time in these rules.
      * <p>
@@ -242,6 +344,25 @@ public abstract class ZoneRules {
      */
     public abstract ZoneOffsetTransition getTransition(LocalDateTime localDateTime);
 
+    /**
+     * Gets the offset to use for the specified local epoch-second in these rules.
+     * <p>
+     * The local epoch-second is the number of seconds of the local date-time from
+     * 1970-01-01T00:00:00, as returned by {@code localDateTime.toEpochSecond(ZoneOffset.UTC)}.
+     * The offset is chosen in the same way as {@link org.threeten.bp.ZonedDateTime#ofLocal}.
+     * In the Normal case, the single valid offset is returned.
+     * In an Overlap, the preferred offset is returned if it is valid, otherwise the earlier offset.
+     * In a Gap, the offset after the transition is returned, which is the offset
+     * {@code ZonedDateTime} uses once it has moved the local date-time out of the gap.
+     * <p>
+     * This method avoids creating objects, which suits code handling large volumes of primitive values.
+     *
+     * @param localEpochSecond  the local epoch-second to query
+     * @param preferredOffset  the preferred total offset in seconds, used in an Overlap
+     * @return the total offset in seconds
+     */
+    public abstract int getOffsetSeconds(long localEpochSecond, int preferredOffset);
+
     //-----------------------------------------------------------------------
     /**
      * Gets the standard offset for the specified instant in this zone.
@@ -277,6 +398,18 @@ public abstract class ZoneRules {
     //        return actualOffset.toDuration().minus(standardOffset.toDuration()).normalized();
     //    }
 
+    /**
+     * Gets the amount of daylight savings in seconds for the specified epoch-second in this zone.
+     * <p>
+     * This is the primitive equivalent of {@link #getDaylightSavings(Instant)}.
+     * The standard and actual offsets are found together, which is faster than
+     * finding them separately.
+     *
+     * @param epochSecond  the epoch-second to find the daylight savings for, from 1970-01-01T00:00:00Z
+     * @return the difference between the standard and actual offset in seconds
+     */
+    public abstract int getDaylightSavingsSeconds(long epochSecond);
+
     /**
      * Checks if the specified instant is in daylight savings.
      * <p>
@@ -334,6 +467,24 @@ public abstract class ZoneRules {
      */
     public abstract ZoneOffsetTransition previousTransition(Instant instant);
 
+    /**
+     * Iterates over the transitions between two instants.
+     * <p>
+     * This returns the transitions at or after the start instant and before the end instant,
+     * in order, being the same transitions that repeated calls to {@link #nextTransition(Instant)}
+     * would find. Transitions are produced as the iterator advances, including those defined by
+     * the {@linkplain #getTransitionRules() transition rules}, thus a large window can be
+     * iterated without creating the complete list of transitions.
+     * <p>
+     * The iterator will be empty if the end is not after the start.
+     * The iterator does not support removal.
+     *
+     * @param startInclusive  the start instant, inclusive, not null
+     * @param endExclusive  the end instant, exclusive, not null
+     * @return an iterator over the transitions in the window, not null
+     */
+    public abstract Iterator<ZoneOffsetTransition> transitionIterator(Instant startInclusive, Instant endExclusive);
+
     /**
      * Gets the complete list of fully defined transitions.
      * <p>
@@ -420,11 +571,50 @@ public abstract class ZoneRules {
             return true;
         }
 
+        @Override
+        public long getFixedOffsetEpochSecond() {
+            return Long.MIN_VALUE;
+        }
+
+        @Override
+        public ZoneOffset getMinimumOffset() {
+            return offset;
+        }
+
+        @Override
+        public ZoneOffset getMaximumOffset() {
+            return offset;
+        }
+
         @Override
         public ZoneOffset getOffset(Instant instant) {
             return offset;
         }
 
+        @Override
+        public int getOffsetSeconds(long epochSecond) {
+            return offset.getTotalSeconds();
+        }
+
+        @Override
+        public void getOffsetSeconds(long[] epochSeconds, int[] offsetSeconds) {
+            Jdk8Methods.requireNonNull(epochSeconds, "epochSeconds");
+            Jdk8Methods.requireNonNull(offsetSeconds, "offsetSeconds");
+            if (epochSeconds.length != offsetSeconds.length) {
+                throw new IllegalArgumentException("Arrays must have the same length");
+            }
+            Arrays.fill(offsetSeconds, offset.getTotalSeconds());
+        }
+
+        @Override
+        public void toLocalEpochSeconds(long[] epochSeconds) {
+            Jdk8Methods.requireNonNull(epochSeconds, "epochSeconds");
+            int offsetSecs = offset.getTotalSeconds();
+            for (int i = 0; i < epochSeconds.length; i++) {
+                epochSeconds[i] += offsetSecs;
+            }
+        }
+
         @Override
         public ZoneOffset getOffset(LocalDateTime localDateTime) {
             return offset;
@@ -435,11 +625,21 @@ public abstract class ZoneRules {
             return Collections.singletonList(offset);
         }
 
+        @Override
+        public int getValidOffsetCount(LocalDateTime localDateTime) {
+            return 1;
+        }
+
         @Override
         public ZoneOffsetTransition getTransition(LocalDateTime localDateTime) {
             return null;
         }
 
+        @Override
+        public int getOffsetSeconds(long localEpochSecond, int preferredOffset) {
+            return offset.getTotalSeconds();
+        }
+
         @Override
         public boolean isValidOffset(LocalDateTime dateTime, ZoneOffset offset) {
             return this.offset.equals(offset);
@@ -456,6 +656,11 @@ public abstract class ZoneRules {
             return Duration.ZERO;
         }
 
+        @Override
+        public int getDaylightSavingsSeconds(long epochSecond) {
+            return 0;
+        }
+
         @Override
         public boolean isDaylightSavings(Instant instant) {
             return false;
@@ -472,6 +677,13 @@ public abstract class ZoneRules {
             return null;
         }
 
+        @Override
+        public Iterator<ZoneOffsetTransition> transitionIterator(Instant startInclusive, Instant endExclusive) {
+            Jdk8Methods.requireNonNull(startInclusive, "startInclusive");
+            Jdk8Methods.requireNonNull(endExclusive, "endExclusive");
+            return Collections.<ZoneOffsetTransition>emptyList().iterator();
+        }
+
         @Override
         public List<ZoneOffsetTransition> getTransitions() {
             return Collections.emptyList();
@@ -488,6 +700,9 @@ public abstract class ZoneRules {
             if (this == obj) {
                return true;
             }
+            if (obj instanceof ZoneRules) {
+                obj = ((ZoneRules) obj).underlyingRules();
+            }
             if (obj instanceof Fixed) {
                 return offset.equals(((Fixed) obj).offset);
             }
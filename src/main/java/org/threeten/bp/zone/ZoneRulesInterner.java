@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonicalizes equal zone rules so that a single instance is shared.
+ * <p>
+ * Most rules are unchanged from one version of the time-zone database to the next,
+ * and many regions end with the same set of transition rules. Interning means
+ * that loading several versions, or the same rules from several providers,
+ * does not multiply the memory used.
+ * <p>
+ * Rules are held weakly, so that rules no longer referenced by any provider can be collected.
+ * Transition rule arrays are held strongly, as they are small and few in number.
+ *
+ * <h3>Specification for implementors</h3>
+ * This class is thread-safe.
+ */
+final class ZoneRulesInterner {
+
+    /**
+     * The interned rules, keyed and weakly referenced by themselves.
+     */
+    private static final Map<ZoneRules, WeakReference<ZoneRules>> RULES =
+            new WeakHashMap<ZoneRules, WeakReference<ZoneRules>>();
+    /**
+     * The interned transition rule arrays.
+     */
+    private static final ConcurrentMap<TransitionRulesKey, ZoneOffsetTransitionRule[]> LAST_RULES =
+            new ConcurrentHashMap<TransitionRulesKey, ZoneOffsetTransitionRule[]>(64, 0.75f, 2);
+
+    /**
+     * Restricted constructor.
+     */
+    private ZoneRulesInterner() {
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains the canonical instance of the specified rules.
+     *
+     * @param rules  the rules to intern, not null
+     * @return the canonical instance equal to the rules, not null
+     */
+    static ZoneRules intern(ZoneRules rules) {
+        synchronized (RULES) {
+            WeakReference<ZoneRules> ref = RULES.get(rules);
+            ZoneRules interned = (ref != null ? ref.get() : null);
+            if (interned == null) {
+                RULES.put(rules, new WeakReference<ZoneRules>(rules));
+                interned = rules;
+            }
+            return interned;
+        }
+    }
+
+    /**
+     * Obtains the canonical instance of the specified transition rule array.
+     * <p>
+     * The array must not be altered after it is interned.
+     *
+     * @param lastRules  the transition rules to intern, not null
+     * @return the canonical array equal to the transition rules, not null
+     */
+    static ZoneOffsetTransitionRule[] intern(ZoneOffsetTransitionRule[] lastRules) {
+        TransitionRulesKey key = new TransitionRulesKey(lastRules);
+        ZoneOffsetTransitionRule[] interned = LAST_RULES.putIfAbsent(key, lastRules);
+        return (interned != null ? interned : lastRules);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Key comparing a transition rule array by value.
+     */
+    private static final class TransitionRulesKey {
+        private final ZoneOffsetTransitionRule[] lastRules;
+        private final int hashCode;
+
+        TransitionRulesKey(ZoneOffsetTransitionRule[] lastRules) {
+            this.lastRules = lastRules;
+            this.hashCode = Arrays.hashCode(lastRules);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof TransitionRulesKey && Arrays.equals(lastRules, ((TransitionRulesKey) obj).lastRules);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+}
@@ -31,12 +31,20 @@
  */
 package org.threeten.bp.zone;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.NavigableMap;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 
 import org.threeten.bp.DateTimeException;
 import org.threeten.bp.ZoneId;
@@ -151,6 +159,59 @@ public abstract class ZoneRulesProvider {
         return getProvider(zoneId).provideVersions(zoneId);
     }
 
+    /**
+     * Loads the rules for all the available zone IDs in parallel.
+     * <p>
+     * Providers typically decode the rules for a zone ID the first time they are requested.
+     * Calling this method during startup moves that cost out of the first request
+     * for each zone ID. The rules are decoded on a temporary pool of daemon threads,
+     * one per available processor, and this method blocks until all have been loaded.
+     * <p>
+     * The rules are queried as though for caching, thus dynamic providers
+     * that prevent caching are unaffected.
+     *
+     * @throws ZoneRulesException if rules cannot be obtained for a zone ID, or the thread is interrupted
+     */
+    public static void preloadAll() {
+        final List<String> zoneIds = new ArrayList<String>(ZONES.keySet());
+        final int threadCount = Math.max(Math.min(Runtime.getRuntime().availableProcessors(), zoneIds.size()), 1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ThreeTen-ZoneRulesProvider-preload");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(threadCount);
+            for (int i = 0; i < threadCount; i++) {
+                final int start = i;
+                tasks.add(new Callable<Void>() {
+                    public Void call() {
+                        for (int j = start; j < zoneIds.size(); j += threadCount) {
+                            String zoneId = zoneIds.get(j);
+                            getProvider(zoneId).provideRules(zoneId, true);
+                        }
+                        return null;
+                    }
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ZoneRulesException("Interrupted while loading time-zone rules", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new ZoneRulesException("Unable to load time-zone rules", ex.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     /**
      * Gets the provider for the zone ID.
      *
@@ -209,6 +270,22 @@ public abstract class ZoneRulesProvider {
         }
     }
 
+    /**
+     * Registers the zone IDs that a registered provider has added since it was registered.
+     * <p>
+     * This is used by dynamic providers when new regions become available.
+     * Zone IDs that are already registered are ignored.
+     *
+     * @param provider  the provider, not null
+     */
+    static void registerNewZoneIds(ZoneRulesProvider provider) {
+        if (PROVIDERS.contains(provider)) {
+            for (String zoneId : provider.provideZoneIds()) {
+                ZONES.putIfAbsent(zoneId, provider);
+            }
+        }
+    }
+
     //-------------------------------------------------------------------------
     /**
      * Refreshes the rules from the underlying data provider.
@@ -220,6 +297,7 @@ public abstract class ZoneRulesProvider {
      * <p>
      * Dynamic behavior is entirely optional and most providers, including the
      * default provider, do not support it.
+     * Any zone IDs added by a provider during the refresh are registered.
      *
      * @return true if the rules were updated
      * @throws ZoneRulesException if an error occurs during the refresh
@@ -227,7 +305,10 @@ public abstract class ZoneRulesProvider {
     public static boolean refresh() {
         boolean changed = false;
         for (ZoneRulesProvider provider : PROVIDERS) {
-            changed |= provider.provideRefresh();
+            if (provider.provideRefresh()) {
+                registerNewZoneIds(provider);
+                changed = true;
+            }
         }
         return changed;
     }
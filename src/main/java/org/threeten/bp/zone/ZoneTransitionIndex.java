@@ -0,0 +1,404 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.threeten.bp.Instant;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.Year;
+import org.threeten.bp.jdk8.Jdk8Methods;
+
+/**
+ * An index of the offset transitions of many regions, used to find the regions
+ * with a transition in a window of time.
+ * <p>
+ * Finding the regions affected by a window would otherwise require each region
+ * to be checked in turn using {@link ZoneRules#nextTransition(Instant)}.
+ * Instead, the index holds the historic transitions of every region in a single
+ * array sorted by instant, so a window is found using a binary search.
+ * Transitions after the last historic transition of a region are defined by the
+ * {@linkplain ZoneRules#getTransitionRules() transition rules}. These are expanded
+ * for all the regions a year at a time when first queried, and then kept for
+ * later queries up to 2100. Later years are kept in a small cache of recent years.
+ * <p>
+ * The index is a snapshot of the rules when it was created. It should be
+ * recreated if the rules are {@linkplain ZoneRulesProvider#refresh() refreshed}.
+ *
+ * <h3>Specification for implementors</h3>
+ * This class is immutable and thread-safe.
+ */
+public final class ZoneTransitionIndex {
+
+    /**
+     * The last year to have its transitions cached.
+     */
+    private static final int LAST_CACHED_YEAR = 2100;
+    /**
+     * The size of the cache of transitions for years outside the main cache, a power of two.
+     */
+    private static final int OVERFLOW_CACHE_SIZE = 16;
+
+    /**
+     * The indexed region IDs, sorted.
+     */
+    private final String[] regionIds;
+    /**
+     * The epoch seconds of the historic transitions of all the regions, sorted.
+     */
+    private final long[] transitions;
+    /**
+     * The index of the region of each historic transition.
+     */
+    private final int[] transitionRegions;
+    /**
+     * The indices of the regions that have transition rules.
+     */
+    private final int[] ruleRegions;
+    /**
+     * The transition rules of each region with rules, in the order of {@code ruleRegions}.
+     */
+    private final ZoneOffsetTransitionRule[][] lastRules;
+    /**
+     * The epoch second of the last historic transition of each region with rules,
+     * in the order of {@code ruleRegions}.
+     */
+    private final long[] lastTransitions;
+    /**
+     * The first year that may have a transition defined by the rules.
+     */
+    private final int firstRuleYear;
+    /**
+     * The cache of transitions defined by the rules, indexed by year minus the
+     * first rule year, up to the last cached year, created on demand.
+     */
+    private final AtomicReferenceArray<YearTransitions> ruleTransitionsCache;
+    /**
+     * The cache of transitions defined by the rules for other years, indexed by
+     * the low bits of the year. A year replaces any other year using the same slot.
+     */
+    private final AtomicReferenceArray<YearTransitions> ruleTransitionsOverflowCache =
+            new AtomicReferenceArray<YearTransitions>(OVERFLOW_CACHE_SIZE);
+
+    //-----------------------------------------------------------------------
+    /**
+     * Obtains an index of all the region IDs available from {@link ZoneRulesProvider}.
+     *
+     * @return the index, not null
+     * @throws ZoneRulesException if the rules of a region cannot be obtained
+     */
+    public static ZoneTransitionIndex ofAvailableZoneIds() {
+        return of(ZoneRulesProvider.getAvailableZoneIds());
+    }
+
+    /**
+     * Obtains an index of the specified region IDs.
+     * <p>
+     * The rules of each region are obtained from {@link ZoneRulesProvider}.
+     *
+     * @param regionIds  the region IDs to index, not null
+     * @return the index, not null
+     * @throws ZoneRulesException if a region ID is unknown or its rules cannot be obtained
+     */
+    public static ZoneTransitionIndex of(Collection<String> regionIds) {
+        Jdk8Methods.requireNonNull(regionIds, "regionIds");
+        return new ZoneTransitionIndex(new TreeSet<String>(regionIds).toArray(new String[0]));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param regionIds  the sorted region IDs, not null
+     */
+    private ZoneTransitionIndex(String[] regionIds) {
+        this.regionIds = regionIds;
+        List<long[]> regionTransitions = new ArrayList<long[]>(regionIds.length);
+        List<Integer> ruleRegionList = new ArrayList<Integer>();
+        List<ZoneOffsetTransitionRule[]> lastRulesList = new ArrayList<ZoneOffsetTransitionRule[]>();
+        int transitionCount = 0;
+        for (int i = 0; i < regionIds.length; i++) {
+            ZoneRules rules = ZoneRulesProvider.getRules(regionIds[i], false);
+            List<ZoneOffsetTransition> transList = rules.getTransitions();
+            long[] epochSecs = new long[transList.size()];
+            for (int j = 0; j < epochSecs.length; j++) {
+                epochSecs[j] = transList.get(j).toEpochSecond();
+            }
+            regionTransitions.add(epochSecs);
+            transitionCount += epochSecs.length;
+            // as for nextTransition(), rules only apply after a historic transition
+            List<ZoneOffsetTransitionRule> ruleList = rules.getTransitionRules();
+            if (ruleList.isEmpty() == false && epochSecs.length > 0) {
+                ruleRegionList.add(i);
+                lastRulesList.add(ruleList.toArray(new ZoneOffsetTransitionRule[ruleList.size()]));
+            }
+        }
+
+        // merge the historic transitions, sorting by epoch second
+        this.transitions = new long[transitionCount];
+        this.transitionRegions = new int[transitionCount];
+        int pos = 0;
+        for (int i = 0; i < regionIds.length; i++) {
+            for (long epochSec : regionTransitions.get(i)) {
+                transitions[pos] = epochSec;
+                transitionRegions[pos] = i;
+                pos++;
+            }
+        }
+        sort(transitions, transitionRegions);
+
+        // the regions with rules
+        this.ruleRegions = new int[ruleRegionList.size()];
+        this.lastRules = lastRulesList.toArray(new ZoneOffsetTransitionRule[lastRulesList.size()][]);
+        this.lastTransitions = new long[ruleRegions.length];
+        int firstYear = Year.MAX_VALUE;
+        for (int i = 0; i < ruleRegions.length; i++) {
+            ruleRegions[i] = ruleRegionList.get(i);
+            long[] epochSecs = regionTransitions.get(ruleRegions[i]);
+            lastTransitions[i] = epochSecs[epochSecs.length - 1];
+            firstYear = Math.min(firstYear, yearOf(lastTransitions[i]));
+        }
+        this.firstRuleYear = firstYear;
+        this.ruleTransitionsCache = new AtomicReferenceArray<YearTransitions>(Math.max(LAST_CACHED_YEAR - firstYear, 0));
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Gets the indexed region IDs.
+     *
+     * @return the unmodifiable set of region IDs, in ID order, not null
+     */
+    public Set<String> getRegionIds() {
+        return Collections.unmodifiableSet(new LinkedHashSet<String>(Arrays.asList(regionIds)));
+    }
+
+    /**
+     * Gets the IDs of the regions that have an offset transition in the specified window.
+     * <p>
+     * A region is included if {@link ZoneRules#nextTransition(Instant)} would find
+     * a transition at or after the start instant and before the end instant.
+     * <p>
+     * The time taken is logarithmic in the number of historic transitions, plus linear
+     * in the number of transitions in the window.
+     *
+     * @param startInclusive  the start of the window, inclusive, not null
+     * @param endExclusive  the end of the window, exclusive, not null
+     * @return the unmodifiable set of region IDs, in ID order, not null
+     * @throws IllegalArgumentException if the end is before the start
+     */
+    public Set<String> getTransitionRegionIds(Instant startInclusive, Instant endExclusive) {
+        Jdk8Methods.requireNonNull(startInclusive, "startInclusive");
+        Jdk8Methods.requireNonNull(endExclusive, "endExclusive");
+        if (endExclusive.isBefore(startInclusive)) {
+            throw new IllegalArgumentException("End must not be before start");
+        }
+        // transitions are on whole seconds
+        long startSec = startInclusive.getEpochSecond() + (startInclusive.getNano() > 0 ? 1 : 0);
+        long endSec = endExclusive.getEpochSecond() + (endExclusive.getNano() > 0 ? 1 : 0);
+        BitSet found = new BitSet(regionIds.length);
+        if (startSec < endSec) {
+            // historic transitions
+            for (int i = lowerBound(transitions, startSec); i < transitions.length && transitions[i] < endSec; i++) {
+                found.set(transitionRegions[i]);
+            }
+            // transitions defined by the rules, a year either side as the rules use local time
+            if (ruleRegions.length > 0) {
+                BitSet foundByRules = new BitSet(ruleRegions.length);
+                int startYear = Math.max(yearOf(startSec) - 1, firstRuleYear);
+                int endYear = Math.min(yearOf(endSec) + 1, Year.MAX_VALUE);
+                for (int year = startYear; year <= endYear && foundByRules.cardinality() < ruleRegions.length; year++) {
+                    YearTransitions yearTransitions = findRuleTransitions(year);
+                    long[] epochSecs = yearTransitions.transitions;
+                    for (int i = lowerBound(epochSecs, startSec); i < epochSecs.length && epochSecs[i] < endSec; i++) {
+                        foundByRules.set(yearTransitions.regions[i]);
+                    }
+                }
+                for (int i = foundByRules.nextSetBit(0); i >= 0; i = foundByRules.nextSetBit(i + 1)) {
+                    found.set(ruleRegions[i]);
+                }
+            }
+        }
+        Set<String> result = new LinkedHashSet<String>();
+        for (int i = found.nextSetBit(0); i >= 0; i = found.nextSetBit(i + 1)) {
+            result.add(regionIds[i]);
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * Finds the transitions defined by the rules for a year, creating them if necessary.
+     *
+     * @param year  the year
+     * @return the transitions, not null
+     */
+    private YearTransitions findRuleTransitions(int year) {
+        int cacheIndex = year - firstRuleYear;
+        if (cacheIndex >= 0 && cacheIndex < ruleTransitionsCache.length()) {
+            YearTransitions result = ruleTransitionsCache.get(cacheIndex);
+            if (result == null) {
+                result = new YearTransitions(year);
+                ruleTransitionsCache.set(cacheIndex, result);
+            }
+            return result;
+        }
+        int overflowIndex = year & (OVERFLOW_CACHE_SIZE - 1);
+        YearTransitions cached = ruleTransitionsOverflowCache.get(overflowIndex);
+        if (cached != null && cached.year == year) {
+            return cached;
+        }
+        YearTransitions result = new YearTransitions(year);
+        ruleTransitionsOverflowCache.set(overflowIndex, result);
+        return result;
+    }
+
+    /**
+     * Sorts transitions by epoch second, keeping the region of each.
+     *
+     * @param epochSecs  the epoch seconds, sorted in place, not null
+     * @param regions  the region of each transition, sorted in place, not null
+     */
+    private static void sort(final long[] epochSecs, int[] regions) {
+        Integer[] order = new Integer[epochSecs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer index1, Integer index2) {
+                long epochSec1 = epochSecs[index1];
+                long epochSec2 = epochSecs[index2];
+                return epochSec1 < epochSec2 ? -1 : (epochSec1 > epochSec2 ? 1 : 0);
+            }
+        });
+        long[] sortedSecs = new long[order.length];
+        int[] sortedRegions = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            sortedSecs[i] = epochSecs[order[i]];
+            sortedRegions[i] = regions[order[i]];
+        }
+        System.arraycopy(sortedSecs, 0, epochSecs, 0, order.length);
+        System.arraycopy(sortedRegions, 0, regions, 0, order.length);
+    }
+
+    /**
+     * Finds the index of the first value that is at least the specified value.
+     *
+     * @param values  the sorted values, not null
+     * @param value  the value to find
+     * @return the index, from zero to the length of the array
+     */
+    private static int lowerBound(long[] values, long value) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the UTC year of an epoch second, clamped to the valid years.
+     *
+     * @param epochSec  the epoch second
+     * @return the year
+     */
+    private static int yearOf(long epochSec) {
+        long epochDay = Jdk8Methods.floorDiv(epochSec, 86400);
+        if (epochDay < LocalDate.MIN.toEpochDay()) {
+            return Year.MIN_VALUE;
+        }
+        if (epochDay > LocalDate.MAX.toEpochDay()) {
+            return Year.MAX_VALUE;
+        }
+        return LocalDate.ofEpochDay(epochDay).getYear();
+    }
+
+    @Override
+    public String toString() {
+        return "ZoneTransitionIndex[" + regionIds.length + " regions]";
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The transitions defined by the rules of all the regions for one year,
+     * excluding any at or before the last historic transition of the region.
+     */
+    private final class YearTransitions {
+        /** The year. */
+        private final int year;
+        /** The epoch seconds of the transitions, sorted. */
+        private final long[] transitions;
+        /** The position in {@code ruleRegions} of the region of each transition. */
+        private final int[] regions;
+
+        YearTransitions(int year) {
+            this.year = year;
+            int count = 0;
+            for (int i = 0; i < lastRules.length; i++) {
+                for (ZoneOffsetTransitionRule rule : lastRules[i]) {
+                    if (rule.createTransitionEpochSecond(year) > lastTransitions[i]) {
+                        count++;
+                    }
+                }
+            }
+            transitions = new long[count];
+            regions = new int[count];
+            int pos = 0;
+            for (int i = 0; i < lastRules.length; i++) {
+                for (ZoneOffsetTransitionRule rule : lastRules[i]) {
+                    long epochSec = rule.createTransitionEpochSecond(year);
+                    if (epochSec > lastTransitions[i]) {
+                        transitions[pos] = epochSec;
+                        regions[pos] = i;
+                        pos++;
+                    }
+                }
+            }
+            sort(transitions, regions);
+        }
+    }
+
+}
@@ -66,8 +66,13 @@ public class PerformanceZone {
             jsrInstantGetOffset();
             jsrRulesLocalGetOffset();
             jsrRulesInstantGetOffset();
+            jsrRulesFarFutureGetOffset();
             jdkLocalGetOffset();
             jdkInstantGetOffset();
+            jsrRulesLoopGetOffsetSeconds();
+            jsrRulesArrayGetOffsetSeconds();
+            jsrZonedDateTimeOfLocal();
+            jsrZonedDateTimeOfStrict();
             System.out.println();
         }
     }
@@ -124,6 +129,85 @@ public class PerformanceZone {
         System.out.println("JSR-InR: Setup:  " + NF.format(end - start) + " ns" + list[0]);
     }
 
+    //-----------------------------------------------------------------------
+    private static void jsrRulesFarFutureGetOffset() {
+        // a different year for each call, 2101 to 2300
+        Instant base = LocalDateTime.of(2101, 6, 1, 12, 0).toInstant(ZoneOffset.UTC);
+        Instant[] instants = new Instant[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            instants[i] = base.plusSeconds((i % 200) * 31556952L);
+        }
+        ZoneRules tz = ZoneId.of("Europe/London").getRules();
+        ZoneOffset[] list = new ZoneOffset[SIZE];
+        long start = System.nanoTime();
+        for (int i = 0; i < SIZE; i++) {
+            list[i] = tz.getOffset(instants[i]);
+        }
+        long end = System.nanoTime();
+        System.out.println("JSR-InF: Setup:  " + NF.format(end - start) + " ns" + list[0]);
+    }
+
+    //-----------------------------------------------------------------------
+    private static void jsrRulesLoopGetOffsetSeconds() {
+        long[] epochSeconds = createEpochSeconds();
+        ZoneRules tz = ZoneId.of("Europe/London").getRules();
+        int[] list = new int[SIZE];
+        long start = System.nanoTime();
+        for (int i = 0; i < SIZE; i++) {
+            list[i] = tz.getOffsetSeconds(epochSeconds[i]);
+        }
+        long end = System.nanoTime();
+        System.out.println("JSR-Lop: Setup:  " + NF.format(end - start) + " ns" + list[0]);
+    }
+
+    //-----------------------------------------------------------------------
+    private static void jsrRulesArrayGetOffsetSeconds() {
+        long[] epochSeconds = createEpochSeconds();
+        ZoneRules tz = ZoneId.of("Europe/London").getRules();
+        int[] list = new int[SIZE];
+        long start = System.nanoTime();
+        tz.getOffsetSeconds(epochSeconds, list);
+        long end = System.nanoTime();
+        System.out.println("JSR-Arr: Setup:  " + NF.format(end - start) + " ns" + list[0]);
+    }
+
+    //-----------------------------------------------------------------------
+    private static void jsrZonedDateTimeOfLocal() {
+        LocalDateTime dt = LocalDateTime.of(YEAR, 6, 1, 12, 0);
+        ZoneId tz = ZoneId.of("Europe/London");
+        ZonedDateTime[] list = new ZonedDateTime[SIZE];
+        long start = System.nanoTime();
+        for (int i = 0; i < SIZE; i++) {
+            list[i] = ZonedDateTime.ofLocal(dt, tz, null);
+        }
+        long end = System.nanoTime();
+        System.out.println("JSR-ZLo: Setup:  " + NF.format(end - start) + " ns" + list[0]);
+    }
+
+    //-----------------------------------------------------------------------
+    private static void jsrZonedDateTimeOfStrict() {
+        LocalDateTime dt = LocalDateTime.of(YEAR, 6, 1, 12, 0);
+        ZoneId tz = ZoneId.of("Europe/London");
+        ZoneOffset offset = ZoneOffset.ofHours(1);
+        ZonedDateTime[] list = new ZonedDateTime[SIZE];
+        long start = System.nanoTime();
+        for (int i = 0; i < SIZE; i++) {
+            list[i] = ZonedDateTime.ofStrict(dt, offset, tz);
+        }
+        long end = System.nanoTime();
+        System.out.println("JSR-ZSt: Setup:  " + NF.format(end - start) + " ns" + list[0]);
+    }
+
+    private static long[] createEpochSeconds() {
+        // sorted, spread over ten years
+        long first = LocalDateTime.of(YEAR, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        long[] epochSeconds = new long[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            epochSeconds[i] = first + i * (86400L * 3652 / SIZE);
+        }
+        return epochSeconds;
+    }
+
     //-----------------------------------------------------------------------
     private static void jdkLocalGetOffset() {
         java.util.TimeZone tz = java.util.TimeZone.getTimeZone("Europe/London");
@@ -32,8 +32,11 @@
 package org.threeten.bp.format;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
 import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 import static org.threeten.bp.temporal.ChronoField.DAY_OF_MONTH;
 
 import java.io.IOException;
@@ -85,6 +88,76 @@ public class TestDateTimeFormatter {
         base.withLocale((Locale) null);
     }
 
+    //-----------------------------------------------------------------------
+    // ofPattern
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_ofPattern_cached() throws Exception {
+        long hits = DateTimeFormatter.getPatternCacheHits();
+        long misses = DateTimeFormatter.getPatternCacheMisses();
+        DateTimeFormatter test = DateTimeFormatter.ofPattern("'cached'yyyy-MM-dd", Locale.ENGLISH);
+        assertEquals(DateTimeFormatter.getPatternCacheMisses(), misses + 1);
+        assertSame(DateTimeFormatter.ofPattern("'cached'yyyy-MM-dd", Locale.ENGLISH), test);
+        assertEquals(DateTimeFormatter.getPatternCacheHits(), hits + 1);
+        assertEquals(test.getLocale(), Locale.ENGLISH);
+        assertEquals(test.format(LocalDate.of(2012, 6, 30)), "cached2012-06-30");
+
+        DateTimeFormatter german = DateTimeFormatter.ofPattern("'cached'yyyy-MM-dd", Locale.GERMAN);
+        assertNotSame(german, test);
+        assertEquals(german.getLocale(), Locale.GERMAN);
+        assertEquals(DateTimeFormatter.getPatternCacheMisses(), misses + 2);
+    }
+
+    @Test
+    public void test_ofPattern_defaultLocale() throws Exception {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.FRENCH);
+            assertEquals(DateTimeFormatter.ofPattern("'default'yyyy").getLocale(), Locale.FRENCH);
+            Locale.setDefault(Locale.GERMAN);
+            assertEquals(DateTimeFormatter.ofPattern("'default'yyyy").getLocale(), Locale.GERMAN);
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void test_ofPattern_bounded() throws Exception {
+        int count = 2000;
+        for (int i = 0; i < count; i++) {
+            DateTimeFormatter.ofPattern("'bounded" + i + "'", Locale.ENGLISH);
+        }
+        long hits = DateTimeFormatter.getPatternCacheHits();
+        for (int i = 0; i < count; i++) {
+            assertEquals(DateTimeFormatter.ofPattern("'bounded" + i + "'", Locale.ENGLISH).format(LocalDate.of(2012, 6, 30)), "bounded" + i);
+        }
+        assertTrue(DateTimeFormatter.getPatternCacheHits() - hits < count / 2);
+    }
+
+    @Test
+    public void test_ofPattern_invalid_notCached() throws Exception {
+        long misses = DateTimeFormatter.getPatternCacheMisses();
+        for (int i = 0; i < 2; i++) {
+            try {
+                DateTimeFormatter.ofPattern("yyyyb", Locale.ENGLISH);
+                fail();
+            } catch (IllegalArgumentException ex) {
+                // expected
+            }
+        }
+        assertEquals(DateTimeFormatter.getPatternCacheMisses(), misses + 2);
+    }
+
+    @Test(expectedExceptions=NullPointerException.class)
+    public void test_ofPattern_nullPattern() throws Exception {
+        DateTimeFormatter.ofPattern(null, Locale.ENGLISH);
+    }
+
+    @Test(expectedExceptions=NullPointerException.class)
+    public void test_ofPattern_nullLocale() throws Exception {
+        DateTimeFormatter.ofPattern("yyyy", null);
+    }
+
     //-----------------------------------------------------------------------
     // print
     //-----------------------------------------------------------------------
@@ -0,0 +1,306 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.format;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.threeten.bp.temporal.ChronoField.DAY_OF_MONTH;
+import static org.threeten.bp.temporal.ChronoField.HOUR_OF_DAY;
+import static org.threeten.bp.temporal.ChronoField.MONTH_OF_YEAR;
+import static org.threeten.bp.temporal.ChronoField.NANO_OF_SECOND;
+import static org.threeten.bp.temporal.ChronoField.YEAR;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.threeten.bp.Instant;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.LocalTime;
+import org.threeten.bp.OffsetDateTime;
+import org.threeten.bp.OffsetTime;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.ZonedDateTime;
+import org.threeten.bp.chrono.ThaiBuddhistChronology;
+import org.threeten.bp.chrono.ThaiBuddhistDate;
+import org.threeten.bp.format.DateTimeFormatterBuilder.IsoFastPrinter;
+import org.threeten.bp.temporal.TemporalAccessor;
+
+/**
+ * Test IsoFastPrinter.
+ */
+@Test
+public class TestIsoFastPrinter extends AbstractTestPrinterParser {
+
+    private static final DateTimeFormatter[] FORMATTERS = {
+        DateTimeFormatter.ISO_LOCAL_DATE,
+        DateTimeFormatter.ISO_LOCAL_TIME,
+        DateTimeFormatter.ISO_LOCAL_DATE_TIME,
+        DateTimeFormatter.ISO_OFFSET_DATE_TIME,
+        DateTimeFormatter.ISO_OFFSET_TIME,
+        DateTimeFormatter.ISO_DATE,
+        DateTimeFormatter.ISO_TIME,
+        DateTimeFormatter.ofPattern("uuuu-MM-dd['T'HH:mm[XXX]]"),
+        new DateTimeFormatterBuilder().appendValue(YEAR).optionalStart().appendLiteral('x')
+            .optionalStart().appendOffsetId().optionalEnd().appendValue(MONTH_OF_YEAR).toFormatter(),
+        new DateTimeFormatterBuilder().appendValue(YEAR).optionalStart().appendLiteral('x')
+            .append(DateTimeFormatter.ISO_OFFSET_TIME).appendValue(MONTH_OF_YEAR).toFormatter(),
+        DateTimeFormatter.ISO_INSTANT,
+        new DateTimeFormatterBuilder().appendInstant(3).toFormatter(),
+        new DateTimeFormatterBuilder().appendValue(YEAR, 2, 6, SignStyle.NORMAL).appendLiteral(' ')
+            .appendValue(MONTH_OF_YEAR).appendLiteral(" and ").appendValue(DAY_OF_MONTH, 3)
+            .appendFraction(NANO_OF_SECOND, 2, 4, false).appendOffset("+HHMM", "Z").toFormatter(),
+    };
+
+    //-----------------------------------------------------------------------
+    @DataProvider(name="recognized")
+    Object[][] data_recognized() {
+        return new Object[][] {
+            {DateTimeFormatter.ISO_LOCAL_DATE, true},
+            {DateTimeFormatter.ISO_LOCAL_TIME, true},
+            {DateTimeFormatter.ISO_LOCAL_DATE_TIME, true},
+            {DateTimeFormatter.ISO_OFFSET_DATE_TIME, true},
+            {DateTimeFormatter.ISO_INSTANT, true},
+            {DateTimeFormatter.ISO_DATE, true},
+            {DateTimeFormatter.ISO_TIME, true},
+            {DateTimeFormatter.ofPattern("uuuu-MM-dd HH:mm:ss.SSS"), true},
+            {DateTimeFormatter.ISO_ZONED_DATE_TIME, false},
+            {DateTimeFormatter.ISO_ORDINAL_DATE, false},
+            {DateTimeFormatter.ofPattern("yyyy-MM-dd"), false},
+            {DateTimeFormatter.ofPattern("uu-MM-dd"), false},
+            {DateTimeFormatter.ofPattern("uuuu-MMM-dd"), false},
+            {new DateTimeFormatterBuilder().padNext(3).appendValue(HOUR_OF_DAY).toFormatter(), false},
+        };
+    }
+
+    @Test(dataProvider="recognized")
+    public void test_of(DateTimeFormatter formatter, boolean recognized) {
+        IsoFastPrinter test = IsoFastPrinter.of(formatter.toPrinterParser(false),
+                formatter.getDecimalStyle(), formatter.getChronology(), formatter.getZone());
+        assertEquals(test != null, recognized);
+    }
+
+    public void test_of_settings() {
+        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE;
+        assertNotNull(IsoFastPrinter.of(formatter.toPrinterParser(false), DecimalStyle.STANDARD, null, null));
+        assertNull(IsoFastPrinter.of(formatter.toPrinterParser(false), DecimalStyle.STANDARD.withZeroDigit('a'), null, null));
+        assertNull(IsoFastPrinter.of(formatter.toPrinterParser(false), DecimalStyle.STANDARD, ThaiBuddhistChronology.INSTANCE, null));
+        assertNull(IsoFastPrinter.of(formatter.toPrinterParser(false), DecimalStyle.STANDARD, null, ZoneOffset.UTC));
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_print_matchesPrinterParser() {
+        Random random = new Random(2024);
+        for (int i = 0; i < 2000; i++) {
+            LocalDate date = LocalDate.ofEpochDay(randomEpochDay(random));
+            LocalTime time = LocalTime.ofNanoOfDay((random.nextLong() >>> 1) % LocalTime.MAX.toNanoOfDay());
+            switch (random.nextInt(4)) {
+                case 0: time = time.withNano(0); break;
+                case 1: time = time.withNano(time.getNano() / 1000000 * 1000000); break;
+                case 2: time = time.withNano(time.getNano() / 1000 * 1000); break;
+            }
+            int offsetSecs = (random.nextInt(37) - 18) * (random.nextBoolean() ? 3600 : 900) +
+                    (random.nextInt(8) == 0 ? random.nextInt(60) : 0);
+            ZoneOffset offset = ZoneOffset.ofTotalSeconds(Math.min(offsetSecs, 18 * 3600));
+            LocalDateTime ldt = LocalDateTime.of(date, time);
+            assertPrint(date);
+            assertPrint(time);
+            assertPrint(ldt);
+            assertPrint(OffsetDateTime.of(ldt, offset));
+            assertPrint(OffsetTime.of(time, offset));
+            assertPrint(ZonedDateTime.of(ldt, offset));
+            assertPrint(OffsetDateTime.of(ldt, offset).toInstant());
+        }
+    }
+
+    @DataProvider(name="boundaries")
+    Object[][] data_boundaries() {
+        return new Object[][] {
+            {LocalDateTime.MIN},
+            {LocalDateTime.MAX},
+            {LocalDateTime.of(-1, 12, 31, 23, 59, 59, 999999999)},
+            {LocalDateTime.of(0, 1, 1, 0, 0)},
+            {LocalDateTime.of(9, 1, 1, 0, 0, 0, 1)},
+            {LocalDateTime.of(9999, 12, 31, 23, 59, 59, 999999999)},
+            {LocalDateTime.of(10000, 1, 1, 0, 0)},
+            {LocalDateTime.of(-10000, 1, 1, 0, 0)},
+            {LocalDateTime.of(1970, 1, 1, 0, 0, 0, 100000000)},
+        };
+    }
+
+    @Test(dataProvider="boundaries")
+    public void test_print_boundaries(LocalDateTime ldt) {
+        assertPrint(ldt);
+        assertPrint(ldt.atOffset(ZoneOffset.UTC));
+        assertPrint(ldt.atOffset(ZoneOffset.MAX));
+        assertPrint(ldt.atOffset(ZoneOffset.MIN));
+        assertPrint(ldt.atOffset(ZoneOffset.UTC).toInstant());
+    }
+
+    public void test_print_instantBoundaries() {
+        assertPrint(Instant.MIN);
+        assertPrint(Instant.MAX);
+        assertPrint(Instant.EPOCH);
+        assertPrint(Instant.ofEpochSecond(-62167219200L));
+        assertPrint(Instant.ofEpochSecond(-62167219201L, 999999999));
+        assertPrint(Instant.ofEpochSecond(253402300799L, 999999999));
+        assertPrint(Instant.ofEpochSecond(253402300800L));
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_print_unsupportedTemporal() {
+        IsoFastPrinter test = fastPrinter(DateTimeFormatter.ISO_LOCAL_DATE);
+        assertFalse(test.print(ThaiBuddhistDate.of(2555, 1, 1), buf));
+        assertFalse(test.print(LocalTime.of(12, 30), buf));
+        assertEquals(buf.length(), 0);
+        assertTrue(test.print(LocalDate.of(2012, 1, 1), buf));
+        assertEquals(buf.toString(), "2012-01-01");
+    }
+
+    public void test_print_optionalSection() {
+        assertTrue(fastPrinter(DateTimeFormatter.ISO_DATE).print(LocalDate.of(2012, 6, 30), buf));
+        assertEquals(buf.toString(), "2012-06-30");
+        buf.setLength(0);
+        assertTrue(fastPrinter(DateTimeFormatter.ISO_DATE).print(OffsetDateTime.of(2012, 6, 30, 12, 0, 0, 0, ZoneOffset.ofHours(1)), buf));
+        assertEquals(buf.toString(), "2012-06-30+01:00");
+    }
+
+    public void test_print_nestedOptionalSection() {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("uuuu-MM-dd['T'HH:mm[XXX]]");
+        assertTrue(fastPrinter(formatter).print(LocalDateTime.of(2020, 1, 2, 10, 30), buf));
+        assertEquals(buf.toString(), "2020-01-02T10:30");
+        buf.setLength(0);
+        assertTrue(fastPrinter(formatter).print(LocalDate.of(2020, 1, 2), buf));
+        assertEquals(buf.toString(), "2020-01-02");
+        buf.setLength(0);
+        assertTrue(fastPrinter(formatter).print(OffsetDateTime.of(2020, 1, 2, 10, 30, 0, 0, ZoneOffset.ofHours(1)), buf));
+        assertEquals(buf.toString(), "2020-01-02T10:30+01:00");
+        assertEquals(formatter.format(LocalDateTime.of(2020, 1, 2, 10, 30)), "2020-01-02T10:30");
+    }
+
+    public void test_print_compositeInOptionalSection() {
+        DateTimeFormatter formatter = new DateTimeFormatterBuilder().appendValue(YEAR).optionalStart().appendLiteral('x')
+            .append(DateTimeFormatter.ISO_OFFSET_TIME).appendValue(MONTH_OF_YEAR).toFormatter();
+        assertTrue(fastPrinter(formatter).print(LocalDateTime.of(2020, 1, 2, 10, 30), buf));
+        assertEquals(buf.toString(), "2020x1");
+        assertEquals(formatter.format(LocalDateTime.of(2020, 1, 2, 10, 30)), "2020x1");
+    }
+
+    public void test_print_missingFields() {
+        assertFalse(fastPrinter(DateTimeFormatter.ISO_LOCAL_DATE_TIME).print(LocalDate.of(2012, 1, 1), buf));
+        assertFalse(fastPrinter(DateTimeFormatter.ISO_OFFSET_DATE_TIME).print(LocalDateTime.of(2012, 1, 1, 0, 0), buf));
+        assertFalse(fastPrinter(DateTimeFormatter.ISO_INSTANT).print(LocalDateTime.of(2012, 1, 1, 0, 0), buf));
+        assertFalse(fastPrinter(DateTimeFormatter.ISO_INSTANT).print(OffsetTime.of(LocalTime.NOON, ZoneOffset.UTC), buf));
+        assertEquals(buf.length(), 0);
+    }
+
+    public void test_print_exceedsWidth() {
+        DateTimeFormatter formatter = new DateTimeFormatterBuilder()
+            .appendLiteral('Y').appendValue(YEAR, 4, 4, SignStyle.NOT_NEGATIVE).toFormatter();
+        buf.append("EXISTING");
+        assertFalse(fastPrinter(formatter).print(LocalDate.of(-1, 1, 1), buf));
+        assertFalse(fastPrinter(formatter).print(LocalDate.of(10000, 1, 1), buf));
+        assertEquals(buf.toString(), "EXISTING");
+        assertTrue(fastPrinter(formatter).print(LocalDate.of(1, 1, 1), buf));
+        assertEquals(buf.toString(), "EXISTINGY0001");
+    }
+
+    public void test_format_withSettings() {
+        LocalDateTime ldt = LocalDateTime.of(2012, 6, 30, 12, 30, 40);
+        DateTimeFormatter base = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+        assertEquals(base.withLocale(Locale.FRANCE).format(ldt), "2012-06-30T12:30:40");
+        assertEquals(base.withResolverStyle(ResolverStyle.LENIENT).format(ldt), "2012-06-30T12:30:40");
+        assertEquals(base.withResolverFields(YEAR, MONTH_OF_YEAR).format(ldt), "2012-06-30T12:30:40");
+        assertEquals(base.withLocale(Locale.FRANCE).withDecimalStyle(DecimalStyle.STANDARD.withZeroDigit('a')).format(ldt),
+                "cabc-ag-daTbc:da:ea");
+        assertEquals(base.withDecimalStyle(DecimalStyle.STANDARD.withZeroDigit('a')).withLocale(Locale.FRANCE).format(ldt),
+                "cabc-ag-daTbc:da:ea");
+    }
+
+    public void test_format_overrideZone() {
+        ZonedDateTime zdt = ZonedDateTime.of(2012, 6, 30, 12, 30, 0, 0, ZoneId.of("Europe/Paris"));
+        assertEquals(DateTimeFormatter.ISO_OFFSET_DATE_TIME.withZone(ZoneOffset.UTC).format(zdt), "2012-06-30T10:30:00Z");
+    }
+
+    //-----------------------------------------------------------------------
+    private static long randomEpochDay(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return LocalDate.MIN.toEpochDay() + (random.nextLong() >>> 1) % (LocalDate.MAX.toEpochDay() - LocalDate.MIN.toEpochDay());
+            case 1:
+                return random.nextInt(4000000) - 800000;
+            default:
+                return random.nextInt(40000);
+        }
+    }
+
+    private static IsoFastPrinter fastPrinter(DateTimeFormatter formatter) {
+        return IsoFastPrinter.of(formatter.toPrinterParser(false), DecimalStyle.STANDARD, null, null);
+    }
+
+    private static void assertPrint(TemporalAccessor temporal) {
+        for (DateTimeFormatter formatter : FORMATTERS) {
+            String expected = print(formatter, temporal);
+            StringBuilder buf = new StringBuilder();
+            boolean printed = fastPrinter(formatter).print(temporal, buf);
+            if (printed) {
+                assertEquals(buf.toString(), expected, formatter + " " + temporal);
+            } else {
+                assertEquals(buf.length(), 0);
+            }
+            String formatted;
+            try {
+                formatted = formatter.format(temporal);
+            } catch (RuntimeException ex) {
+                formatted = ex.getClass().getName();
+            }
+            assertEquals(formatted, expected, formatter + " " + temporal);
+        }
+    }
+
+    private static String print(DateTimeFormatter formatter, TemporalAccessor temporal) {
+        StringBuilder buf = new StringBuilder();
+        try {
+            formatter.toPrinterParser(false).print(new DateTimePrintContext(temporal, formatter), buf);
+        } catch (RuntimeException ex) {
+            return ex.getClass().getName();
+        }
+        return buf.toString();
+    }
+
+}
@@ -32,9 +32,13 @@
 package org.threeten.bp.format;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
+import java.util.Collections;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -43,6 +47,7 @@ import org.threeten.bp.ZoneOffset;
 import org.threeten.bp.format.DateTimeFormatterBuilder.ZoneIdPrinterParser;
 import org.threeten.bp.temporal.TemporalAccessor;
 import org.threeten.bp.temporal.TemporalQueries;
+import org.threeten.bp.zone.ZoneRules;
 import org.threeten.bp.zone.ZoneRulesProvider;
 
 /**
@@ -138,6 +143,53 @@ public class TestZoneIdParser extends AbstractTestPrinterParser {
         assertParsed(ZoneId.of("Europe/London"));
     }
 
+    @Test
+    public void test_parse_upperCase_longest() throws Exception {
+        ZoneIdPrinterParser pp = new ZoneIdPrinterParser(TemporalQueries.zoneId(), null);
+        parseContext.setCaseSensitive(false);
+        int result = pp.parse(parseContext, "ETC/GMT-10X", 0);
+        assertEquals(result, 10);
+        assertParsed(ZoneId.of("Etc/GMT-10"));
+    }
+
+    public void test_parse_longestMatch() throws Exception {
+        ZoneIdPrinterParser pp = new ZoneIdPrinterParser(TemporalQueries.zoneId(), null);
+        assertEquals(pp.parse(parseContext, "Etc/GMT-1X", 0), 9);
+        assertParsed(ZoneId.of("Etc/GMT-1"));
+        assertEquals(pp.parse(parseContext, "Etc/GMT-14", 0), 10);
+        assertParsed(ZoneId.of("Etc/GMT-14"));
+    }
+
+    public void test_parse_sameZoneInstance() throws Exception {
+        ZoneIdPrinterParser pp = new ZoneIdPrinterParser(TemporalQueries.zoneId(), null);
+        pp.parse(parseContext, AMERICA_DENVER, 0);
+        ZoneId first = parseContext.toParsed().zone;
+        pp.parse(parseContext, AMERICA_DENVER, 0);
+        assertSame(parseContext.toParsed().zone, first);
+    }
+
+    public void test_parse_newlyRegistered() throws Exception {
+        ZoneIdPrinterParser pp = new ZoneIdPrinterParser(TemporalQueries.zoneId(), null);
+        pp.parse(parseContext, AMERICA_DENVER, 0);
+        ZoneRulesProvider.registerProvider(new ZoneRulesProvider() {
+            @Override
+            protected Set<String> provideZoneIds() {
+                return Collections.singleton("Test/ZoneIdParser");
+            }
+            @Override
+            protected ZoneRules provideRules(String regionId, boolean forCaching) {
+                return ZoneOffset.ofHours(3).getRules();
+            }
+            @Override
+            protected NavigableMap<String, ZoneRules> provideVersions(String zoneId) {
+                return new TreeMap<String, ZoneRules>(Collections.singletonMap("1", ZoneOffset.ofHours(3).getRules()));
+            }
+        });
+        int result = pp.parse(parseContext, "Test/ZoneIdParser", 0);
+        assertEquals(result, 17);
+        assertParsed(ZoneId.of("Test/ZoneIdParser"));
+    }
+
     //-----------------------------------------------------------------------
     public void test_parse_endStringMatch_utc() throws Exception {
         ZoneIdPrinterParser pp = new ZoneIdPrinterParser(TemporalQueries.zoneId(), null);
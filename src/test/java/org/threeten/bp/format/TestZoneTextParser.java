@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.format;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.chrono.IsoChronology;
+import org.threeten.bp.format.DateTimeFormatterBuilder.ZoneNameTrie;
+import org.threeten.bp.format.DateTimeFormatterBuilder.ZoneTextPrinterParser;
+import org.threeten.bp.temporal.TemporalQueries;
+
+/**
+ * Test ZoneTextPrinterParser parsing.
+ */
+@Test
+public class TestZoneTextParser extends AbstractTestPrinterParser {
+
+    private static final Comparator<String> LENGTH_COMPARATOR = new Comparator<String>() {
+        @Override
+        public int compare(String str1, String str2) {
+            int cmp = str2.length() - str1.length();
+            if (cmp == 0) {
+                cmp = str1.compareTo(str2);
+            }
+            return cmp;
+        }
+    };
+
+    // the names, longest first, as matched by the original implementation
+    private static Map<String, String> referenceNames(TextStyle style, Locale locale) {
+        Map<String, String> ids = new TreeMap<String, String>(LENGTH_COMPARATOR);
+        for (String id : ZoneId.getAvailableZoneIds()) {
+            ids.put(id, id);
+            TimeZone tz = TimeZone.getTimeZone(id);
+            int tzstyle = (style.asNormal() == TextStyle.FULL ? TimeZone.LONG : TimeZone.SHORT);
+            String textWinter = tz.getDisplayName(false, tzstyle, locale);
+            if (id.startsWith("Etc/") || !textWinter.startsWith("GMT+")) {
+                ids.put(textWinter, id);
+            }
+            String textSummer = tz.getDisplayName(true, tzstyle, locale);
+            if (id.startsWith("Etc/") || !textSummer.startsWith("GMT+")) {
+                ids.put(textSummer, id);
+            }
+        }
+        return ids;
+    }
+
+    private static String referenceParse(Map<String, String> names, DateTimeParseContext context, String text, int position) {
+        for (Entry<String, String> entry : names.entrySet()) {
+            String name = entry.getKey();
+            if (context.subSequenceEquals(text, position, name, 0, name.length())) {
+                return entry.getValue() + "@" + (position + name.length());
+            }
+        }
+        return null;
+    }
+
+    //-----------------------------------------------------------------------
+    @DataProvider(name="styles")
+    Object[][] data_styles() {
+        return new Object[][] {
+            {TextStyle.FULL, Locale.ENGLISH, true},
+            {TextStyle.SHORT, Locale.ENGLISH, true},
+            {TextStyle.FULL, Locale.FRENCH, true},
+            {TextStyle.FULL, Locale.ENGLISH, false},
+            {TextStyle.SHORT, Locale.ENGLISH, false},
+        };
+    }
+
+    @Test(dataProvider="styles")
+    public void test_parse_matchesLinearScan(TextStyle style, Locale locale, boolean caseSensitive) {
+        Map<String, String> names = referenceNames(style, locale);
+        List<String> texts = new ArrayList<String>();
+        for (String name : names.keySet()) {
+            if (name.startsWith("GMT") || name.startsWith("UT")) {
+                continue;  // handled as offsets before names are matched
+            }
+            texts.add(name);
+            texts.add(name + "X");
+            texts.add(name.substring(0, name.length() - 1));
+            texts.add(name.toLowerCase(Locale.ENGLISH) + " 2012");
+        }
+        ZoneTextPrinterParser pp = new ZoneTextPrinterParser(style);
+        for (String text : texts) {
+            DateTimeParseContext context = new DateTimeParseContext(locale, DecimalStyle.STANDARD, IsoChronology.INSTANCE);
+            context.setCaseSensitive(caseSensitive);
+            String expected = referenceParse(names, context, text, 0);
+            int result = pp.parse(context, text, 0);
+            ZoneId parsed = context.toParsed().query(TemporalQueries.zoneId());
+            if (expected == null) {
+                if (result >= 0) {
+                    assertEquals(parsed + "@" + result, text.charAt(0) == 'Z' ? "Z@1" : null, text);
+                }
+            } else {
+                assertEquals(parsed.getId() + "@" + result, expected, text);
+            }
+        }
+    }
+
+    public void test_parse_longestName() {
+        ZoneTextPrinterParser pp = new ZoneTextPrinterParser(TextStyle.FULL);
+        int result = pp.parse(parseContext, "OTHERBritish Summer TimeOTHER", 5);
+        assertEquals(result, 24);
+        // several regions share the name
+        ZoneId parsed = parseContext.toParsed().query(TemporalQueries.zoneId());
+        assertEquals(TimeZone.getTimeZone(parsed.getId()).getDisplayName(true, TimeZone.LONG, Locale.ENGLISH), "British Summer Time");
+    }
+
+    public void test_parse_zoneId() {
+        ZoneTextPrinterParser pp = new ZoneTextPrinterParser(TextStyle.SHORT);
+        int result = pp.parse(parseContext, "Europe/Paris", 0);
+        assertEquals(result, 12);
+        assertEquals(parseContext.toParsed().query(TemporalQueries.zoneId()), ZoneId.of("Europe/Paris"));
+    }
+
+    public void test_parse_noMatch() {
+        ZoneTextPrinterParser pp = new ZoneTextPrinterParser(TextStyle.FULL);
+        assertEquals(pp.parse(parseContext, "OTHERBogus Time", 5), ~5);
+    }
+
+    //-----------------------------------------------------------------------
+    // ZoneNameTrie
+    //-----------------------------------------------------------------------
+    private static ZoneNameTrie trie(String... namesAndIds) {
+        SortedMap<String, String> names = new TreeMap<String, String>();
+        for (int i = 0; i < namesAndIds.length; i += 2) {
+            names.put(namesAndIds[i], namesAndIds[i + 1]);
+        }
+        return ZoneNameTrie.of(names);
+    }
+
+    public void test_trie_longestMatch() {
+        ZoneNameTrie trie = trie("AB", "1", "ABCD", "2", "ABD", "3", "B", "4");
+        assertEquals(trie.match("ABCDE", 0, true).zoneId, "2");
+        assertEquals(trie.match("ABCDE", 0, true).length, 4);
+        assertEquals(trie.match("ABCX", 0, true).zoneId, "1");
+        assertEquals(trie.match("ABD", 0, true).zoneId, "3");
+        assertEquals(trie.match("XB", 1, true).zoneId, "4");
+        assertNull(trie.match("A", 0, true));
+        assertNull(trie.match("X", 0, true));
+        assertNull(trie.match("AB", 2, true));
+    }
+
+    public void test_trie_caseInsensitive() {
+        ZoneNameTrie trie = trie("ab", "1", "AB", "2", "Abc", "3");
+        assertNull(trie.match("aB", 0, true));
+        assertEquals(trie.match("aB", 0, false).zoneId, "2");
+        assertEquals(trie.match("ABC", 0, false).zoneId, "3");
+        assertEquals(trie.match("ab", 0, true).zoneId, "1");
+    }
+
+    public void test_trie_empty() {
+        assertNull(trie().match("A", 0, true));
+        assertNull(trie().match("A", 0, false));
+    }
+
+}
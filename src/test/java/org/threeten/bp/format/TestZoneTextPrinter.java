@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.format;
+
+import static org.testng.Assert.assertEquals;
+
+import java.util.Locale;
+import java.util.TimeZone;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.ZonedDateTime;
+import org.threeten.bp.format.DateTimeFormatterBuilder.ZoneTextPrinterParser;
+import org.threeten.bp.zone.ZoneRulesProvider;
+
+/**
+ * Test ZoneTextPrinterParser printing.
+ */
+@Test
+public class TestZoneTextPrinter extends AbstractTestPrinterParser {
+
+    @DataProvider(name="print")
+    Object[][] data_print() {
+        return new Object[][] {
+            {TextStyle.FULL, "Europe/London", LocalDateTime.of(2012, 1, 1, 12, 0), "Greenwich Mean Time"},
+            {TextStyle.FULL, "Europe/London", LocalDateTime.of(2012, 7, 1, 12, 0), "British Summer Time"},
+            {TextStyle.SHORT, "Europe/London", LocalDateTime.of(2012, 1, 1, 12, 0), "GMT"},
+            {TextStyle.SHORT, "Europe/London", LocalDateTime.of(2012, 7, 1, 12, 0), "BST"},
+            {TextStyle.FULL_STANDALONE, "America/New_York", LocalDateTime.of(2012, 7, 1, 12, 0), "Eastern Daylight Time"},
+            {TextStyle.SHORT_STANDALONE, "America/New_York", LocalDateTime.of(2012, 1, 1, 12, 0), "EST"},
+        };
+    }
+
+    @Test(dataProvider="print")
+    public void test_print(TextStyle style, String zoneId, LocalDateTime dateTime, String expected) {
+        ZonedDateTime zdt = dateTime.atZone(ZoneId.of(zoneId));
+        DateTimePrintContext context = new DateTimePrintContext(zdt, Locale.ENGLISH, DecimalStyle.STANDARD);
+        new ZoneTextPrinterParser(style).print(context, buf);
+        assertEquals(buf.toString(), expected);
+    }
+
+    public void test_print_offset() {
+        ZonedDateTime zdt = LocalDateTime.of(2012, 1, 1, 12, 0).atZone(ZoneOffset.ofHours(2));
+        DateTimePrintContext context = new DateTimePrintContext(zdt, Locale.ENGLISH, DecimalStyle.STANDARD);
+        new ZoneTextPrinterParser(TextStyle.FULL).print(context, buf);
+        assertEquals(buf.toString(), "+02:00");
+    }
+
+    public void test_print_locale() {
+        ZonedDateTime zdt = LocalDateTime.of(2012, 1, 1, 12, 0).atZone(ZoneId.of("Europe/Paris"));
+        DateTimePrintContext context = new DateTimePrintContext(zdt, Locale.FRENCH, DecimalStyle.STANDARD);
+        new ZoneTextPrinterParser(TextStyle.FULL).print(context, buf);
+        assertEquals(buf.toString(), TimeZone.getTimeZone("Europe/Paris").getDisplayName(false, TimeZone.LONG, Locale.FRENCH));
+    }
+
+    // more names than are cached, so some are removed and queried again
+    public void test_findDisplayName_matchesTimeZone() {
+        for (int repeat = 0; repeat < 2; repeat++) {
+            for (Locale locale : new Locale[] {Locale.ENGLISH, Locale.GERMAN}) {
+                for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+                    TimeZone tz = TimeZone.getTimeZone(zoneId);
+                    for (int tzstyle : new int[] {TimeZone.SHORT, TimeZone.LONG}) {
+                        assertEquals(ZoneTextPrinterParser.findDisplayName(zoneId, false, tzstyle, locale), tz.getDisplayName(false, tzstyle, locale));
+                        assertEquals(ZoneTextPrinterParser.findDisplayName(zoneId, true, tzstyle, locale), tz.getDisplayName(true, tzstyle, locale));
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -122,6 +122,37 @@ public class TestFixedZoneRules {
         assertEquals(test.getOffset((LocalDateTime) null), expectedOffset);
     }
 
+    @Test(dataProvider="rules")
+    public void test_getOffsetSeconds_epochSecond(ZoneRules test, ZoneOffset expectedOffset) {
+        assertEquals(test.getOffsetSeconds(INSTANT.getEpochSecond()), expectedOffset.getTotalSeconds());
+        assertEquals(test.getOffsetSeconds(Long.MIN_VALUE), expectedOffset.getTotalSeconds());
+    }
+
+    @Test(dataProvider="rules")
+    public void test_getOffsetSeconds_array(ZoneRules test, ZoneOffset expectedOffset) {
+        long[] epochSeconds = {INSTANT.getEpochSecond(), 0, -86400 * 365 * 200L};
+        int[] offsets = new int[3];
+        test.getOffsetSeconds(epochSeconds, offsets);
+        for (int i = 0; i < offsets.length; i++) {
+            assertEquals(offsets[i], expectedOffset.getTotalSeconds());
+        }
+        test.toLocalEpochSeconds(epochSeconds);
+        assertEquals(epochSeconds[0], INSTANT.getEpochSecond() + expectedOffset.getTotalSeconds());
+        assertEquals(epochSeconds[1], expectedOffset.getTotalSeconds());
+    }
+
+    @Test(expectedExceptions=IllegalArgumentException.class)
+    public void test_getOffsetSeconds_array_lengthMismatch() {
+        make(OFFSET_PONE).getOffsetSeconds(new long[2], new int[1]);
+    }
+
+    @Test(dataProvider="rules")
+    public void test_getOffsetSeconds_localEpochSecond(ZoneRules test, ZoneOffset expectedOffset) {
+        long localEpochSecond = LDT.toEpochSecond(ZoneOffset.UTC);
+        assertEquals(test.getOffsetSeconds(localEpochSecond, 0), expectedOffset.getTotalSeconds());
+        assertEquals(test.getOffsetSeconds(localEpochSecond, 3600 * 5), expectedOffset.getTotalSeconds());
+    }
+
     @Test(dataProvider="rules")
     public void test_getValidOffsets_LDT(ZoneRules test, ZoneOffset expectedOffset) {
         assertEquals(test.getValidOffsets(LDT).size(), 1);
@@ -159,6 +190,25 @@ public class TestFixedZoneRules {
         assertEquals(test.getDaylightSavings(null), Duration.ZERO);
     }
 
+    @Test(dataProvider="rules")
+    public void test_getValidOffsetCount(ZoneRules test, ZoneOffset expectedOffset) {
+        assertEquals(test.getValidOffsetCount(LDT), 1);
+        assertEquals(test.getValidOffsetCount(null), 1);
+    }
+
+    @Test(dataProvider="rules")
+    public void test_getFixedOffsetEpochSecond(ZoneRules test, ZoneOffset expectedOffset) {
+        assertEquals(test.getFixedOffsetEpochSecond(), Long.MIN_VALUE);
+        assertEquals(test.getMinimumOffset(), expectedOffset);
+        assertEquals(test.getMaximumOffset(), expectedOffset);
+    }
+
+    @Test(dataProvider="rules")
+    public void test_getDaylightSavingsSeconds(ZoneRules test, ZoneOffset expectedOffset) {
+        assertEquals(test.getDaylightSavingsSeconds(INSTANT.getEpochSecond()), 0);
+        assertEquals(test.getDaylightSavingsSeconds(Long.MIN_VALUE), 0);
+    }
+
     @Test(dataProvider="rules")
     public void test_isDaylightSavings_Instant(ZoneRules test, ZoneOffset expectedOffset) {
         assertEquals(test.isDaylightSavings(INSTANT), false);
@@ -190,6 +240,11 @@ public class TestFixedZoneRules {
         test.getTransitions().add(ZoneOffsetTransition.of(LDT, OFFSET_PONE, OFFSET_PTWO));
     }
 
+    @Test(dataProvider="rules")
+    public void test_transitionIterator(ZoneRules test, ZoneOffset expectedOffset) {
+        assertEquals(test.transitionIterator(Instant.MIN, Instant.MAX).hasNext(), false);
+    }
+
     @Test(dataProvider="rules")
     public void test_getTransitionRules(ZoneRules test, ZoneOffset expectedOffset) {
         assertEquals(test.getTransitionRules().size(), 0);
@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+
+/**
+ * Test ReloadingTzdbZoneRulesProvider.
+ */
+@Test
+public class TestReloadingTzdbZoneRulesProvider {
+
+    private static final Instant INSTANT = Instant.ofEpochSecond(1000000000L);
+
+    private File file;
+    private long lastModified;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        file = File.createTempFile("TZDB", ".dat");
+        lastModified = file.lastModified();
+        write("2000a", "Test/A", 1, "Test/B", 2);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        file.delete();
+    }
+
+    // writes a file of fixed rules, with a new modification time so the change is always seen
+    private void write(String versionId, Object... regionsAndHours) throws IOException {
+        write(file, versionId, regionsAndHours);
+        lastModified += 2000;
+        file.setLastModified(lastModified);
+    }
+
+    private static void write(File file, String versionId, Object... regionsAndHours) throws IOException {
+        SortedMap<String, ZoneRules> zones = new TreeMap<String, ZoneRules>();
+        for (int i = 0; i < regionsAndHours.length; i += 2) {
+            zones.put((String) regionsAndHours[i], rules((Integer) regionsAndHours[i + 1]));
+        }
+        Map<String, SortedMap<String, ZoneRules>> allBuiltZones = new TreeMap<String, SortedMap<String, ZoneRules>>();
+        allBuiltZones.put(versionId, zones);
+        OutputStream out = new FileOutputStream(file);
+        try {
+            TzdbZoneRulesCompiler.outputTzdbDat(out, allBuiltZones, zones.keySet(), new HashSet<ZoneRules>(zones.values()));
+        } finally {
+            out.close();
+        }
+    }
+
+    private static ZoneRules rules(int hours) {
+        ZoneOffset offset = ZoneOffset.ofHours(hours);
+        return ZoneRules.of(offset, offset, Collections.<ZoneOffsetTransition>emptyList(),
+                Collections.<ZoneOffsetTransition>emptyList(), Collections.<ZoneOffsetTransitionRule>emptyList());
+    }
+
+    private static int hours(ZoneRules rules) {
+        return rules.getOffset(INSTANT).getTotalSeconds() / 3600;
+    }
+
+    //-----------------------------------------------------------------------
+    // constructor
+    //-----------------------------------------------------------------------
+    public void test_load() {
+        ReloadingTzdbZoneRulesProvider test = new ReloadingTzdbZoneRulesProvider(file);
+        assertEquals(test.provideZoneIds(), new HashSet<String>(Arrays.asList("Test/A", "Test/B")));
+        assertEquals(hours(test.provideRules("Test/A", false)), 1);
+        assertEquals(hours(test.provideRules("Test/B", false)), 2);
+        assertEquals(test.provideVersions("Test/A").keySet(), new TreeSet<String>(Arrays.asList("2000a")));
+    }
+
+    public void test_load_forCaching() throws IOException {
+        ReloadingTzdbZoneRulesProvider test = new ReloadingTzdbZoneRulesProvider(file);
+        ZoneRules cached = test.provideRules("Test/A", true);
+        assertSame(test.provideRules("Test/A", true), cached);
+        assertEquals(hours(cached), 1);
+        assertEquals(cached, test.provideRules("Test/A", false));
+
+        write("2000b", "Test/A", 3, "Test/B", 2);
+        assertTrue(test.provideRefresh());
+        assertEquals(hours(cached), 3);
+        assertEquals(cached, test.provideRules("Test/A", false));
+    }
+
+    @Test(expectedExceptions=ZoneRulesException.class)
+    public void test_load_forCaching_unknownId() {
+        new ReloadingTzdbZoneRulesProvider(file).provideRules("Test/Unknown", true);
+    }
+
+    @Test(expectedExceptions=ZoneRulesException.class)
+    public void test_load_unknownId() {
+        new ReloadingTzdbZoneRulesProvider(file).provideRules("Test/Unknown", false);
+    }
+
+    @Test(expectedExceptions=NullPointerException.class)
+    public void test_load_nullFile() {
+        new ReloadingTzdbZoneRulesProvider(null);
+    }
+
+    @Test(expectedExceptions=IllegalArgumentException.class)
+    public void test_load_negativePoll() {
+        new ReloadingTzdbZoneRulesProvider(file, -1);
+    }
+
+    @Test(expectedExceptions=ZoneRulesException.class)
+    public void test_load_missingFile() {
+        file.delete();
+        new ReloadingTzdbZoneRulesProvider(file);
+    }
+
+    //-----------------------------------------------------------------------
+    // refresh
+    //-----------------------------------------------------------------------
+    public void test_refresh_unchanged() {
+        ReloadingTzdbZoneRulesProvider test = new ReloadingTzdbZoneRulesProvider(file);
+        assertFalse(test.provideRefresh());
+        assertEquals(hours(test.provideRules("Test/A", false)), 1);
+    }
+
+    public void test_refresh_changed() throws IOException {
+        ReloadingTzdbZoneRulesProvider test = new ReloadingTzdbZoneRulesProvider(file);
+        write("2000b", "Test/A", 3, "Test/C", 4);
+        assertTrue(test.provideRefresh());
+        assertFalse(test.provideRefresh());
+        assertEquals(hours(test.provideRules("Test/A", false)), 3);
+        assertEquals(hours(test.provideRules("Test/C", false)), 4);
+        // regions and versions from the earlier file remain available
+        assertEquals(hours(test.provideRules("Test/B", false)), 2);
+        assertEquals(test.provideZoneIds(), new HashSet<String>(Arrays.asList("Test/A", "Test/B", "Test/C")));
+        assertEquals(test.provideVersions("Test/A").keySet(), new TreeSet<String>(Arrays.asList("2000a", "2000b")));
+        assertEquals(hours(test.provideVersions("Test/A").get("2000a")), 1);
+        assertEquals(hours(test.provideVersions("Test/A").get("2000b")), 3);
+        assertEquals(test.provideVersions("Test/B").keySet(), new TreeSet<String>(Arrays.asList("2000a")));
+    }
+
+    public void test_refresh_sameVersionReplaced() throws IOException {
+        ReloadingTzdbZoneRulesProvider test = new ReloadingTzdbZoneRulesProvider(file);
+        write("2000a", "Test/A", 5, "Test/B", 6);
+        assertTrue(test.provideRefresh());
+        assertEquals(hours(test.provideRules("Test/A", false)), 5);
+        assertEquals(test.provideVersions("Test/A").size(), 1);
+        assertEquals(hours(test.provideVersions("Test/A").get("2000a")), 5);
+    }
+
+    public void test_refresh_corruptFileKeepsRules() throws IOException {
+        ReloadingTzdbZoneRulesProvider test = new ReloadingTzdbZoneRulesProvider(file);
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[] {2, 0, 4, 'T', 'Z', 'D', 'B', 0});
+        } finally {
+            out.close();
+        }
+        lastModified += 2000;
+        file.setLastModified(lastModified);
+        assertFalse(test.provideRefresh());
+        assertEquals(hours(test.provideRules("Test/A", false)), 1);
+        assertFalse(test.provideRefresh());
+        assertEquals(hours(test.provideRules("Test/A", false)), 1);
+        write("2000b", "Test/A", 3, "Test/B", 2);
+        assertTrue(test.provideRefresh());
+        assertEquals(hours(test.provideRules("Test/A", false)), 3);
+    }
+
+    public void test_refresh_polling() throws Exception {
+        ReloadingTzdbZoneRulesProvider test = new ReloadingTzdbZoneRulesProvider(file, 10);
+        try {
+            write("2000b", "Test/A", 3, "Test/B", 2);
+            long end = System.currentTimeMillis() + 10000;
+            while (hours(test.provideRules("Test/A", false)) == 1 && System.currentTimeMillis() < end) {
+                Thread.sleep(10);
+            }
+            assertEquals(hours(test.provideRules("Test/A", false)), 3);
+            assertFalse(test.provideRefresh());
+        } finally {
+            test.stopPolling();
+        }
+    }
+
+    public void test_refresh_concurrentLookups() throws Exception {
+        final ReloadingTzdbZoneRulesProvider test = new ReloadingTzdbZoneRulesProvider(file);
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    while (done.get() == false) {
+                        int hours = hours(test.provideRules("Test/A", false));
+                        if (hours != 1 && hours != 3) {
+                            throw new AssertionError("Unexpected offset: " + hours);
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.set(ex);
+                }
+            }
+        };
+        reader.start();
+        try {
+            for (int i = 0; i < 50; i++) {
+                write(i % 2 == 0 ? "2000b" : "2000a", "Test/A", i % 2 == 0 ? 3 : 1, "Test/B", 2);
+                assertTrue(test.provideRefresh());
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+        }
+        assertNull(failure.get());
+    }
+
+    //-----------------------------------------------------------------------
+    // registered
+    //-----------------------------------------------------------------------
+    public void test_registered_existingZonePicksUpNewRules() throws IOException {
+        // the file must remain, as the provider stays registered for the other tests
+        File registeredFile = File.createTempFile("TZDB", ".dat");
+        registeredFile.deleteOnExit();
+        write(registeredFile, "2000a", "Test/Reloading", 1);
+        ZoneRulesProvider.registerProvider(new ReloadingTzdbZoneRulesProvider(registeredFile));
+        ZoneId zone = ZoneId.of("Test/Reloading");
+        assertEquals(hours(zone.getRules()), 1);
+        assertSame(zone.getRules(), zone.getRules());
+
+        write(registeredFile, "2000b", "Test/Reloading", 2, "Test/ReloadingAdded", 3);
+        registeredFile.setLastModified(registeredFile.lastModified() + 2000);
+        assertTrue(ZoneRulesProvider.refresh());
+        assertEquals(hours(zone.getRules()), 2);
+        assertTrue(ZoneRulesProvider.getAvailableZoneIds().contains("Test/ReloadingAdded"));
+        assertEquals(hours(ZoneId.of("Test/ReloadingAdded").getRules()), 3);
+        assertEquals(ZoneRulesProvider.getVersions("Test/Reloading").keySet(), new TreeSet<String>(Arrays.asList("2000a", "2000b")));
+    }
+
+}
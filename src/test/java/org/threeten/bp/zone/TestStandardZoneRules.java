@@ -36,14 +36,18 @@ import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
 
 import org.testng.annotations.Test;
 import org.threeten.bp.DayOfWeek;
@@ -437,6 +441,22 @@ public class TestStandardZoneRules {
         }
     }
 
+    public void test_London_nextTransition_rulesBased_beyondCache() {
+        ZoneRules test = europeLondon();
+        List<ZoneOffsetTransitionRule> rules = test.getTransitionRules();
+        // repeat to check the years are evicted and recreated correctly
+        for (int repeat = 0; repeat < 2; repeat++) {
+            for (int year = 2095; year < 2250; year++) {
+                ZoneOffsetTransition a = rules.get(0).createTransition(year);
+                ZoneOffsetTransition b = rules.get(1).createTransition(year);
+                assertEquals(test.nextTransition(a.getInstant()), b);
+                assertEquals(test.previousTransition(b.getInstant()), a);
+                assertEquals(test.getOffset(a.getInstant()), a.getOffsetAfter());
+                assertEquals(test.getOffset(b.getInstant().minusSeconds(1)), b.getOffsetBefore());
+            }
+        }
+    }
+
     public void test_London_nextTransition_lastYear() {
         ZoneRules test = europeLondon();
         List<ZoneOffsetTransitionRule> rules = test.getTransitionRules();
@@ -1091,6 +1111,350 @@ public class TestStandardZoneRules {
         assertEquals(test.nextTransition(last.getInstant()), null);
     }
 
+    //-------------------------------------------------------------------------
+    public void test_getOffset_allZones_matchesTransitions() {
+        Instant start = createInstant(1899, 6, 1, ZoneOffset.UTC);
+        Instant end = createInstant(2101, 6, 1, ZoneOffset.UTC);
+        for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+            ZoneRules test = ZoneRulesProvider.getRules(zoneId, false);
+            ZoneOffsetTransition trans = test.nextTransition(start);
+            Instant previous = start;
+            while (trans != null && trans.getInstant().isBefore(end)) {
+                long epochSec = trans.toEpochSecond();
+                assertEquals(test.getOffset(Instant.ofEpochSecond(epochSec - 1)), trans.getOffsetBefore(), zoneId + " " + trans);
+                assertEquals(test.getOffset(Instant.ofEpochSecond(epochSec)), trans.getOffsetAfter(), zoneId + " " + trans);
+                long middle = previous.getEpochSecond() + (epochSec - previous.getEpochSecond()) / 2;
+                assertEquals(test.getOffset(Instant.ofEpochSecond(middle)), trans.getOffsetBefore(), zoneId + " " + trans);
+                previous = trans.getInstant();
+                trans = test.nextTransition(previous);
+            }
+        }
+    }
+
+    public void test_getOffset_allZones_farFuture_matchesTransitionRules() {
+        for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+            ZoneRules test = ZoneRulesProvider.getRules(zoneId, false);
+            List<ZoneOffsetTransitionRule> rules = test.getTransitionRules();
+            for (int year = 2099; year <= 2400; year++) {
+                for (ZoneOffsetTransitionRule rule : rules) {
+                    ZoneOffsetTransition trans = rule.createTransition(year);
+                    long epochSec = trans.toEpochSecond();
+                    assertEquals(test.getOffset(Instant.ofEpochSecond(epochSec - 1)), trans.getOffsetBefore(), zoneId + " " + trans);
+                    assertEquals(test.getOffset(Instant.ofEpochSecond(epochSec)), trans.getOffsetAfter(), zoneId + " " + trans);
+                    assertEquals(test.getOffsetSeconds(epochSec), trans.getOffsetAfter().getTotalSeconds(), zoneId + " " + trans);
+                }
+            }
+        }
+    }
+
+    public void test_getTransition_allZones_matchesTransitions() {
+        Instant start = createInstant(1899, 6, 1, ZoneOffset.UTC);
+        Instant end = createInstant(2101, 6, 1, ZoneOffset.UTC);
+        for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+            ZoneRules test = ZoneRulesProvider.getRules(zoneId, false);
+            ZoneOffsetTransition trans = test.nextTransition(start);
+            while (trans != null && trans.getInstant().isBefore(end)) {
+                LocalDateTime earlier = (trans.isGap() ? trans.getDateTimeBefore() : trans.getDateTimeAfter());
+                LocalDateTime later = (trans.isGap() ? trans.getDateTimeAfter() : trans.getDateTimeBefore());
+                assertEquals(test.getTransition(earlier), trans, zoneId + " " + trans);
+                assertEquals(test.getTransition(earlier.plusNanos(1)), trans, zoneId + " " + trans);
+                assertEquals(test.getTransition(later.minusNanos(1)), trans, zoneId + " " + trans);
+                assertEquals(test.getOffset(earlier), trans.getOffsetBefore(), zoneId + " " + trans);
+                assertEquals(test.getValidOffsets(earlier), trans.getValidOffsets(), zoneId + " " + trans);
+                ZoneOffsetTransition next = test.nextTransition(trans.getInstant());
+                if (next == null || next.getInstant().getEpochSecond() - trans.getInstant().getEpochSecond() > 86400 * 2) {
+                    assertEquals(test.getTransition(later), null, zoneId + " " + trans);
+                    assertEquals(test.getOffset(later), trans.getOffsetAfter(), zoneId + " " + trans);
+                    assertEquals(test.getOffset(earlier.minusNanos(1)), trans.getOffsetBefore(), zoneId + " " + trans);
+                }
+                trans = next;
+            }
+        }
+    }
+
+    public void test_getValidOffsetCount_allZones_matchesValidOffsets() {
+        Instant start = createInstant(1850, 1, 1, ZoneOffset.UTC);
+        Instant end = createInstant(2150, 1, 1, ZoneOffset.UTC);
+        ZoneOffset[] candidates = new ZoneOffset[] {ZoneOffset.UTC, ZoneOffset.ofHours(1), null};
+        for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+            ZoneRules test = ZoneRulesProvider.getRules(zoneId, false);
+            Iterator<ZoneOffsetTransition> it = test.transitionIterator(start, end);
+            while (it.hasNext()) {
+                ZoneOffsetTransition trans = it.next();
+                LocalDateTime[] samples = new LocalDateTime[] {
+                    trans.getDateTimeBefore().minusSeconds(1), trans.getDateTimeBefore(),
+                    trans.getDateTimeAfter().minusSeconds(1), trans.getDateTimeAfter(),
+                };
+                for (LocalDateTime ldt : samples) {
+                    List<ZoneOffset> validOffsets = test.getValidOffsets(ldt);
+                    if (test.getValidOffsetCount(ldt) != validOffsets.size()) {
+                        fail(zoneId + " " + ldt);
+                    }
+                    candidates[2] = trans.getOffsetAfter();
+                    for (ZoneOffset offset : candidates) {
+                        if (test.isValidOffset(ldt, offset) != validOffsets.contains(offset)) {
+                            fail(zoneId + " " + ldt + " " + offset);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void test_getValidOffsetCount_London() {
+        ZoneRules test = europeLondon();
+        assertEquals(test.getValidOffsetCount(LocalDateTime.of(2008, 3, 30, 0, 59, 59)), 1);
+        assertEquals(test.getValidOffsetCount(LocalDateTime.of(2008, 3, 30, 1, 0)), 0);
+        assertEquals(test.getValidOffsetCount(LocalDateTime.of(2008, 3, 30, 2, 0)), 1);
+        assertEquals(test.getValidOffsetCount(LocalDateTime.of(2008, 10, 26, 0, 59, 59)), 1);
+        assertEquals(test.getValidOffsetCount(LocalDateTime.of(2008, 10, 26, 1, 0)), 2);
+        assertEquals(test.getValidOffsetCount(LocalDateTime.of(2008, 10, 26, 2, 0)), 1);
+    }
+
+    public void test_getFixedOffsetEpochSecond_London() {
+        ZoneRules test = europeLondon();
+        assertEquals(test.getFixedOffsetEpochSecond(), Long.MAX_VALUE);
+        assertEquals(test.getMinimumOffset(), ZoneOffset.ofHoursMinutesSeconds(0, -1, -15));
+        assertEquals(test.getMaximumOffset(), ZoneOffset.ofHours(2));
+    }
+
+    public void test_getFixedOffsetEpochSecond_Tokyo() {
+        ZoneRules test = ZoneId.of("Asia/Tokyo").getRules();
+        List<ZoneOffsetTransition> trans = test.getTransitions();
+        ZoneOffsetTransition last = trans.get(trans.size() - 1);
+        assertEquals(test.getFixedOffsetEpochSecond(), last.toEpochSecond());
+        assertEquals(test.getOffset(createInstant(2300, 1, 1, ZoneOffset.UTC)), ZoneOffset.ofHours(9));
+        assertEquals(test.getOffset(LocalDateTime.of(2300, 1, 1, 0, 0)), ZoneOffset.ofHours(9));
+        assertEquals(test.getMaximumOffset(), ZoneOffset.ofHours(10));
+    }
+
+    public void test_getFixedOffsetEpochSecond_allZones_matchesTransitions() {
+        for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+            ZoneRules test = ZoneRulesProvider.getRules(zoneId, false);
+            List<ZoneOffsetTransition> trans = test.getTransitions();
+            List<ZoneOffsetTransitionRule> rules = test.getTransitionRules();
+            long fixed = test.getFixedOffsetEpochSecond();
+            int min = test.getOffset(Instant.MIN).getTotalSeconds();
+            int max = min;
+            for (ZoneOffsetTransition t : trans) {
+                min = Math.min(min, t.getOffsetAfter().getTotalSeconds());
+                max = Math.max(max, t.getOffsetAfter().getTotalSeconds());
+            }
+            for (ZoneOffsetTransitionRule rule : rules) {
+                min = Math.min(min, rule.getOffsetAfter().getTotalSeconds());
+                max = Math.max(max, rule.getOffsetAfter().getTotalSeconds());
+            }
+            assertEquals(test.getMinimumOffset().getTotalSeconds(), min, zoneId);
+            assertEquals(test.getMaximumOffset().getTotalSeconds(), max, zoneId);
+            if (rules.size() > 0) {
+                assertEquals(fixed, Long.MAX_VALUE, zoneId);
+            } else if (trans.isEmpty()) {
+                assertEquals(fixed, Long.MIN_VALUE, zoneId);
+                assertEquals(min, max, zoneId);
+            } else {
+                ZoneOffsetTransition last = trans.get(trans.size() - 1);
+                assertEquals(fixed, last.toEpochSecond(), zoneId);
+                assertEquals(test.nextTransition(last.getInstant()), null, zoneId);
+                assertEquals(test.getOffset(Instant.ofEpochSecond(fixed - 1)), last.getOffsetBefore(), zoneId);
+                assertEquals(test.getOffset(Instant.ofEpochSecond(fixed)), last.getOffsetAfter(), zoneId);
+                assertEquals(test.getOffsetSeconds(Long.MAX_VALUE / 2), last.getOffsetAfter().getTotalSeconds(), zoneId);
+                LocalDateTime earlier = last.isGap() ? last.getDateTimeBefore() : last.getDateTimeAfter();
+                LocalDateTime later = last.isGap() ? last.getDateTimeAfter() : last.getDateTimeBefore();
+                assertEquals(test.getTransition(earlier), last, zoneId);
+                assertEquals(test.getTransition(later.minusNanos(1)), last, zoneId);
+                assertEquals(test.getValidOffsets(later), Collections.singletonList(last.getOffsetAfter()), zoneId);
+                assertEquals(test.getValidOffsets(later.plusYears(300)), Collections.singletonList(last.getOffsetAfter()), zoneId);
+            }
+        }
+    }
+
+    public void test_getDaylightSavingsSeconds_allZones_matchesOffsets() {
+        long start = createInstant(1850, 1, 1, ZoneOffset.UTC).getEpochSecond();
+        long end = createInstant(2150, 1, 1, ZoneOffset.UTC).getEpochSecond();
+        for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+            ZoneRules test = ZoneRulesProvider.getRules(zoneId, false);
+            List<Long> samples = new ArrayList<Long>();
+            for (long epochSec = start; epochSec < end; epochSec += 86400L * 17 + 3607) {
+                samples.add(epochSec);
+            }
+            for (ZoneOffsetTransition trans : test.getTransitions()) {
+                samples.add(trans.toEpochSecond() - 1);
+                samples.add(trans.toEpochSecond());
+            }
+            Iterator<ZoneOffsetTransition> it = test.transitionIterator(Instant.ofEpochSecond(start), Instant.ofEpochSecond(end));
+            while (it.hasNext()) {
+                long epochSec = it.next().toEpochSecond();
+                samples.add(epochSec - 1);
+                samples.add(epochSec);
+            }
+            for (long epochSec : samples) {
+                Instant instant = Instant.ofEpochSecond(epochSec);
+                int expected = test.getOffset(instant).getTotalSeconds() - test.getStandardOffset(instant).getTotalSeconds();
+                if (test.getDaylightSavingsSeconds(epochSec) != expected ||
+                        test.getDaylightSavings(instant).getSeconds() != expected ||
+                        test.isDaylightSavings(instant) != (expected != 0)) {
+                    fail(zoneId + " " + instant);
+                }
+            }
+        }
+    }
+
+    public void test_transitionIterator_allZones_matchesNextTransition() {
+        Instant start = createInstant(1800, 1, 1, ZoneOffset.UTC);
+        Instant end = createInstant(2150, 1, 1, ZoneOffset.UTC);
+        for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+            ZoneRules test = ZoneRulesProvider.getRules(zoneId, false);
+            Iterator<ZoneOffsetTransition> it = test.transitionIterator(start, end);
+            ZoneOffsetTransition trans = test.nextTransition(start.minusSeconds(1));
+            while (trans != null && trans.getInstant().isBefore(end)) {
+                assertTrue(it.hasNext(), zoneId + " " + trans);
+                assertEquals(it.next(), trans, zoneId);
+                trans = test.nextTransition(trans.getInstant());
+            }
+            assertFalse(it.hasNext(), zoneId);
+        }
+    }
+
+    public void test_transitionIterator_London_window() {
+        ZoneRules test = europeLondon();
+        ZoneOffsetTransition first = test.nextTransition(createInstant(2008, 1, 1, ZoneOffset.UTC));
+        ZoneOffsetTransition second = test.nextTransition(first.getInstant());
+        ZoneOffsetTransition third = test.nextTransition(second.getInstant());
+        // start inclusive, end exclusive
+        Iterator<ZoneOffsetTransition> it = test.transitionIterator(first.getInstant(), third.getInstant());
+        assertEquals(it.next(), first);
+        assertEquals(it.next(), second);
+        assertFalse(it.hasNext());
+        // start after the transition by a nano
+        it = test.transitionIterator(first.getInstant().plusNanos(1), third.getInstant().plusNanos(1));
+        assertEquals(it.next(), second);
+        assertEquals(it.next(), third);
+        assertFalse(it.hasNext());
+    }
+
+    public void test_transitionIterator_London_lastRules() {
+        ZoneRules test = europeLondon();
+        Iterator<ZoneOffsetTransition> it = test.transitionIterator(
+                createInstant(2200, 1, 1, ZoneOffset.UTC), createInstant(2202, 1, 1, ZoneOffset.UTC));
+        assertEquals(it.next().getDateTimeBefore(), LocalDateTime.of(2200, 3, 30, 1, 0));
+        assertEquals(it.next().getDateTimeBefore(), LocalDateTime.of(2200, 10, 26, 2, 0));
+        assertEquals(it.next().getDateTimeBefore(), LocalDateTime.of(2201, 3, 29, 1, 0));
+        assertEquals(it.next().getDateTimeBefore(), LocalDateTime.of(2201, 10, 25, 2, 0));
+        assertFalse(it.hasNext());
+    }
+
+    public void test_transitionIterator_emptyWindow() {
+        ZoneRules test = europeLondon();
+        Instant instant = createInstant(2008, 1, 1, ZoneOffset.UTC);
+        assertFalse(test.transitionIterator(instant, instant).hasNext());
+        assertFalse(test.transitionIterator(instant, instant.minusSeconds(86400 * 365)).hasNext());
+    }
+
+    @Test(expectedExceptions=NoSuchElementException.class)
+    public void test_transitionIterator_nextWhenEmpty() {
+        Instant instant = createInstant(2008, 1, 1, ZoneOffset.UTC);
+        europeLondon().transitionIterator(instant, instant).next();
+    }
+
+    @Test(expectedExceptions=UnsupportedOperationException.class)
+    public void test_transitionIterator_remove() {
+        europeLondon().transitionIterator(Instant.EPOCH, createInstant(2008, 1, 1, ZoneOffset.UTC)).remove();
+    }
+
+    public void test_getOffsetSeconds_allZones_matchesObjectApi() {
+        long start = createInstant(1850, 1, 1, ZoneOffset.UTC).getEpochSecond();
+        long end = createInstant(2150, 1, 1, ZoneOffset.UTC).getEpochSecond();
+        for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+            ZoneId zone = ZoneId.of(zoneId);
+            ZoneRules test = zone.getRules();
+            List<Long> samples = new ArrayList<Long>();
+            for (long epochSec = start; epochSec < end; epochSec += 86400L * 17 + 3607) {
+                if (test.getOffsetSeconds(epochSec) != test.getOffset(Instant.ofEpochSecond(epochSec)).getTotalSeconds()) {
+                    fail(zoneId + " " + Instant.ofEpochSecond(epochSec));
+                }
+            }
+            ZoneOffsetTransition trans = test.nextTransition(Instant.ofEpochSecond(start));
+            while (trans != null && trans.toEpochSecond() < end) {
+                samples.add(trans.toEpochSecond() - 1);
+                samples.add(trans.toEpochSecond());
+                samples.add(trans.toEpochSecond() + 1);
+                trans = test.nextTransition(trans.getInstant());
+            }
+            for (long epochSec : samples) {
+                ZoneOffset offset = test.getOffset(Instant.ofEpochSecond(epochSec));
+                if (test.getOffsetSeconds(epochSec) != offset.getTotalSeconds()) {
+                    fail(zoneId + " " + Instant.ofEpochSecond(epochSec));
+                }
+                // the local epoch-seconds either side of the transition cover each end of every gap and overlap
+                for (long localSec = epochSec + offset.getTotalSeconds() - 1; localSec <= epochSec + offset.getTotalSeconds() + 1; localSec++) {
+                    LocalDateTime ldt = LocalDateTime.ofEpochSecond(localSec, 0, ZoneOffset.UTC);
+                    for (ZoneOffset preferred : new ZoneOffset[] {offset, ZoneOffset.UTC}) {
+                        ZoneOffset expected = ZonedDateTime.ofLocal(ldt, zone, preferred).getOffset();
+                        if (test.getOffsetSeconds(localSec, preferred.getTotalSeconds()) != expected.getTotalSeconds()) {
+                            fail(zoneId + " " + ldt + " " + preferred);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void test_getOffsetSeconds_array_allZones() {
+        long start = createInstant(1850, 1, 1, ZoneOffset.UTC).getEpochSecond();
+        long end = createInstant(2150, 1, 1, ZoneOffset.UTC).getEpochSecond();
+        long[] sorted = new long[20000];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = start + (end - start) / sorted.length * i;
+        }
+        long[] unsorted = new long[2000];
+        Random random = new Random(1);
+        for (int i = 0; i < unsorted.length; i++) {
+            unsorted[i] = start + (long) (random.nextDouble() * (end - start));
+        }
+        for (String zoneId : ZoneRulesProvider.getAvailableZoneIds()) {
+            ZoneRules test = ZoneRulesProvider.getRules(zoneId, false);
+            assertOffsetSecondsArray(test, zoneId, sorted);
+            assertOffsetSecondsArray(test, zoneId, unsorted);
+            // every transition, and the seconds either side
+            List<Long> transitions = new ArrayList<Long>();
+            ZoneOffsetTransition trans = test.nextTransition(Instant.ofEpochSecond(start));
+            while (trans != null && trans.toEpochSecond() < end) {
+                transitions.add(trans.toEpochSecond() - 1);
+                transitions.add(trans.toEpochSecond());
+                transitions.add(trans.toEpochSecond() + 1);
+                trans = test.nextTransition(trans.getInstant());
+            }
+            long[] array = new long[transitions.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = transitions.get(i);
+            }
+            assertOffsetSecondsArray(test, zoneId, array);
+        }
+    }
+
+    private void assertOffsetSecondsArray(ZoneRules test, String zoneId, long[] epochSeconds) {
+        int[] offsets = new int[epochSeconds.length];
+        test.getOffsetSeconds(epochSeconds, offsets);
+        long[] locals = epochSeconds.clone();
+        test.toLocalEpochSeconds(locals);
+        for (int i = 0; i < epochSeconds.length; i++) {
+            int expected = test.getOffsetSeconds(epochSeconds[i]);
+            if (offsets[i] != expected || locals[i] != epochSeconds[i] + expected) {
+                fail(zoneId + " " + Instant.ofEpochSecond(epochSeconds[i]));
+            }
+        }
+    }
+
+    @Test(expectedExceptions=IllegalArgumentException.class)
+    public void test_getOffsetSeconds_array_lengthMismatch() {
+        europeLondon().getOffsetSeconds(new long[2], new int[1]);
+    }
+
+    @Test(expectedExceptions=NullPointerException.class)
+    public void test_toLocalEpochSeconds_null() {
+        europeLondon().toLocalEpochSeconds(null);
+    }
+
     //-------------------------------------------------------------------------
     @Test(expectedExceptions=UnsupportedOperationException.class)
     public void test_getTransitions_immutable() {
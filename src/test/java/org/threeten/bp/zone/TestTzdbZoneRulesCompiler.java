@@ -32,22 +32,41 @@
 package org.threeten.bp.zone;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
 import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.testng.annotations.Test;
 import org.threeten.bp.DayOfWeek;
 import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
 import org.threeten.bp.LocalTime;
 import org.threeten.bp.Month;
 import org.threeten.bp.Year;
+import org.threeten.bp.ZoneOffset;
 import org.threeten.bp.zone.TzdbZoneRulesCompiler.LeapSecondRule;
 import org.threeten.bp.zone.TzdbZoneRulesCompiler.TZDBMonthDayTime;
 import org.threeten.bp.zone.TzdbZoneRulesCompiler.TZDBRule;
+import org.threeten.bp.zone.TzdbZoneRulesCompiler.ZoneRulesCache;
 import org.threeten.bp.zone.ZoneOffsetTransitionRule.TimeDefinition;
 
 /**
@@ -470,4 +489,169 @@ public class TestTzdbZoneRulesCompiler {
         }
     }
 
+    //-----------------------------------------------------------------------
+    // compile()
+    //-----------------------------------------------------------------------
+    private static final String SOURCE =
+            "Rule\tEU\t1981\tmax\t-\tMar\tlastSun\t 1:00u\t1:00\tS\n" +
+            "Rule\tEU\t1996\tmax\t-\tOct\tlastSun\t 1:00u\t0\t-\n" +
+            "Rule\tUS\t2007\tmax\t-\tMar\tSun>=8\t2:00\t1:00\tD\n" +
+            "Rule\tUS\t2007\tmax\t-\tNov\tSun>=1\t2:00\t0\tS\n" +
+            "Zone\tEurope/London\t-0:01:15 -\tLMT\t1847 Dec  1\n" +
+            "\t\t\t 0:00\tEU\tGMT/BST\n" +
+            "Zone\tEurope/Paris\t0:09:21 -\tLMT\t1891 Mar 16\n" +
+            "\t\t\t1:00\tEU\tCE%sT\n" +
+            "Zone\tAmerica/New_York\t-4:56:02 -\tLMT\t1883 Nov 18 12:03:58\n" +
+            "\t\t\t-5:00\tUS\tE%sT\n" +
+            "Link\tEurope/London\tEurope/Belfast\n";
+
+    private static TzdbZoneRulesCompiler compile(File dir, String source, ZoneRulesCache cache, ExecutorService executor) throws Exception {
+        File sourceFile = new File(dir, "europe");
+        File leapSecondsFile = new File(dir, "leapseconds");
+        write(sourceFile, source);
+        write(leapSecondsFile, "Leap\t1972\tJun\t30\t23:59:60\t+\tS\n");
+        TzdbZoneRulesCompiler compiler = new TzdbZoneRulesCompiler("2010c", Arrays.asList(sourceFile), leapSecondsFile, false);
+        compiler.setCache(cache);
+        compiler.setExecutor(executor);
+        compiler.compile();
+        sourceFile.delete();
+        leapSecondsFile.delete();
+        return compiler;
+    }
+
+    private static void write(File file, String text) throws IOException {
+        Writer out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            out.write(text);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static File createTempDir() throws IOException {
+        File dir = File.createTempFile("tzdb", "");
+        dir.delete();
+        dir.mkdir();
+        return dir;
+    }
+
+    @Test
+    public void test_compile() throws Exception {
+        File dir = createTempDir();
+        try {
+            SortedMap<String, ZoneRules> zones = compile(dir, SOURCE, null, null).getZones();
+            assertEquals(zones.keySet(), new TreeSet<String>(Arrays.asList("America/New_York", "Europe/Belfast", "Europe/London", "Europe/Paris")));
+            assertSame(zones.get("Europe/Belfast"), zones.get("Europe/London"));
+            ZoneRules london = zones.get("Europe/London");
+            assertEquals(london.getOffset(LocalDateTime.of(2010, 7, 1, 12, 0)), ZoneOffset.ofHours(1));
+            assertEquals(london.getOffset(LocalDateTime.of(2010, 12, 1, 12, 0)), ZoneOffset.UTC);
+            ZoneRules newYork = zones.get("America/New_York");
+            assertEquals(newYork.getOffset(LocalDateTime.of(2010, 7, 1, 12, 0)), ZoneOffset.ofHours(-4));
+        } finally {
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void test_compile_parallel() throws Exception {
+        File dir = createTempDir();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            SortedMap<String, ZoneRules> expected = compile(dir, SOURCE, null, null).getZones();
+            for (int i = 0; i < 10; i++) {
+                assertEquals(compile(dir, SOURCE, null, executor).getZones(), expected);
+            }
+        } finally {
+            executor.shutdown();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void test_compile_cacheOnlyBuildsChangedZones() throws Exception {
+        File dir = createTempDir();
+        try {
+            ZoneRulesCache cache = new ZoneRulesCache();
+            compile(dir, SOURCE, cache, null);
+            assertEquals(cache.getBuildCount(), 3);
+            assertEquals(cache.getReuseCount(), 0);
+
+            // whitespace and comments do not affect the cache
+            String reformatted = SOURCE.replace("\t", "  ").replace("\n", "  # comment\n");
+            assertEquals(compile(dir, reformatted, cache, null).getZones(), compile(dir, SOURCE, null, null).getZones());
+            assertEquals(cache.getBuildCount(), 3);
+            assertEquals(cache.getReuseCount(), 3);
+
+            // changing a zone line rebuilds the zone
+            String changedZone = SOURCE.replace("-4:56:02", "-4:56:01");
+            SortedMap<String, ZoneRules> zones = compile(dir, changedZone, cache, null).getZones();
+            assertEquals(zones, compile(dir, changedZone, null, null).getZones());
+            assertEquals(cache.getBuildCount(), 4);
+            assertEquals(cache.getReuseCount(), 5);
+
+            // changing a rule line rebuilds the zones using the rule
+            String changedRule = SOURCE.replace("Mar\tlastSun\t 1:00u", "Mar\tlastSun\t 2:00u");
+            zones = compile(dir, changedRule, cache, null).getZones();
+            assertEquals(zones, compile(dir, changedRule, null, null).getZones());
+            assertEquals(cache.getBuildCount(), 6);
+            assertEquals(cache.getReuseCount(), 6);
+        } finally {
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void test_compile_cacheSavedAndLoaded() throws Exception {
+        File dir = createTempDir();
+        File cacheFile = new File(dir, "cache");
+        try {
+            ZoneRulesCache cache = new ZoneRulesCache();
+            SortedMap<String, ZoneRules> expected = compile(dir, SOURCE, cache, null).getZones();
+            cache.save(cacheFile, false);
+
+            ZoneRulesCache loaded = new ZoneRulesCache();
+            loaded.load(cacheFile, false);
+            assertEquals(compile(dir, SOURCE, loaded, null).getZones(), expected);
+            assertEquals(loaded.getBuildCount(), 0);
+            assertEquals(loaded.getReuseCount(), 3);
+
+            // an invalid file is ignored
+            write(cacheFile, "invalid");
+            ZoneRulesCache invalid = new ZoneRulesCache();
+            invalid.load(cacheFile, false);
+            assertEquals(compile(dir, SOURCE, invalid, null).getZones(), expected);
+            assertEquals(invalid.getBuildCount(), 3);
+        } finally {
+            cacheFile.delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void test_cache_stamp() throws Exception {
+        // reads the nested and anonymous classes as well as the top-level ones
+        String stamp = ZoneRulesCache.stamp();
+        assertEquals(stamp.length(), 64);
+        assertEquals(ZoneRulesCache.stamp(), stamp);
+    }
+
+    @Test
+    public void test_outputTzdbDat_independentOfRulesOrder() throws Exception {
+        File dir = createTempDir();
+        try {
+            SortedMap<String, ZoneRules> zones = compile(dir, SOURCE, null, null).getZones();
+            Map<String, SortedMap<String, ZoneRules>> allBuiltZones = new TreeMap<String, SortedMap<String, ZoneRules>>();
+            allBuiltZones.put("2010c", zones);
+            List<ZoneRules> rules = new ArrayList<ZoneRules>(new LinkedHashSet<ZoneRules>(zones.values()));
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            TzdbZoneRulesCompiler.outputTzdbDat(expected, allBuiltZones, zones.keySet(), new LinkedHashSet<ZoneRules>(rules));
+            Collections.reverse(rules);
+            ByteArrayOutputStream reversed = new ByteArrayOutputStream();
+            TzdbZoneRulesCompiler.outputTzdbDat(reversed, allBuiltZones, zones.keySet(), new LinkedHashSet<ZoneRules>(rules));
+            assertEquals(reversed.toByteArray(), expected.toByteArray());
+        } finally {
+            dir.delete();
+        }
+    }
+
 }
@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Test TzdbZoneRulesProvider.
+ */
+@Test
+public class TestTzdbZoneRulesProvider {
+
+    private File file;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        file = File.createTempFile("TZDB", ".dat");
+        InputStream in = openTzdb();
+        try {
+            OutputStream out = new FileOutputStream(file);
+            try {
+                byte[] buf = new byte[4096];
+                int count;
+                while ((count = in.read(buf)) != -1) {
+                    out.write(buf, 0, count);
+                }
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    @AfterClass
+    public void tearDown() {
+        file.delete();
+    }
+
+    private InputStream openTzdb() {
+        return TzdbZoneRulesProvider.class.getClassLoader().getResourceAsStream("org/threeten/bp/TZDB.dat");
+    }
+
+    private TzdbZoneRulesProvider loadTzdb() throws IOException {
+        InputStream in = openTzdb();
+        try {
+            return new TzdbZoneRulesProvider(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static SortedMap<String, ZoneRules> latestRules(TzdbZoneRulesProvider provider) {
+        SortedMap<String, ZoneRules> map = new TreeMap<String, ZoneRules>();
+        for (String zoneId : provider.provideZoneIds()) {
+            map.put(zoneId, provider.provideRules(zoneId, false));
+        }
+        return map;
+    }
+
+    private static void assertSameRules(TzdbZoneRulesProvider test, SortedMap<String, ZoneRules> expected) {
+        assertEquals(test.provideZoneIds(), expected.keySet());
+        for (Map.Entry<String, ZoneRules> entry : expected.entrySet()) {
+            assertEquals(test.provideRules(entry.getKey(), false), entry.getValue(), entry.getKey());
+        }
+    }
+
+    // writes version 1 of the format, as output by earlier versions of the compiler
+    private static byte[] writeVersion1(String versionId, SortedMap<String, ZoneRules> zones) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        out.writeByte(1);
+        out.writeUTF("TZDB");
+        out.writeShort(1);
+        out.writeUTF(versionId);
+        out.writeShort(zones.size());
+        for (String regionId : zones.keySet()) {
+            out.writeUTF(regionId);
+        }
+        List<ZoneRules> rulesList = new ArrayList<ZoneRules>(new HashSet<ZoneRules>(zones.values()));
+        out.writeShort(rulesList.size());
+        for (ZoneRules rules : rulesList) {
+            ByteArrayOutputStream ruleBytes = new ByteArrayOutputStream();
+            DataOutputStream ruleOut = new DataOutputStream(ruleBytes);
+            Ser.write(rules, ruleOut);
+            ruleOut.close();
+            out.writeShort(ruleBytes.size());
+            ruleBytes.writeTo(out);
+        }
+        out.writeShort(zones.size());
+        int regionIndex = 0;
+        for (ZoneRules rules : zones.values()) {
+            out.writeShort(regionIndex++);
+            out.writeShort(rulesList.indexOf(rules));
+        }
+        out.close();
+        return baos.toByteArray();
+    }
+
+    //-----------------------------------------------------------------------
+    // concurrent decoding
+    //-----------------------------------------------------------------------
+    public void test_concurrentFirstUse_decodedOnce() throws Exception {
+        final TzdbZoneRulesProvider provider = loadTzdb();
+        final List<String> zoneIds = new ArrayList<String>(new TreeSet<String>(provider.provideZoneIds()));
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<ZoneRules[]>> futures = new ArrayList<Future<ZoneRules[]>>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(new Callable<ZoneRules[]>() {
+                    public ZoneRules[] call() throws Exception {
+                        startLatch.await();
+                        ZoneRules[] result = new ZoneRules[zoneIds.size()];
+                        for (int j = 0; j < result.length; j++) {
+                            result[j] = provider.provideRules(zoneIds.get(j), false);
+                        }
+                        return result;
+                    }
+                }));
+            }
+            startLatch.countDown();
+            ZoneRules[] first = futures.get(0).get();
+            for (Future<ZoneRules[]> future : futures) {
+                ZoneRules[] other = future.get();
+                for (int j = 0; j < first.length; j++) {
+                    assertTrue(first[j] == other[j], zoneIds.get(j));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    // file format
+    //-----------------------------------------------------------------------
+    public void test_format_bundledIsVersion2() throws IOException {
+        InputStream in = openTzdb();
+        try {
+            assertEquals(in.read(), 2);
+        } finally {
+            in.close();
+        }
+    }
+
+    public void test_format_version1Readable() throws IOException {
+        SortedMap<String, ZoneRules> expected = latestRules(loadTzdb());
+        byte[] bytes = writeVersion1("2000a", expected);
+        TzdbZoneRulesProvider test = new TzdbZoneRulesProvider(new ByteArrayInputStream(bytes));
+        assertSameRules(test, expected);
+        assertEquals(test.provideVersions("Europe/London").keySet(), new TreeSet<String>(Arrays.asList("2000a")));
+    }
+
+    public void test_format_version1Mapped() throws IOException {
+        SortedMap<String, ZoneRules> expected = latestRules(loadTzdb());
+        File version1File = File.createTempFile("TZDB", ".dat");
+        try {
+            OutputStream out = new FileOutputStream(version1File);
+            try {
+                out.write(writeVersion1("2000a", expected));
+            } finally {
+                out.close();
+            }
+            assertSameRules(new TzdbZoneRulesProvider(version1File), expected);
+        } finally {
+            version1File.delete();
+        }
+    }
+
+    public void test_format_version2RoundTrip() throws IOException {
+        SortedMap<String, ZoneRules> expected = latestRules(loadTzdb());
+        Map<String, SortedMap<String, ZoneRules>> allBuiltZones = new TreeMap<String, SortedMap<String, ZoneRules>>();
+        allBuiltZones.put("2000a", expected);
+        Set<ZoneRules> allRules = new HashSet<ZoneRules>(expected.values());
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        TzdbZoneRulesCompiler.outputTzdbDat(baos, allBuiltZones, expected.keySet(), allRules);
+        byte[] bytes = baos.toByteArray();
+        assertEquals(bytes[0], 2);
+        assertSameRules(new TzdbZoneRulesProvider(new ByteArrayInputStream(bytes)), expected);
+        // smaller than version 1 of the format
+        assertTrue(bytes.length < writeVersion1("2000a", expected).length);
+    }
+
+    @Test(expectedExceptions=ZoneRulesException.class)
+    public void test_format_unknownVersion() {
+        new TzdbZoneRulesProvider(new ByteArrayInputStream(new byte[] {3, 0, 4, 'T', 'Z', 'D', 'B'}));
+    }
+
+    //-----------------------------------------------------------------------
+    // mapped file
+    //-----------------------------------------------------------------------
+    public void test_mappedFile_matchesStream() throws IOException {
+        TzdbZoneRulesProvider mapped = new TzdbZoneRulesProvider(file);
+        InputStream in = openTzdb();
+        TzdbZoneRulesProvider streamed;
+        try {
+            streamed = new TzdbZoneRulesProvider(in);
+        } finally {
+            in.close();
+        }
+        assertEquals(mapped.provideZoneIds(), streamed.provideZoneIds());
+        assertTrue(mapped.provideZoneIds().contains("Europe/London"));
+        for (String zoneId : mapped.provideZoneIds()) {
+            assertEquals(mapped.provideRules(zoneId, false), streamed.provideRules(zoneId, false), zoneId);
+            NavigableMap<String, ZoneRules> mappedVersions = mapped.provideVersions(zoneId);
+            assertEquals(mappedVersions, streamed.provideVersions(zoneId), zoneId);
+        }
+    }
+
+    public void test_mappedFile_rulesCached() {
+        TzdbZoneRulesProvider mapped = new TzdbZoneRulesProvider(file);
+        ZoneRules rules = mapped.provideRules("Europe/Paris", false);
+        assertTrue(rules == mapped.provideRules("Europe/Paris", false));
+    }
+
+    @Test(expectedExceptions=ZoneRulesException.class)
+    public void test_mappedFile_unknownId() {
+        new TzdbZoneRulesProvider(file).provideRules("Europe/Lon", false);
+    }
+
+    @Test(expectedExceptions=ZoneRulesException.class)
+    public void test_mappedFile_missingFile() {
+        new TzdbZoneRulesProvider(new File(file.getPath() + ".missing"));
+    }
+
+    @Test(expectedExceptions=NullPointerException.class)
+    public void test_mappedFile_null() {
+        new TzdbZoneRulesProvider((File) null);
+    }
+
+}
@@ -0,0 +1,508 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+import static org.threeten.bp.temporal.TemporalAdjusters.lastInMonth;
+import static org.threeten.bp.temporal.TemporalAdjusters.nextOrSame;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.threeten.bp.DayOfWeek;
+import org.threeten.bp.Duration;
+import org.threeten.bp.Instant;
+import org.threeten.bp.LocalDate;
+import org.threeten.bp.LocalDateTime;
+import org.threeten.bp.LocalTime;
+import org.threeten.bp.Month;
+import org.threeten.bp.ZoneId;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.zone.ZoneOffsetTransitionRule.TimeDefinition;
+
+/**
+ * Test TzifZoneRulesProvider.
+ * <p>
+ * The TZif files are generated from the TZDB rules, so that the tests do not
+ * depend on the files installed on the machine.
+ */
+@Test
+public class TestTzifZoneRulesProvider {
+
+    private static final ZoneOffset OFFSET_ZERO = ZoneOffset.UTC;
+    private static final ZoneOffset OFFSET_PONE = ZoneOffset.ofHours(1);
+    private static final Instant END_OF_EXPLICIT = Instant.parse("2038-01-01T00:00:00Z");
+
+    private File directory;
+    private Set<String> fixtureIds;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        directory = createTempDirectory();
+        fixtureIds = new TreeSet<String>(ZoneRulesProvider.getAvailableZoneIds());
+        StringBuilder index = new StringBuilder("# version test1\n# comment\n");
+        for (String zoneId : fixtureIds) {
+            writeFile(new File(directory, zoneId), writeTzif(ZoneRulesProvider.getRules(zoneId, false), '2'));
+            index.append("Z ").append(zoneId).append(" 0 - UTC\n");
+        }
+        writeFile(new File(directory, "UTC"), writeTzif(ZoneOffset.UTC.getRules(), '2'));
+        writeFile(new File(directory, "Test/Broken"), "Not a TZif file".getBytes("US-ASCII"));
+        index.append("Z UTC 0 - UTC\n");
+        index.append("Z Test/Broken 0 - UTC\n");
+        index.append("L Europe/London Test/Link\n");
+        writeFile(new File(directory, "Test/Link"), writeTzif(ZoneRulesProvider.getRules("Europe/London", false), '3'));
+        writeFile(new File(directory, "tzdata.zi"), index.toString().getBytes("US-ASCII"));
+    }
+
+    @AfterClass
+    public void tearDown() {
+        delete(directory);
+    }
+
+    //-----------------------------------------------------------------------
+    // fixtures
+    //-----------------------------------------------------------------------
+    private static File createTempDirectory() throws IOException {
+        File dir = File.createTempFile("zoneinfo", "");
+        dir.delete();
+        if (dir.mkdir() == false) {
+            throw new IOException("Unable to create directory: " + dir);
+        }
+        return dir;
+    }
+
+    private static void writeFile(File file, byte[] bytes) throws IOException {
+        file.getParentFile().mkdirs();
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    // writes a TZif file, using a POSIX TZ string for the yearly rules where possible,
+    // otherwise writing the transitions up to 2037 explicitly
+    // version '\0' writes only the version 1 data, which cannot hold transitions before 1901
+    private static byte[] writeTzif(ZoneRules rules, char version) throws IOException {
+        String footer = (version >= '2' ? posixString(rules) : null);
+        List<ZoneOffsetTransition> transitions = new ArrayList<ZoneOffsetTransition>(rules.getTransitions());
+        if (footer == null && rules.getTransitionRules().size() > 0) {
+            Instant start = (transitions.isEmpty() ? Instant.MIN : transitions.get(transitions.size() - 1).getInstant().plusSeconds(1));
+            Iterator<ZoneOffsetTransition> it = rules.transitionIterator(start, END_OF_EXPLICIT);
+            while (it.hasNext()) {
+                transitions.add(it.next());
+            }
+        }
+        Instant initial = Instant.MIN;
+        if (version < '2') {
+            while (transitions.size() > 0 && transitions.get(0).toEpochSecond() < Integer.MIN_VALUE) {
+                initial = transitions.remove(0).getInstant();
+            }
+        }
+        List<Integer> types = new ArrayList<Integer>();
+        types.add(typeKey(rules, initial));
+        int[] typeIndices = new int[transitions.size()];
+        for (int i = 0; i < transitions.size(); i++) {
+            int key = typeKey(rules, transitions.get(i).getInstant());
+            if (types.contains(key) == false) {
+                types.add(key);
+            }
+            typeIndices[i] = types.indexOf(key);
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        if (version >= '2') {
+            // minimal version 1 data
+            writeHeader(out, version, 0, 1);
+            writeType(out, types.get(0));
+            out.writeBytes("ZZZ\0");
+        }
+        writeHeader(out, version, transitions.size(), types.size());
+        for (ZoneOffsetTransition trans : transitions) {
+            if (version >= '2') {
+                out.writeLong(trans.toEpochSecond());
+            } else {
+                out.writeInt((int) trans.toEpochSecond());
+            }
+        }
+        for (int typeIndex : typeIndices) {
+            out.writeByte(typeIndex);
+        }
+        for (int key : types) {
+            writeType(out, key);
+        }
+        out.writeBytes("ZZZ\0");
+        if (version >= '2') {
+            out.writeBytes("\n" + (footer != null ? footer : "") + "\n");
+        }
+        out.close();
+        return baos.toByteArray();
+    }
+
+    private static int typeKey(ZoneRules rules, Instant instant) {
+        return rules.getOffset(instant).getTotalSeconds() * 2 + (rules.isDaylightSavings(instant) ? 1 : 0);
+    }
+
+    private static void writeHeader(DataOutputStream out, char version, int timeCount, int typeCount) throws IOException {
+        out.writeBytes("TZif");
+        out.writeByte(version);
+        out.write(new byte[15]);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeInt(0);
+        out.writeInt(timeCount);
+        out.writeInt(typeCount);
+        out.writeInt(4);
+    }
+
+    private static void writeType(DataOutputStream out, int key) throws IOException {
+        out.writeInt(key >> 1);
+        out.writeByte(key & 1);
+        out.writeByte(0);
+    }
+
+    // the POSIX TZ string for the yearly rules, null if not expressible
+    private static String posixString(ZoneRules rules) {
+        List<ZoneOffsetTransitionRule> lastRules = rules.getTransitionRules();
+        if (lastRules.isEmpty()) {
+            List<ZoneOffsetTransition> transitions = rules.getTransitions();
+            ZoneOffset offset = (transitions.isEmpty() ? rules.getOffset(Instant.MIN) : transitions.get(transitions.size() - 1).getOffsetAfter());
+            return "<STD>" + posixOffset(offset);
+        }
+        if (lastRules.size() != 2) {
+            return null;
+        }
+        ZoneOffsetTransitionRule start = lastRules.get(0);
+        ZoneOffsetTransitionRule end = lastRules.get(1);
+        if (start.getOffsetBefore().equals(start.getStandardOffset()) == false) {
+            start = lastRules.get(1);
+            end = lastRules.get(0);
+        }
+        ZoneOffset standard = start.getStandardOffset();
+        if (start.getOffsetBefore().equals(standard) == false || end.getOffsetAfter().equals(standard) == false ||
+                end.getStandardOffset().equals(standard) == false) {
+            return null;
+        }
+        String startRule = posixRule(start);
+        String endRule = posixRule(end);
+        if (startRule == null || endRule == null) {
+            return null;
+        }
+        return "<STD>" + posixOffset(standard) + "<DST>" + posixOffset(start.getOffsetAfter()) + "," + startRule + "," + endRule;
+    }
+
+    private static String posixOffset(ZoneOffset offset) {
+        return posixTime(-offset.getTotalSeconds());
+    }
+
+    private static String posixTime(int secs) {
+        StringBuilder buf = new StringBuilder(secs < 0 ? "-" : "");
+        secs = Math.abs(secs);
+        buf.append(secs / 3600);
+        if (secs % 3600 != 0) {
+            buf.append(':').append((secs / 60) % 60);
+            if (secs % 60 != 0) {
+                buf.append(':').append(secs % 60);
+            }
+        }
+        return buf.toString();
+    }
+
+    private static String posixRule(ZoneOffsetTransitionRule rule) {
+        Month month = rule.getMonth();
+        int dom = rule.getDayOfMonthIndicator();
+        DayOfWeek dow = rule.getDayOfWeek();
+        String date;
+        LocalDate base;
+        int year = 2001;
+        boolean lastWeek = (dom == -1 || (month.minLength() == month.maxLength() && dom == month.minLength() - 6));
+        if (dow != null && (lastWeek || (dom > 0 && dom % 7 == 1 && dom <= 22))) {
+            int week = (lastWeek ? 5 : (dom - 1) / 7 + 1);
+            date = "M" + month.getValue() + "." + week + "." + (dow.getValue() % 7);
+            base = (lastWeek ? LocalDate.of(year, month, 1).with(lastInMonth(dow)) : LocalDate.of(year, month, dom).with(nextOrSame(dow)));
+        } else if (dow == null && dom > 0 && (month != Month.FEBRUARY || dom < 29)) {
+            base = LocalDate.of(year, month, dom);
+            date = "J" + base.getDayOfYear();
+        } else {
+            return null;
+        }
+        // the time in the wall offset before the transition, relative to the start of the day
+        LocalDateTime wall = rule.createTransition(year).getDateTimeBefore();
+        int secs = (int) Duration.between(base.atStartOfDay(), wall).getSeconds();
+        return date + "/" + posixTime(secs);
+    }
+
+    private static void assertSameOffsets(ZoneRules test, ZoneRules expected, Instant start, Instant end, String zoneId) {
+        assertEquals(test.getOffset(start), expected.getOffset(start), zoneId);
+        Iterator<ZoneOffsetTransition> it = expected.transitionIterator(start, end);
+        while (it.hasNext()) {
+            ZoneOffsetTransition trans = it.next();
+            long epochSec = trans.toEpochSecond();
+            assertEquals(test.getOffsetSeconds(epochSec - 1), trans.getOffsetBefore().getTotalSeconds(), zoneId + " " + trans);
+            assertEquals(test.getOffsetSeconds(epochSec), trans.getOffsetAfter().getTotalSeconds(), zoneId + " " + trans);
+            assertEquals(test.getValidOffsets(trans.getDateTimeBefore()), expected.getValidOffsets(trans.getDateTimeBefore()), zoneId + " " + trans);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    // provider
+    //-----------------------------------------------------------------------
+    public void test_zoneIdsAndVersion() {
+        TzifZoneRulesProvider test = new TzifZoneRulesProvider(directory);
+        Set<String> expected = new HashSet<String>(fixtureIds);
+        expected.add("Test/Broken");
+        expected.add("Test/Link");
+        assertEquals(test.provideZoneIds(), expected);
+        assertEquals(test.provideVersions("Europe/London").keySet(), Collections.singleton("test1"));
+        assertEquals(test.provideVersions("Unknown/Region").size(), 0);
+        assertEquals(test.toString(), "TZif[" + directory + ", test1]");
+    }
+
+    public void test_provideRules_allZones_matchTzdb() {
+        TzifZoneRulesProvider test = new TzifZoneRulesProvider(directory);
+        Instant start = Instant.parse("1800-01-01T00:00:00Z");
+        Instant end = Instant.parse("2200-01-01T00:00:00Z");
+        for (String zoneId : fixtureIds) {
+            ZoneRules expected = ZoneRulesProvider.getRules(zoneId, false);
+            ZoneRules rules = test.provideRules(zoneId, false);
+            boolean footer = (posixString(expected) != null);
+            assertSameOffsets(rules, expected, start, footer ? end : END_OF_EXPLICIT, zoneId);
+            assertEquals(rules.getTransitionRules().size(), footer ? expected.getTransitionRules().size() : 0, zoneId);
+            assertTrue(test.provideRules(zoneId, true) == rules, zoneId);
+        }
+    }
+
+    public void test_provideRules_London() {
+        TzifZoneRulesProvider test = new TzifZoneRulesProvider(directory);
+        ZoneRules rules = test.provideRules("Test/Link", false);
+        assertEquals(rules.getOffset(LocalDateTime.of(2008, 6, 30, 12, 0)), OFFSET_PONE);
+        assertEquals(rules.getOffset(LocalDateTime.of(2150, 6, 30, 12, 0)), OFFSET_PONE);
+        assertEquals(rules.getOffset(LocalDateTime.of(2150, 12, 30, 12, 0)), OFFSET_ZERO);
+        assertEquals(rules.isDaylightSavings(Instant.parse("2150-06-30T12:00:00Z")), true);
+        assertEquals(rules.getStandardOffset(Instant.parse("2008-06-30T12:00:00Z")), OFFSET_ZERO);
+    }
+
+    public void test_provideRules_lazy() {
+        // the broken file is not read until used
+        TzifZoneRulesProvider test = new TzifZoneRulesProvider(directory);
+        try {
+            test.provideRules("Test/Broken", false);
+            fail();
+        } catch (ZoneRulesException ex) {
+            assertTrue(ex.getCause() instanceof StreamCorruptedException);
+        }
+    }
+
+    @Test(expectedExceptions = ZoneRulesException.class)
+    public void test_provideRules_unknown() {
+        new TzifZoneRulesProvider(directory).provideRules("Unknown/Region", false);
+    }
+
+    @Test(expectedExceptions = ZoneRulesException.class)
+    public void test_constructor_missingDirectory() {
+        new TzifZoneRulesProvider(new File(directory, "missing"));
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void test_constructor_null() {
+        new TzifZoneRulesProvider(null);
+    }
+
+    public void test_zoneIds_fromFileNames() throws IOException {
+        File dir = createTempDirectory();
+        try {
+            byte[] london = writeTzif(ZoneRulesProvider.getRules("Europe/London", false), '2');
+            writeFile(new File(dir, "Europe/London"), london);
+            writeFile(new File(dir, "Asia/Tokyo"), writeTzif(ZoneRulesProvider.getRules("Asia/Tokyo", false), '2'));
+            writeFile(new File(dir, "posix/Europe/London"), london);
+            writeFile(new File(dir, "right/Europe/London"), london);
+            writeFile(new File(dir, "posixrules"), london);
+            writeFile(new File(dir, "localtime"), london);
+            writeFile(new File(dir, "GMT"), london);
+            writeFile(new File(dir, "zone.tab"), new byte[0]);
+            TzifZoneRulesProvider test = new TzifZoneRulesProvider(dir);
+            assertEquals(test.provideZoneIds(), new HashSet<String>(Arrays.asList("Europe/London", "Asia/Tokyo")));
+            assertEquals(test.provideVersions("Asia/Tokyo").keySet(), Collections.singleton("UNKNOWN"));
+            assertEquals(test.provideRules("Asia/Tokyo", false).getOffset(Instant.EPOCH), ZoneOffset.ofHours(9));
+        } finally {
+            delete(dir);
+        }
+    }
+
+    @Test(expectedExceptions = ZoneRulesException.class)
+    public void test_constructor_emptyDirectory() throws IOException {
+        File dir = createTempDirectory();
+        try {
+            new TzifZoneRulesProvider(dir);
+        } finally {
+            delete(dir);
+        }
+    }
+
+    public void test_registerProvider() throws IOException {
+        File dir = createTempDirectory();
+        try {
+            writeFile(new File(dir, "Test/TzifLocation"), writeTzif(ZoneRulesProvider.getRules("Europe/Paris", false), '2'));
+            ZoneRulesProvider.registerProvider(new TzifZoneRulesProvider(dir));
+            ZoneRules rules = ZoneId.of("Test/TzifLocation").getRules();
+            assertEquals(rules.getOffset(Instant.parse("2150-06-30T12:00:00Z")), ZoneOffset.ofHours(2));
+        } finally {
+            // the rules remain cached by the provider
+            delete(dir);
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    // readRules()
+    //-----------------------------------------------------------------------
+    public void test_readRules_version1() throws IOException {
+        for (String zoneId : Arrays.asList("Europe/London", "America/New_York", "Australia/Sydney", "Asia/Tokyo")) {
+            ZoneRules expected = ZoneRulesProvider.getRules(zoneId, false);
+            ZoneRules test = TzifZoneRulesProvider.readRules(ByteBuffer.wrap(writeTzif(expected, '\0')));
+            assertSameOffsets(test, expected, Instant.parse("1902-01-01T00:00:00Z"), END_OF_EXPLICIT, zoneId);
+            assertEquals(test.getTransitionRules().size(), 0);
+        }
+    }
+
+    public void test_readRules_fixed() throws IOException {
+        ZoneRules test = TzifZoneRulesProvider.readRules(ByteBuffer.wrap(writeTzif(ZoneOffset.ofHours(-5).getRules(), '2')));
+        assertEquals(test.getOffset(Instant.EPOCH), ZoneOffset.ofHours(-5));
+        assertEquals(test.getTransitions().size(), 0);
+        assertEquals(test.getTransitionRules().size(), 0);
+    }
+
+    @Test(expectedExceptions = StreamCorruptedException.class)
+    public void test_readRules_notTzif() throws IOException {
+        TzifZoneRulesProvider.readRules(ByteBuffer.wrap("Not a TZif file, but long enough".getBytes("US-ASCII")));
+    }
+
+    @Test(expectedExceptions = StreamCorruptedException.class)
+    public void test_readRules_truncated() throws IOException {
+        byte[] bytes = writeTzif(ZoneRulesProvider.getRules("Europe/London", false), '2');
+        TzifZoneRulesProvider.readRules(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 20)));
+    }
+
+    //-----------------------------------------------------------------------
+    // parsePosixRules()
+    //-----------------------------------------------------------------------
+    public void test_parsePosixRules_London() throws IOException {
+        List<ZoneOffsetTransitionRule> test = TzifZoneRulesProvider.parsePosixRules("GMT0BST,M3.5.0/1,M10.5.0");
+        assertEquals(test, Arrays.asList(
+                ZoneOffsetTransitionRule.of(Month.MARCH, -1, DayOfWeek.SUNDAY, LocalTime.of(1, 0), false,
+                        TimeDefinition.WALL, OFFSET_ZERO, OFFSET_ZERO, OFFSET_PONE),
+                ZoneOffsetTransitionRule.of(Month.OCTOBER, -1, DayOfWeek.SUNDAY, LocalTime.of(2, 0), false,
+                        TimeDefinition.WALL, OFFSET_ZERO, OFFSET_PONE, OFFSET_ZERO)));
+    }
+
+    public void test_parsePosixRules_southernHemisphere() throws IOException {
+        List<ZoneOffsetTransitionRule> test = TzifZoneRulesProvider.parsePosixRules("AEST-10AEDT,M10.1.0,M4.1.0/3");
+        assertEquals(test.size(), 2);
+        assertEquals(test.get(0).getMonth(), Month.APRIL);
+        assertEquals(test.get(0).getOffsetAfter(), ZoneOffset.ofHours(10));
+        assertEquals(test.get(0).getDayOfMonthIndicator(), 1);
+        assertEquals(test.get(1).getMonth(), Month.OCTOBER);
+        assertEquals(test.get(1).getOffsetAfter(), ZoneOffset.ofHours(11));
+        assertEquals(test.get(1).createTransition(2024).getDateTimeBefore(), LocalDateTime.of(2024, 10, 6, 2, 0));
+    }
+
+    public void test_parsePosixRules_negativeAndExtendedTimes() throws IOException {
+        List<ZoneOffsetTransitionRule> test = TzifZoneRulesProvider.parsePosixRules("<-02>2<-01>,M3.5.0/-1,M10.5.0/0");
+        assertEquals(test.get(0).getStandardOffset(), ZoneOffset.ofHours(-2));
+        assertEquals(test.get(0).createTransition(2024).getDateTimeBefore(), LocalDateTime.of(2024, 3, 30, 23, 0));
+        assertEquals(test.get(1).createTransition(2024).getDateTimeBefore(), LocalDateTime.of(2024, 10, 27, 0, 0));
+        test = TzifZoneRulesProvider.parsePosixRules("<+0330>-3:30<+0430>,J79/24,J263/24");
+        assertEquals(test.get(0).getOffsetAfter(), ZoneOffset.ofHoursMinutes(4, 30));
+        assertEquals(test.get(0).createTransition(2024).getDateTimeBefore(), LocalDateTime.of(2024, 3, 21, 0, 0));
+        assertEquals(test.get(1).createTransition(2024).getDateTimeBefore(), LocalDateTime.of(2024, 9, 21, 0, 0));
+    }
+
+    public void test_parsePosixRules_defaultDaylightOffset() throws IOException {
+        List<ZoneOffsetTransitionRule> test = TzifZoneRulesProvider.parsePosixRules("EST5EDT,M3.2.0,M11.1.0");
+        assertEquals(test.get(0).getOffsetBefore(), ZoneOffset.ofHours(-5));
+        assertEquals(test.get(0).getOffsetAfter(), ZoneOffset.ofHours(-4));
+        assertEquals(test.get(0).createTransition(2024).getDateTimeBefore(), LocalDateTime.of(2024, 3, 10, 2, 0));
+        assertEquals(test.get(1).createTransition(2024).getDateTimeBefore(), LocalDateTime.of(2024, 11, 3, 2, 0));
+    }
+
+    public void test_parsePosixRules_noDaylightSavings() throws IOException {
+        assertEquals(TzifZoneRulesProvider.parsePosixRules("JST-9").size(), 0);
+        assertEquals(TzifZoneRulesProvider.parsePosixRules("<+0545>-5:45").size(), 0);
+        assertEquals(TzifZoneRulesProvider.parsePosixRules("").size(), 0);
+    }
+
+    @Test(expectedExceptions = StreamCorruptedException.class)
+    public void test_parsePosixRules_zeroBasedJulianDay() throws IOException {
+        TzifZoneRulesProvider.parsePosixRules("EST5EDT,0/0,J365/25");
+    }
+
+    @Test(expectedExceptions = StreamCorruptedException.class)
+    public void test_parsePosixRules_shortName() throws IOException {
+        TzifZoneRulesProvider.parsePosixRules("X5");
+    }
+
+    @Test(expectedExceptions = StreamCorruptedException.class)
+    public void test_parsePosixRules_trailingText() throws IOException {
+        TzifZoneRulesProvider.parsePosixRules("GMT0BST,M3.5.0/1,M10.5.0,M1.1.1");
+    }
+
+}
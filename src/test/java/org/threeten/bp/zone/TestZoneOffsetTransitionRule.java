@@ -38,9 +38,11 @@ import java.io.IOException;
 import org.testng.annotations.Test;
 import org.threeten.bp.AbstractTest;
 import org.threeten.bp.DayOfWeek;
+import org.threeten.bp.LocalDate;
 import org.threeten.bp.LocalDateTime;
 import org.threeten.bp.LocalTime;
 import org.threeten.bp.Month;
+import org.threeten.bp.Year;
 import org.threeten.bp.ZoneOffset;
 import org.threeten.bp.zone.ZoneOffsetTransitionRule.TimeDefinition;
 
@@ -278,6 +280,48 @@ public class TestZoneOffsetTransitionRule extends AbstractTest {
         assertEquals(test.createTransition(2000), trans);
     }
 
+    //-----------------------------------------------------------------------
+    // createTransitionEpochSecond()
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_createTransitionEpochSecond_matchesCreateTransition() {
+        int[] doms = {1, 15, 20, 28, 29, 31, -1, -2, -7, -28};
+        DayOfWeek[] dows = {null, DayOfWeek.MONDAY, DayOfWeek.SUNDAY};
+        LocalTime[] times = {LocalTime.MIDNIGHT, TIME_0100, LocalTime.of(23, 30)};
+        for (Month month : Month.values()) {
+            for (int dom : doms) {
+                if (dom > month.minLength()) {
+                    continue;
+                }
+                for (DayOfWeek dow : dows) {
+                    for (LocalTime time : times) {
+                        for (TimeDefinition timeDefinition : TimeDefinition.values()) {
+                            boolean endOfDay = time.equals(LocalTime.MIDNIGHT);
+                            ZoneOffsetTransitionRule test = ZoneOffsetTransitionRule.of(
+                                    month, dom, dow, time, endOfDay, timeDefinition,
+                                    OFFSET_0200, OFFSET_0200, OFFSET_0300);
+                            for (int year = -2001; year <= 2401; year += 37) {
+                                assertEquals(test.createTransitionEpochSecond(year), test.createTransition(year).toEpochSecond(), test + " " + year);
+                            }
+                            for (int year = 2096; year <= 2104; year++) {
+                                assertEquals(test.createTransitionEpochSecond(year), test.createTransition(year).toEpochSecond(), test + " " + year);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_yearStartEpochDay() {
+        for (int year = -2001; year <= 2401; year++) {
+            assertEquals(ZoneOffsetTransitionRule.yearStartEpochDay(year), LocalDate.of(year, 1, 1).toEpochDay(), "" + year);
+        }
+        assertEquals(ZoneOffsetTransitionRule.yearStartEpochDay(Year.MIN_VALUE), LocalDate.MIN.toEpochDay());
+        assertEquals(ZoneOffsetTransitionRule.yearStartEpochDay(Year.MAX_VALUE), LocalDate.of(Year.MAX_VALUE, 1, 1).toEpochDay());
+    }
+
     //-----------------------------------------------------------------------
     // equals()
     //-----------------------------------------------------------------------
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.testng.annotations.Test;
+import org.threeten.bp.DayOfWeek;
+import org.threeten.bp.LocalTime;
+import org.threeten.bp.Month;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.zone.ZoneOffsetTransitionRule.TimeDefinition;
+
+/**
+ * Test ZoneRulesInterner.
+ */
+@Test
+public class TestZoneRulesInterner {
+
+    private static final ZoneOffset OFFSET_0100 = ZoneOffset.ofHours(1);
+    private static final ZoneOffset OFFSET_0200 = ZoneOffset.ofHours(2);
+
+    private static ZoneOffsetTransitionRule[] createLastRules() {
+        return new ZoneOffsetTransitionRule[] {
+            ZoneOffsetTransitionRule.of(Month.MARCH, 25, DayOfWeek.SUNDAY, LocalTime.of(1, 0), false,
+                    TimeDefinition.UTC, OFFSET_0100, OFFSET_0100, OFFSET_0200),
+            ZoneOffsetTransitionRule.of(Month.OCTOBER, 25, DayOfWeek.SUNDAY, LocalTime.of(1, 0), false,
+                    TimeDefinition.UTC, OFFSET_0100, OFFSET_0200, OFFSET_0100),
+        };
+    }
+
+    private static ZoneRules copy(ZoneRules rules) throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(baos);
+        Ser.write(rules, out);
+        out.close();
+        return (ZoneRules) Ser.read(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+    }
+
+    private static TzdbZoneRulesProvider loadTzdb() throws IOException {
+        InputStream in = TzdbZoneRulesProvider.class.getClassLoader().getResourceAsStream("org/threeten/bp/TZDB.dat");
+        try {
+            return new TzdbZoneRulesProvider(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_intern_rules_equalRulesShared() throws Exception {
+        ZoneRules rules = ZoneRulesProvider.getRules("Europe/Paris", false);
+        ZoneRules other = copy(rules);
+        assertTrue(other != rules);
+        assertEquals(other, rules);
+        ZoneRules interned = ZoneRulesInterner.intern(rules);
+        assertTrue(ZoneRulesInterner.intern(other) == interned);
+    }
+
+    public void test_intern_rules_differentRulesNotShared() {
+        ZoneRules paris = ZoneRulesInterner.intern(ZoneRulesProvider.getRules("Europe/Paris", false));
+        ZoneRules london = ZoneRulesInterner.intern(ZoneRulesProvider.getRules("Europe/London", false));
+        assertTrue(paris != london);
+    }
+
+    public void test_intern_lastRules_equalArraysShared() {
+        ZoneOffsetTransitionRule[] lastRules = ZoneRulesInterner.intern(createLastRules());
+        assertTrue(ZoneRulesInterner.intern(createLastRules()) == lastRules);
+        ZoneOffsetTransitionRule[] oneRule = new ZoneOffsetTransitionRule[] {createLastRules()[0]};
+        assertTrue(ZoneRulesInterner.intern(oneRule) == oneRule);
+    }
+
+    public void test_intern_separateProviders_shareRules() throws IOException {
+        TzdbZoneRulesProvider first = loadTzdb();
+        TzdbZoneRulesProvider second = loadTzdb();
+        for (String zoneId : first.provideZoneIds()) {
+            assertTrue(first.provideRules(zoneId, false) == second.provideRules(zoneId, false), zoneId);
+        }
+    }
+
+}
@@ -43,6 +43,7 @@ import java.util.Set;
 import java.util.TreeMap;
 
 import org.testng.annotations.Test;
+import org.threeten.bp.ZoneId;
 import org.threeten.bp.ZoneOffset;
 
 /**
@@ -68,6 +69,17 @@ public class TestZoneRulesProvider {
         assertEquals(zoneIds2.contains("Europe/London"), true);
     }
 
+    //-----------------------------------------------------------------------
+    // preloadAll()
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_preloadAll() {
+        ZoneRulesProvider.preloadAll();
+        ZoneRules rules = ZoneRulesProvider.getRules("Europe/London", false);
+        assertNotNull(rules);
+        assertTrue(rules == ZoneRulesProvider.getRules("Europe/London", false));
+    }
+
     //-----------------------------------------------------------------------
     // getRules(String)
     //-----------------------------------------------------------------------
@@ -124,6 +136,47 @@ public class TestZoneRulesProvider {
         assertEquals(ZoneRulesProvider.refresh(), false);
     }
 
+    //-----------------------------------------------------------------------
+    // dynamic provider
+    //-----------------------------------------------------------------------
+    @Test
+    public void test_dynamicProvider_queriedOnEachUse() {
+        MockDynamicProvider provider = new MockDynamicProvider();
+        ZoneRulesProvider.registerProvider(provider);
+        ZoneId zone = ZoneId.of("DynamicLocation");
+        assertEquals(zone.getRules(), ZoneOffset.of("+02:00").getRules());
+        int queries = provider.queries;
+        assertEquals(zone.getRules(), ZoneOffset.of("+02:00").getRules());
+        assertEquals(provider.queries, queries + 1);
+
+        provider.rules = ZoneOffset.of("+03:00").getRules();
+        assertEquals(zone.getRules(), ZoneOffset.of("+03:00").getRules());
+        assertEquals(provider.queries, queries + 2);
+    }
+
+    static class MockDynamicProvider extends ZoneRulesProvider {
+        volatile ZoneRules rules = ZoneOffset.of("+02:00").getRules();
+        volatile int queries;
+        @Override
+        public Set<String> provideZoneIds() {
+            return new HashSet<String>(Collections.singleton("DynamicLocation"));
+        }
+        @Override
+        protected NavigableMap<String, ZoneRules> provideVersions(String zoneId) {
+            NavigableMap<String, ZoneRules> result = new TreeMap<String, ZoneRules>();
+            result.put("DynamicVersion", rules);
+            return result;
+        }
+        @Override
+        protected ZoneRules provideRules(String zoneId, boolean forCaching) {
+            if (forCaching) {
+                return null;
+            }
+            queries++;
+            return rules;
+        }
+    }
+
     //-----------------------------------------------------------------------
     // registerProvider()
     //-----------------------------------------------------------------------
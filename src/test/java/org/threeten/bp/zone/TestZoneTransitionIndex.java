@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2007-present, Stephen Colebourne & Michael Nascimento Santos
+ *
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ *  * Redistributions of source code must retain the above copyright notice,
+ *    this list of conditions and the following disclaimer.
+ *
+ *  * Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ *  * Neither the name of JSR-310 nor the names of its contributors
+ *    may be used to endorse or promote products derived from this software
+ *    without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT
+ * LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR
+ * A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+ * PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ * LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.threeten.bp.zone;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.threeten.bp.Instant;
+import org.threeten.bp.ZoneOffset;
+import org.threeten.bp.ZonedDateTime;
+
+/**
+ * Test ZoneTransitionIndex.
+ */
+@Test
+public class TestZoneTransitionIndex {
+
+    private ZoneTransitionIndex index;
+
+    @BeforeClass
+    public void setUp() {
+        index = ZoneTransitionIndex.ofAvailableZoneIds();
+    }
+
+    private static Instant instant(int year, int month, int day) {
+        return ZonedDateTime.of(year, month, day, 0, 0, 0, 0, ZoneOffset.UTC).toInstant();
+    }
+
+    // the regions found by checking the next transition of each region
+    private static Set<String> expected(Set<String> regionIds, Instant start, Instant end) {
+        Set<String> expected = new TreeSet<String>();
+        for (String regionId : regionIds) {
+            ZoneOffsetTransition trans = ZoneRulesProvider.getRules(regionId, false).nextTransition(start.minusNanos(1));
+            if (trans != null && trans.getInstant().isBefore(end)) {
+                expected.add(regionId);
+            }
+        }
+        return expected;
+    }
+
+    //-----------------------------------------------------------------------
+    @DataProvider(name = "windows")
+    Object[][] data_windows() {
+        return new Object[][] {
+            {instant(1850, 1, 1), instant(1900, 1, 1)},
+            {instant(1916, 5, 1), instant(1916, 6, 1)},
+            {instant(1970, 1, 1), instant(1971, 1, 1)},
+            {instant(2008, 3, 1), instant(2008, 4, 1)},
+            {instant(2010, 3, 28), instant(2010, 3, 29)},
+            {instant(2010, 3, 28).plusSeconds(3600), instant(2010, 3, 28).plusSeconds(3601)},
+            {instant(2024, 1, 1), instant(2024, 3, 1)},
+            {instant(2024, 3, 1), instant(2024, 4, 15)},
+            {instant(2024, 10, 25), instant(2024, 11, 5)},
+            {instant(2037, 12, 1), instant(2038, 5, 1)},
+            {instant(2100, 3, 1), instant(2100, 4, 1)},
+            {instant(2100, 6, 1), instant(2100, 7, 1)},
+            {instant(2500, 1, 1), instant(2502, 1, 1)},
+            {instant(2000, 1, 1), instant(2000, 1, 1)},
+        };
+    }
+
+    @Test(dataProvider = "windows")
+    public void test_getTransitionRegionIds_matchesNextTransition(Instant start, Instant end) {
+        Set<String> expected = expected(ZoneRulesProvider.getAvailableZoneIds(), start, end);
+        assertEquals(index.getTransitionRegionIds(start, end), expected);
+    }
+
+    public void test_getTransitionRegionIds_yearsBeyondCache() {
+        // 2500 and 2516 share a slot in the overflow cache
+        int[] years = {2500, 2516, 2500, 2516, 2200, 2500};
+        for (int year : years) {
+            Instant start = instant(year, 3, 1);
+            Instant end = instant(year, 11, 1);
+            assertEquals(index.getTransitionRegionIds(start, end), expected(ZoneRulesProvider.getAvailableZoneIds(), start, end));
+        }
+    }
+
+    public void test_getTransitionRegionIds_exactTransition() {
+        // Europe/London moved to summer time at 01:00 UTC on 2010-03-28
+        Instant transition = instant(2010, 3, 28).plusSeconds(3600);
+        assertTrue(index.getTransitionRegionIds(transition, transition.plusSeconds(1)).contains("Europe/London"));
+        assertEquals(index.getTransitionRegionIds(transition, transition).contains("Europe/London"), false);
+        assertEquals(index.getTransitionRegionIds(transition.minusSeconds(1), transition).contains("Europe/London"), false);
+        assertEquals(index.getTransitionRegionIds(transition.plusNanos(1), transition.plusSeconds(3600)).contains("Europe/London"), false);
+        assertTrue(index.getTransitionRegionIds(transition.minusNanos(1), transition.plusNanos(1)).contains("Europe/London"));
+    }
+
+    public void test_getTransitionRegionIds_allTime() {
+        Set<String> expected = new TreeSet<String>();
+        for (String regionId : ZoneRulesProvider.getAvailableZoneIds()) {
+            if (ZoneRulesProvider.getRules(regionId, false).getTransitions().isEmpty() == false) {
+                expected.add(regionId);
+            }
+        }
+        assertEquals(index.getTransitionRegionIds(Instant.MIN, Instant.MAX), expected);
+    }
+
+    public void test_getTransitionRegionIds_sorted() {
+        Set<String> found = index.getTransitionRegionIds(instant(2020, 1, 1), instant(2021, 1, 1));
+        assertEquals(found.toString(), new TreeSet<String>(found).toString());
+    }
+
+    @Test(expectedExceptions=IllegalArgumentException.class)
+    public void test_getTransitionRegionIds_endBeforeStart() {
+        index.getTransitionRegionIds(instant(2020, 1, 1), instant(2019, 1, 1));
+    }
+
+    @Test(expectedExceptions=NullPointerException.class)
+    public void test_getTransitionRegionIds_nullStart() {
+        index.getTransitionRegionIds(null, instant(2019, 1, 1));
+    }
+
+    @Test(expectedExceptions=NullPointerException.class)
+    public void test_getTransitionRegionIds_nullEnd() {
+        index.getTransitionRegionIds(instant(2019, 1, 1), null);
+    }
+
+    //-----------------------------------------------------------------------
+    public void test_of_subset() {
+        ZoneTransitionIndex test = ZoneTransitionIndex.of(Arrays.asList("Europe/Paris", "Asia/Tokyo", "America/New_York"));
+        assertEquals(test.getRegionIds().toString(), "[America/New_York, Asia/Tokyo, Europe/Paris]");
+        assertEquals(test.getTransitionRegionIds(instant(2024, 3, 1), instant(2024, 3, 20)).toString(), "[America/New_York]");
+        assertEquals(test.getTransitionRegionIds(instant(2024, 3, 1), instant(2024, 4, 1)).toString(), "[America/New_York, Europe/Paris]");
+        assertEquals(test.getTransitionRegionIds(instant(2024, 5, 1), instant(2024, 9, 1)).toString(), "[]");
+    }
+
+    @Test(expectedExceptions=ZoneRulesException.class)
+    public void test_of_unknown() {
+        ZoneTransitionIndex.of(Arrays.asList("Europe/Paris", "Unknown/Region"));
+    }
+
+    @Test(expectedExceptions=NullPointerException.class)
+    public void test_of_null() {
+        ZoneTransitionIndex.of(null);
+    }
+
+}